@@ -0,0 +1,48 @@
+package org.example.aiservice.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * HTTP client gọi sang recruitment-service để lấy JD text theo positionId.
+ * Chỉ được gọi khi JD cache miss — mỗi JD chỉ fetch 1 lần cho cả batch.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecruitmentServiceClient {
+
+    private static final String JD_TEXT_PATH = "/positions/jd/{positionId}/text";
+
+    private final RestTemplate restTemplate;
+
+    @Value("${recruitment-service.url:http://localhost:8082}")
+    private String recruitmentServiceUrl;
+
+    /**
+     * Fetch JD text của position. Trả về null nếu recruitment-service không có JD
+     * (position bị xóa, JD chưa parse xong...). Lỗi 5xx / network ném RestClientException
+     * để RabbitMQ retry.
+     */
+    public String fetchJdText(int positionId) {
+        JsonNode body;
+        try {
+            body = restTemplate.getForObject(recruitmentServiceUrl + JD_TEXT_PATH, JsonNode.class, positionId);
+        } catch (HttpClientErrorException e) {
+            log.warn("[RECRUITMENT-CLIENT] Fetch JD failed for positionId={}: status={}",
+                    positionId, e.getStatusCode().value());
+            return null;
+        }
+        if (body == null) {
+            return null;
+        }
+
+        JsonNode jdText = body.path("data").path("jdText");
+        return jdText.isMissingNode() || jdText.isNull() ? null : jdText.asText();
+    }
+}
@@ -3,6 +3,7 @@ package org.example.aiservice.listener;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.aiservice.config.RabbitMQConfig;
+import org.example.aiservice.services.JdTextCache;
 import org.example.aiservice.services.LlmAnalysisService;
 import org.example.commonlibrary.dto.request.CVAnalysisRequest;
 import org.example.commonlibrary.dto.response.CVAnalysisResult;
@@ -17,6 +18,7 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class AIAnalysisListener {
     private final LlmAnalysisService llmAnalysisService;
+    private final JdTextCache jdTextCache;
     private final RabbitTemplate rabbitTemplate;
 
     @RabbitListener(queues = RabbitMQConfig.CV_ANALYZE_QUEUE, containerFactory = "rabbitListenerContainerFactory")
@@ -31,7 +33,15 @@ public class AIAnalysisListener {
 
         try {
             validateRequest(request, request.getCvId(), request.getBatchId());
-            CVAnalysisResult result = llmAnalysisService.analyze(request);
+
+            String jdText = jdTextCache.resolve(request);
+            if (jdText == null || jdText.isBlank()) {
+                log.error("[AI-LISTENER] Validation failed: cannot resolve JD for cvId={}, positionId={}, batchId={}",
+                        request.getCvId(), request.getPositionId(), request.getBatchId());
+                throw new IllegalArgumentException("jdText could not be resolved");
+            }
+
+            CVAnalysisResult result = llmAnalysisService.analyze(request, jdText);
 
             // Success → publish result
             rabbitTemplate.convertAndSend(
@@ -59,10 +69,12 @@ public class AIAnalysisListener {
             throw new IllegalArgumentException("cvText is empty or null");
         }
 
-        if (request.getJdText() == null || request.getJdText().isBlank()) {
-            log.error("[AI-LISTENER] Validation failed: jdText is empty for cvId={}, batchId={}",
+        boolean hasInlineJd = request.getJdText() != null && !request.getJdText().isBlank();
+        boolean hasJdReference = request.getPositionId() != null && request.getJdHash() != null;
+        if (!hasInlineJd && !hasJdReference) {
+            log.error("[AI-LISTENER] Validation failed: neither jdText nor positionId+jdHash for cvId={}, batchId={}",
                     cvId, batchId);
-            throw new IllegalArgumentException("jdText is empty or null");
+            throw new IllegalArgumentException("jdText is empty or null and no JD reference provided");
         }
 
         if (cvId == null || cvId <= 0) {
@@ -0,0 +1,137 @@
+package org.example.aiservice.services;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.aiservice.client.RecruitmentServiceClient;
+import org.example.commonlibrary.dto.request.CVAnalysisRequest;
+import org.example.commonlibrary.utils.ContentHashUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LRU cache JD text theo content hash (jdHash).
+ * Batch 300 CV cùng 1 position chỉ cần gửi positionId + jdHash qua RabbitMQ,
+ * JD text được fetch từ recruitment-service 1 lần duy nhất khi cache miss.
+ * Inline jdText trong request vẫn được ưu tiên dùng làm fallback.
+ *
+ * Miss đồng thời cho cùng 1 jdHash (nhiều listener thread của cùng batch) chỉ fetch 1 lần:
+ * thread đầu tiên fetch, các thread còn lại chờ chung kết quả (single-flight).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JdTextCache {
+
+    private final RecruitmentServiceClient recruitmentServiceClient;
+
+    @Value("${jd-cache.max-entries:128}")
+    private int maxEntries;
+
+    private Map<String, String> cache;
+
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Resolve JD text cho request theo thứ tự:
+     * 1. Cache hit theo jdHash.
+     * 2. Inline jdText (nếu có) — đồng thời warm cache cho các CV tiếp theo.
+     * 3. Fetch từ recruitment-service theo positionId, verify hash rồi cache.
+     *
+     * @return JD text, hoặc null nếu không resolve được
+     */
+    public String resolve(CVAnalysisRequest request) {
+        String jdHash = request.getJdHash();
+        String inline = request.getJdText();
+
+        if (jdHash != null) {
+            String cached = cache.get(jdHash);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        if (inline != null && !inline.isBlank()) {
+            cache.put(jdHash != null ? jdHash : ContentHashUtil.sha256Hex(inline), inline);
+            return inline;
+        }
+
+        if (jdHash == null || request.getPositionId() == null) {
+            return null;
+        }
+
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(jdHash, mine);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            // Thread khác có thể vừa fetch xong giữa lần get đầu tiên và putIfAbsent
+            String cached = cache.get(jdHash);
+            String text = cached != null ? cached : fetch(request);
+            mine.complete(text);
+            return text;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(jdHash, mine);
+        }
+    }
+
+    private String fetch(CVAnalysisRequest request) {
+        String jdHash = request.getJdHash();
+        try {
+            String fetched = recruitmentServiceClient.fetchJdText(request.getPositionId());
+            if (fetched == null || fetched.isBlank()) {
+                return null;
+            }
+
+            String fetchedHash = ContentHashUtil.sha256Hex(fetched);
+            if (!jdHash.equals(fetchedHash)) {
+                // JD đã được update sau khi message được publish → dùng bản mới nhất.
+                // Cache cả theo hash cũ để các message còn lại của batch không fetch lại từng CV.
+                log.warn("[JD-CACHE] Hash mismatch for positionId={}: expected={}, actual={}",
+                        request.getPositionId(), jdHash, fetchedHash);
+                cache.put(jdHash, fetched);
+            }
+            cache.put(fetchedHash, fetched);
+            log.info("[JD-CACHE] Loaded JD for positionId={} (cache size={})",
+                    request.getPositionId(), cache.size());
+            return fetched;
+
+        } catch (Exception e) {
+            // RuntimeException → RabbitMQ retry (recruitment-service có thể đang restart)
+            throw new RuntimeException("Failed to fetch JD for position " + request.getPositionId()
+                    + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String await(CompletableFuture<String> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
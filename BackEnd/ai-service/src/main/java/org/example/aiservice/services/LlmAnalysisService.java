@@ -41,9 +41,12 @@ public class LlmAnalysisService {
             .enable(JsonReadFeature.ALLOW_BACKSLASH_ESCAPING_ANY_CHARACTER)
             .build();
 
-    public CVAnalysisResult analyze(CVAnalysisRequest req) {
+    /**
+     * @param jdText JD text đã resolve (inline hoặc từ JD cache) — request có thể chỉ mang jdHash
+     */
+    public CVAnalysisResult analyze(CVAnalysisRequest req, String jdText) {
         try {
-            String prompt = buildPrompt(req.getJdText(), req.getCvText());
+            String prompt = buildPrompt(jdText, req.getCvText());
             String rawResponse = callGemini(prompt, req.getCvId());
             log.debug("[LLM-GEMINI] Raw response for cvId={}: {}", req.getCvId(), rawResponse);
 
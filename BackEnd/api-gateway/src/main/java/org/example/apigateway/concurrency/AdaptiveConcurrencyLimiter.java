@@ -0,0 +1,104 @@
+package org.example.apigateway.concurrency;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limiter tự điều chỉnh theo latency (gradient, kiểu Netflix concurrency-limits).
+ *
+ * Mỗi sample RTT:
+ *   gradient = clamp(tolerance * minRtt / rtt, 0.5, 1.0)
+ *   newLimit = limit * gradient + sqrt(limit)      (sqrt(limit) = headroom cho queue)
+ *   limit    = (1 - smoothing) * limit + smoothing * newLimit
+ * Upstream chậm đi → rtt tăng → gradient < 1 → limit co lại; upstream nhanh → limit tăng dần.
+ * Request lỗi/timeout → giảm limit 10% (multiplicative decrease).
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double smoothing;
+    private final long minRttResetNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private long minRttNanos = Long.MAX_VALUE;
+    private long minRttResetAt;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double rttTolerance, double smoothing, long minRttResetMillis) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.smoothing = smoothing;
+        this.minRttResetNanos = TimeUnit.MILLISECONDS.toNanos(minRttResetMillis);
+        this.limit = initialLimit;
+        this.minRttResetAt = System.nanoTime() + minRttResetNanos;
+    }
+
+    /**
+     * Thử chiếm 1 slot. share < 1 giới hạn request low-priority trong một phần của limit.
+     *
+     * @return true nếu được phép gọi upstream (PHẢI gọi onSample/onDropped sau đó)
+     */
+    public boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (limit * share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Request hoàn tất bình thường.
+     *
+     * @param rttNanos latency upstream; &lt;= 0 → chỉ nhả slot, không dùng làm sample
+     */
+    public void onSample(long rttNanos) {
+        inFlight.decrementAndGet();
+        if (rttNanos > 0) {
+            update(rttNanos);
+        }
+    }
+
+    /** Client tự hủy (disconnect) — không nói gì về tải upstream → chỉ nhả slot. */
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    /** Request lỗi/timeout/5xx → nhả slot và giảm limit. */
+    public synchronized void onDropped() {
+        inFlight.decrementAndGet();
+        limit = Math.max(minLimit, limit * 0.9);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rttNanos) {
+        long now = System.nanoTime();
+        if (now - minRttResetAt > 0) {
+            minRttNanos = rttNanos;
+            minRttResetAt = now + minRttResetNanos;
+        } else if (rttNanos < minRttNanos) {
+            minRttNanos = rttNanos;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * minRttNanos / (double) rttNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        double smoothed = (1 - smoothing) * limit + smoothing * newLimit;
+        limit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+    }
+}
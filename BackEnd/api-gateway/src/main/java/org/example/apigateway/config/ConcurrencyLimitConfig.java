@@ -0,0 +1,60 @@
+package org.example.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cấu hình adaptive concurrency limit (load shedding) theo gateway route id.
+ * Limit tự co giãn theo latency upstream trong khoảng [minLimit, maxLimit].
+ */
+@Configuration
+@ConfigurationProperties(prefix = "gateway.concurrency-limit")
+@Getter
+@Setter
+public class ConcurrencyLimitConfig {
+
+    private boolean enabled = true;
+
+    private int initialLimit = 50;
+    private int minLimit = 10;
+    private int maxLimit = 400;
+
+    // Latency được phép vượt min RTT bao nhiêu lần trước khi bắt đầu giảm limit
+    private double rttTolerance = 2.0;
+
+    // Tốc độ limit hội tụ về giá trị mới (0..1)
+    private double smoothing = 0.2;
+
+    // Min RTT được reset định kỳ để thích nghi khi baseline của upstream thay đổi
+    private Duration minRttResetInterval = Duration.ofMinutes(5);
+
+    // Request low-priority (upload, write nặng) chỉ được dùng phần này của limit,
+    // phần còn lại luôn dành cho request đọc rẻ
+    private double lowPriorityShare = 0.5;
+
+    private long retryAfterSeconds = 1;
+
+    private List<String> lowPriorityPaths = new ArrayList<>();
+
+    // Route streaming (SSE) giữ kết nối vài phút → không chiếm slot, không dùng làm sample.
+    // Request có Accept: text/event-stream cũng được bỏ qua.
+    private List<String> excludedPaths = new ArrayList<>(List.of("/**/stream"));
+
+    // Override theo route id, ví dụ chỉ định maxLimit thấp hơn cho auth-service
+    private List<RouteOverride> routes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class RouteOverride {
+        private String id;
+        private Integer initialLimit;
+        private Integer minLimit;
+        private Integer maxLimit;
+    }
+}
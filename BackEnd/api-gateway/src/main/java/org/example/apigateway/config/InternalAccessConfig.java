@@ -0,0 +1,29 @@
+package org.example.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chặn /internal/** và /actuator/metrics/** ở biên ngoài của gateway (InternalEndpointFilter).
+ * Chỉ service cùng mạng nội bộ được gọi các endpoint internal (vd. invalidation hook của response cache).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "gateway.internal-access")
+@Getter
+@Setter
+public class InternalAccessConfig {
+
+    private boolean enabled = true;
+
+    // CIDR được coi là nội bộ (loopback + private range của Docker/VPC)
+    private List<String> trustedNetworks = new ArrayList<>(List.of(
+            "127.0.0.0/8", "::1/128", "10.0.0.0/8", "172.16.0.0/12", "192.168.0.0/16"));
+
+    // Request đi qua reverse proxy / LB phía ngoài luôn mang X-Forwarded-For / Forwarded → coi là external
+    private boolean rejectForwarded = true;
+}
@@ -0,0 +1,59 @@
+package org.example.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.example.apigateway.ratelimit.InMemoryRateLimitStore;
+import org.example.apigateway.ratelimit.RateLimitStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cấu hình rate limit theo user (X-User-Id) và theo nhóm route.
+ * Policy được match theo thứ tự khai báo — policy đầu tiên khớp path + method sẽ được áp dụng,
+ * nên khai báo policy chặt (upload, chatbot) trước policy rộng (read, default).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+@Getter
+@Setter
+public class RateLimitConfig {
+
+    private boolean enabled = true;
+
+    private List<Policy> policies = new ArrayList<>();
+
+    // CIDR của reverse proxy / LB phía trước gateway. Chỉ kết nối từ các địa chỉ này mới được đọc
+    // Forwarded / X-Forwarded-For để lấy IP client cho bucket ẩn danh; rỗng = dùng địa chỉ kết nối
+    private List<String> trustedProxies = new ArrayList<>();
+
+    // Shared store (Redis...) chỉ cần khai báo bean RateLimitStore khác là thay được bean này
+    @Bean
+    @ConditionalOnMissingBean(RateLimitStore.class)
+    public RateLimitStore inMemoryRateLimitStore() {
+        return new InMemoryRateLimitStore();
+    }
+
+    @Getter
+    @Setter
+    public static class Policy {
+        private String name;
+        private List<String> paths = new ArrayList<>();
+        // Rỗng = áp dụng cho mọi method
+        private List<String> methods = new ArrayList<>();
+        // Số request tối đa có thể burst
+        private int capacity = 60;
+        // Nạp lại refillTokens token sau mỗi refillPeriod
+        private int refillTokens = 60;
+        private Duration refillPeriod = Duration.ofMinutes(1);
+
+        public double refillPerSecond() {
+            return refillTokens / (refillPeriod.toMillis() / 1000.0);
+        }
+    }
+}
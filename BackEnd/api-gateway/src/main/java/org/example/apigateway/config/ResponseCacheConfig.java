@@ -0,0 +1,41 @@
+package org.example.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cấu hình response cache cho các GET endpoint đọc nhiều, ít thay đổi (catalog positions).
+ * Mỗi rule gồm Ant path pattern + TTL riêng; request không match rule nào sẽ không được cache.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "gateway.response-cache")
+@Getter
+@Setter
+public class ResponseCacheConfig {
+
+    private boolean enabled = true;
+
+    // Giới hạn số entry để cache không phình RAM khi có nhiều query khác nhau
+    private int maxEntries = 2000;
+
+    // Body lớn hơn ngưỡng này không cache (tránh giữ payload lớn trong heap)
+    private int maxBodyBytes = 512 * 1024;
+
+    // Secret mà recruitment-service gửi kèm khi gọi invalidation hook — bắt buộc, không có default
+    private String invalidationSecret;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Rule {
+        private String path;
+        private Duration ttl = Duration.ofSeconds(60);
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Cấu hình revocation list local (access token bị thu hồi khi logout).
+ * Cập nhật qua AMQP broadcast từ auth-service, resync snapshot định kỳ để bù event bị lỡ.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "gateway.revocation")
+@Getter
+@Setter
+public class RevocationConfig {
+
+    private boolean enabled = true;
+
+    // auth-service base URL để lấy snapshot /internal/auth/revoked-tokens
+    private String authServiceUrl = "http://localhost:8081";
+
+    private String internalServiceName = "api-gateway";
+
+    // Độ rộng 1 slice theo thời điểm hết hạn của token — slice hết hạn bị drop nguyên khối
+    private Duration sliceDuration = Duration.ofMinutes(5);
+
+    // Số jti dự kiến mỗi slice và tỉ lệ false positive mục tiêu của Bloom filter
+    private int expectedPerSlice = 10000;
+    private double falsePositiveRate = 0.01;
+
+    private Duration resyncInterval = Duration.ofMinutes(5);
+    private Duration snapshotTimeout = Duration.ofSeconds(5);
+}
@@ -1,5 +1,8 @@
 package org.example.apigateway.config;
 
+import org.example.apigateway.upstream.UpstreamInstance;
+import org.example.apigateway.upstream.UpstreamPool;
+import org.example.apigateway.upstream.UpstreamPoolRegistry;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -18,8 +21,10 @@ public class ServiceKeepaliveScheduler {
     private final String aiServiceUrl;
     private final String embeddingServiceUrl;
     private final String chatbotServiceUrl;
+    private final UpstreamPoolRegistry upstreamPoolRegistry;
+    private final UpstreamPoolConfig upstreamPoolConfig;
 
-    public ServiceKeepaliveScheduler() {
+    public ServiceKeepaliveScheduler(UpstreamPoolRegistry upstreamPoolRegistry, UpstreamPoolConfig upstreamPoolConfig) {
         this.webClient = WebClient.builder()
                 .codecs(configurer -> configurer.defaultCodecs()
                         .maxInMemorySize(16 * 1024 * 1024))
@@ -30,6 +35,8 @@ public class ServiceKeepaliveScheduler {
         this.aiServiceUrl = System.getenv("AI_SERVICE_URL");
         this.embeddingServiceUrl = System.getenv("EMBEDDING_SERVICE_URL");
         this.chatbotServiceUrl = System.getenv("CHATBOT_SERVICE_URL");
+        this.upstreamPoolRegistry = upstreamPoolRegistry;
+        this.upstreamPoolConfig = upstreamPoolConfig;
     }
 
     // Ping mỗi 10 phút
@@ -63,6 +70,36 @@ public class ServiceKeepaliveScheduler {
                 .subscribe();
     }
 
+    // Active health check cho upstream pool: fail liên tiếp thì loại, OK thì gỡ trạng thái đó
+    // (không gỡ passive ejection do 5xx — xem UpstreamInstance)
+    @Scheduled(initialDelayString = "${gateway.upstream.health-check-interval-ms:10000}",
+            fixedDelayString = "${gateway.upstream.health-check-interval-ms:10000}")
+    public void checkUpstreamPools() {
+        if (!upstreamPoolConfig.isEnabled()) {
+            return;
+        }
+
+        upstreamPoolRegistry.refreshDiscovery();
+        for (UpstreamPool pool : upstreamPoolRegistry.getPools()) {
+            for (UpstreamInstance instance : pool.getInstances()) {
+                String healthUrl = instance.getBaseUri() + upstreamPoolConfig.getHealthPath();
+                webClient.get()
+                        .uri(healthUrl)
+                        .retrieve()
+                        .toBodilessEntity()
+                        .timeout(upstreamPoolConfig.getHealthTimeout())
+                        .doOnSuccess(response -> pool.recordHealthy(instance))
+                        .doOnError(error -> {
+                            log.warn("✗ Health check failed {} - {}: {}",
+                                    pool.getRouteId(), healthUrl, error.getMessage());
+                            pool.recordHealthCheckFailure(instance);
+                        })
+                        .onErrorResume(error -> Mono.empty())
+                        .subscribe();
+            }
+        }
+    }
+
     // Ping lần đầu khi khởi động (sau 2 phút)
     @Scheduled(initialDelay = 120000, fixedDelay = Long.MAX_VALUE)
     public void initialWarmup() {
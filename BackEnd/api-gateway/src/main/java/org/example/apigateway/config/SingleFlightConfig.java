@@ -0,0 +1,39 @@
+package org.example.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cấu hình request coalescing (single-flight) cho GET idempotent.
+ * Chỉ các route khai báo ở đây mới được gom; route không khai báo luôn đi thẳng upstream.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "gateway.single-flight")
+@Getter
+@Setter
+public class SingleFlightConfig {
+
+    private boolean enabled = true;
+
+    // Response lớn hơn ngưỡng này không fan-out, các request chờ sẽ tự gọi upstream
+    private int maxBodyBytes = 2 * 1024 * 1024;
+
+    // Thời gian tối đa request follower chờ leader trước khi tự gọi upstream
+    private Duration waitTimeout = Duration.ofSeconds(30);
+
+    private List<Route> routes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Route {
+        private String path;
+        // true → thêm X-User-Id vào key (response phụ thuộc user), false → chỉ theo role
+        private boolean perUser = false;
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Giới hạn kích thước upload được kiểm tra khi body đang stream qua gateway.
+ * Rule đầu tiên khớp path + method được áp dụng.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "gateway.upload-streaming")
+@Getter
+@Setter
+public class UploadStreamingConfig {
+
+    private boolean enabled = true;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Rule {
+        private String path;
+        private List<String> methods = new ArrayList<>();
+        private DataSize maxSize = DataSize.ofMegabytes(50);
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cấu hình upstream pool nhiều instance theo gateway route id.
+ * Route không có pool vẫn đi thẳng tới uri khai báo trong routes như cũ.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "gateway.upstream")
+@Getter
+@Setter
+public class UpstreamPoolConfig {
+
+    public enum BalancerType {
+        LEAST_REQUESTS,
+        POWER_OF_TWO
+    }
+
+    private boolean enabled = true;
+
+    private BalancerType balancer = BalancerType.POWER_OF_TWO;
+
+    // Active health check (chạy cùng ServiceKeepaliveScheduler)
+    private String healthPath = "/actuator/health";
+    private Duration healthTimeout = Duration.ofSeconds(2);
+
+    // N lỗi liên tiếp → loại instance. 5xx / connect error: loại trong ejectionDuration;
+    // health check fail: loại tới khi health check pass lại (đếm riêng, không cộng dồn với 5xx)
+    private int consecutiveFailures = 3;
+    private Duration ejectionDuration = Duration.ofSeconds(30);
+    // Không bao giờ eject quá tỉ lệ này của pool (tránh tự loại hết instance khi lỗi lan rộng)
+    private double maxEjectionPercent = 0.5;
+
+    // key = route id
+    private Map<String, Pool> pools = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Pool {
+        // Danh sách tĩnh, ví dụ http://recruitment-1:8082
+        private List<String> instances = new ArrayList<>();
+        // Discovery qua DNS: resolve mọi A record của host (docker/k8s headless service)
+        private String dns;
+    }
+}
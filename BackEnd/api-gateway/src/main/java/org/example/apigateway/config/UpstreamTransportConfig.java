@@ -0,0 +1,63 @@
+package org.example.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+
+/**
+ * Giao thức gateway dùng để gọi upstream + bật metrics cho connection pool của Reactor Netty.
+ *
+ * - HTTP11: mặc định, mỗi request chiếm 1 connection trong pool.
+ * - H2C_UPGRADE: thử nâng cấp HTTP/1.1 → h2c (Upgrade header). Upstream không hỗ trợ (chatbot-service
+ *   Python) vẫn trả lời bằng HTTP/1.1. Request có body không nâng cấp được nên vẫn đi HTTP/1.1.
+ * - H2C_PRIOR_KNOWLEDGE: nói thẳng HTTP/2 không cần upgrade — mọi request (kể cả SSE /tracking/*\/stream)
+ *   multiplex trên vài connection. Chỉ dùng khi TẤT CẢ upstream đã bật server.http2.enabled.
+ *
+ * Metrics: reactor.netty.connection.provider.* (active/idle/pending connections, pending acquire time)
+ * và reactor.netty.http.client.* (data sent/received, response time) — xem /actuator/metrics.
+ */
+@Slf4j
+@Configuration
+@ConfigurationProperties(prefix = "gateway.upstream-transport")
+@Getter
+@Setter
+public class UpstreamTransportConfig {
+
+    public enum Mode {
+        HTTP11,
+        H2C_UPGRADE,
+        H2C_PRIOR_KNOWLEDGE
+    }
+
+    private Mode mode = Mode.HTTP11;
+
+    private boolean metricsEnabled = true;
+
+    @Bean
+    public HttpClientCustomizer upstreamTransportCustomizer() {
+        return httpClient -> {
+            HttpProtocol[] protocols = switch (mode) {
+                case HTTP11 -> new HttpProtocol[]{HttpProtocol.HTTP11};
+                case H2C_UPGRADE -> new HttpProtocol[]{HttpProtocol.HTTP11, HttpProtocol.H2C};
+                case H2C_PRIOR_KNOWLEDGE -> new HttpProtocol[]{HttpProtocol.H2C};
+            };
+            log.info("[UPSTREAM] Transport mode: {} (pool metrics: {})", mode, metricsEnabled);
+
+            var customized = httpClient.protocol(protocols);
+            // Tag uri theo segment đầu (/positions, /auth...) để metrics không nổ cardinality theo id
+            return metricsEnabled ? customized.metrics(true, UpstreamTransportConfig::uriTag) : customized;
+        };
+    }
+
+    private static String uriTag(String uri) {
+        int queryStart = uri.indexOf('?');
+        String path = queryStart >= 0 ? uri.substring(0, queryStart) : uri;
+        int secondSlash = path.indexOf('/', 1);
+        return secondSlash > 0 ? path.substring(0, secondSlash) : path;
+    }
+}
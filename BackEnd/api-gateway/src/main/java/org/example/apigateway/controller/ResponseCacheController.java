@@ -0,0 +1,57 @@
+package org.example.apigateway.controller;
+
+import org.example.apigateway.config.ResponseCacheConfig;
+import org.example.apigateway.filter.ResponseCacheFilter;
+import org.example.commonlibrary.dto.response.ApiResponse;
+import org.example.commonlibrary.dto.response.ErrorCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Invalidation hook cho ResponseCacheFilter.
+ * recruitment-service gọi sau khi createPosition / updatePosition / deletePositions commit.
+ * Endpoint không nằm trong route nào → không đi qua JwtAuthenticationFilter:
+ * InternalEndpointFilter chặn caller bên ngoài, header X-Internal-Service phải khớp invalidation secret.
+ */
+@RestController
+@RequestMapping("/internal/gateway/cache")
+public class ResponseCacheController {
+
+    private static final String INTERNAL_SERVICE_HEADER = "X-Internal-Service";
+
+    private final ResponseCacheFilter responseCacheFilter;
+    private final ResponseCacheConfig responseCacheConfig;
+
+    public ResponseCacheController(ResponseCacheFilter responseCacheFilter, ResponseCacheConfig responseCacheConfig) {
+        this.responseCacheFilter = responseCacheFilter;
+        this.responseCacheConfig = responseCacheConfig;
+        String secret = responseCacheConfig.getInvalidationSecret();
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("gateway.response-cache.invalidation-secret must be set");
+        }
+    }
+
+    /**
+     * POST /internal/gateway/cache/invalidate
+     * Body: danh sách path prefix cần xóa (vd ["/positions"]).
+     * Body rỗng → xóa toàn bộ cache.
+     */
+    @PostMapping("/invalidate")
+    public ResponseEntity<ApiResponse<Integer>> invalidate(
+            @RequestHeader(value = INTERNAL_SERVICE_HEADER, required = false) String serviceHeader,
+            @RequestBody(required = false) List<String> pathPrefixes) {
+        if (serviceHeader == null || !MessageDigest.isEqual(
+                responseCacheConfig.getInvalidationSecret().getBytes(StandardCharsets.UTF_8),
+                serviceHeader.getBytes(StandardCharsets.UTF_8))) {
+            return ResponseEntity.status(ErrorCode.FORBIDDEN.getHttpStatus())
+                    .body(new ApiResponse<>(ErrorCode.FORBIDDEN.getCode(), ErrorCode.FORBIDDEN.getMessage()));
+        }
+
+        int removed = responseCacheFilter.invalidate(pathPrefixes);
+        return ResponseEntity.ok(new ApiResponse<>(ErrorCode.SUCCESS.getCode(), "Cache invalidated", removed));
+    }
+}
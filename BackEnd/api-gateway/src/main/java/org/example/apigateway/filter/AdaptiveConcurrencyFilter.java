@@ -0,0 +1,145 @@
+package org.example.apigateway.filter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apigateway.concurrency.AdaptiveConcurrencyLimiter;
+import org.example.apigateway.config.ConcurrencyLimitConfig;
+import org.example.commonlibrary.dto.response.ErrorCode;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adaptive load shedding theo gateway route.
+ *
+ * - Mỗi route id có 1 AdaptiveConcurrencyLimiter riêng, limit co giãn theo latency upstream.
+ * - Vượt limit → 503 SERVICE_OVERLOADED + Retry-After ngay, không xếp hàng vào connection pool.
+ * - Request low-priority (upload, write) chỉ được dùng lowPriorityShare của limit → khi upstream
+ *   chậm, request đọc rẻ vẫn còn slot. RTT của request low-priority không dùng làm sample vì
+ *   latency của chúng (upload vài chục giây) không phản ánh tình trạng tải.
+ * - Streaming (SSE /tracking/{batchId}/stream) không bị giới hạn: kết nối sống vài phút sẽ
+ *   chiếm slot và kéo sập gradient nếu lấy làm sample.
+ * - Client hủy (CANCEL) chỉ nhả slot; lỗi, timeout và 5xx mới giảm limit.
+ *
+ * Order -80: sau SingleFlightFilter (-85) → follower đã coalesced không chiếm slot,
+ * và bao ngoài CircuitBreaker route filter để đo cả thời gian chờ upstream.
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = -80;
+
+    private final ConcurrencyLimitConfig config;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyFilter(ConcurrencyLimitConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        ServerHttpRequest request = exchange.getRequest();
+        if (!config.isEnabled() || route == null || isStreaming(request)) {
+            return chain.filter(exchange);
+        }
+
+        boolean lowPriority = isLowPriority(request);
+        AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(route.getId(), this::createLimiter);
+
+        if (!limiter.tryAcquire(lowPriority ? config.getLowPriorityShare() : 1.0)) {
+            meterRegistry.counter("gateway.concurrency_limit.rejected",
+                    "route", route.getId(), "priority", lowPriority ? "low" : "normal").increment();
+            log.warn("[LOAD_SHED] Rejected {} {} (route={}, inFlight={}, limit={})",
+                    request.getMethod(), request.getURI().getPath(), route.getId(),
+                    limiter.getInFlight(), limiter.getLimit());
+            return ErrorResponseWriter.write(exchange.getResponse(), ErrorCode.SERVICE_OVERLOADED,
+                    config.getRetryAfterSeconds());
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        limiter.onIgnore();
+                    } else if (signal == SignalType.ON_COMPLETE && !isServerError(exchange)) {
+                        limiter.onSample(lowPriority ? 0 : System.nanoTime() - start);
+                    } else {
+                        limiter.onDropped();
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    // Helper methods
+
+    private boolean isLowPriority(ServerHttpRequest request) {
+        if (request.getMethod() == HttpMethod.GET) {
+            return false;
+        }
+        String path = request.getURI().getPath();
+        return config.getLowPriorityPaths().stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    private boolean isStreaming(ServerHttpRequest request) {
+        boolean acceptsEventStream = request.getHeaders().getAccept().stream()
+                .anyMatch(MediaType.TEXT_EVENT_STREAM::equalsTypeAndSubtype);
+        if (acceptsEventStream) {
+            return true;
+        }
+        String path = request.getURI().getPath();
+        return config.getExcludedPaths().stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    private boolean isServerError(ServerWebExchange exchange) {
+        var status = exchange.getResponse().getStatusCode();
+        return status != null && status.is5xxServerError();
+    }
+
+    private AdaptiveConcurrencyLimiter createLimiter(String routeId) {
+        int initial = config.getInitialLimit();
+        int min = config.getMinLimit();
+        int max = config.getMaxLimit();
+        for (ConcurrencyLimitConfig.RouteOverride override : config.getRoutes()) {
+            if (routeId.equals(override.getId())) {
+                if (override.getInitialLimit() != null) initial = override.getInitialLimit();
+                if (override.getMinLimit() != null) min = override.getMinLimit();
+                if (override.getMaxLimit() != null) max = override.getMaxLimit();
+            }
+        }
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initial, min, max,
+                config.getRttTolerance(), config.getSmoothing(),
+                config.getMinRttResetInterval().toMillis());
+
+        Gauge.builder("gateway.concurrency_limit.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency_limit.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return limiter;
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.apigateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.commonlibrary.dto.response.ApiResponse;
+import org.example.commonlibrary.dto.response.ErrorCode;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Ghi error response chuẩn ApiResponse cho các filter từ chối request ngay tại gateway
+ * (rate limit, load shedding, upload quá cỡ...).
+ */
+final class ErrorResponseWriter {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private ErrorResponseWriter() {
+    }
+
+    // Kèm Retry-After để client biết khi nào thử lại
+    static Mono<Void> write(ServerHttpResponse response, ErrorCode errorCode, long retryAfterSeconds) {
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return write(response, errorCode);
+    }
+
+    static Mono<Void> write(ServerHttpResponse response, ErrorCode errorCode) {
+        response.setStatusCode(errorCode.getHttpStatus());
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        byte[] bytes;
+        try {
+            ApiResponse<?> apiResponse = ApiResponse.builder()
+                    .statusCode(errorCode.getCode())
+                    .message(errorCode.getMessage())
+                    .data(null)
+                    .build();
+            bytes = OBJECT_MAPPER.writeValueAsBytes(apiResponse);
+        } catch (Exception e) {
+            // Fallback nếu serialization fails
+            bytes = String.format("{\"statusCode\":%d,\"message\":\"%s\",\"data\":null}",
+                    errorCode.getCode(), errorCode.getMessage()).getBytes(StandardCharsets.UTF_8);
+        }
+
+        DataBuffer buffer = response.bufferFactory().wrap(bytes);
+        return response.writeWith(Mono.just(buffer));
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.apigateway.filter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.apigateway.config.InternalAccessConfig;
+import org.example.apigateway.security.CidrMatcher;
+import org.example.commonlibrary.dto.response.ErrorCode;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+
+/**
+ * Chặn /internal/** và /actuator/metrics/** từ bên ngoài. Là WebFilter (không phải GlobalFilter) nên
+ * áp dụng cả cho controller/actuator của gateway (ResponseCacheController, metrics endpoint — vốn nằm
+ * ngoài JWT GlobalFilter) lẫn các route proxy xuống service. Metrics chỉ scrape từ mạng nội bộ.
+ *
+ * Request chỉ được đi tiếp khi địa chỉ nguồn thuộc trustedNetworks và không mang header
+ * forwarded của proxy phía ngoài. Đây là lớp bảo vệ mạng; endpoint vẫn tự kiểm tra secret riêng.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class InternalEndpointFilter implements WebFilter {
+
+    private static final List<String> INTERNAL_PATTERNS = List.of("/internal/**", "/actuator/metrics/**");
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final InternalAccessConfig config;
+    private final CidrMatcher trustedNetworks;
+
+    public InternalEndpointFilter(InternalAccessConfig config) {
+        this.config = config;
+        this.trustedNetworks = new CidrMatcher(config.getTrustedNetworks());
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getURI().getPath();
+        if (!config.isEnabled() || INTERNAL_PATTERNS.stream().noneMatch(p -> PATH_MATCHER.match(p, path))) {
+            return chain.filter(exchange);
+        }
+
+        if (config.isRejectForwarded() && isForwarded(request.getHeaders())) {
+            log.warn("Rejected forwarded request to internal endpoint {}", path);
+            return ErrorResponseWriter.write(exchange.getResponse(), ErrorCode.FORBIDDEN);
+        }
+
+        InetSocketAddress remote = request.getRemoteAddress();
+        InetAddress address = remote != null ? remote.getAddress() : null;
+        if (address == null || !trustedNetworks.contains(address)) {
+            log.warn("Rejected internal endpoint {} from {}", path, remote);
+            return ErrorResponseWriter.write(exchange.getResponse(), ErrorCode.FORBIDDEN);
+        }
+        return chain.filter(exchange);
+    }
+
+    // Helper methods
+
+    private static boolean isForwarded(HttpHeaders headers) {
+        return headers.containsKey("X-Forwarded-For") || headers.containsKey(HttpHeaders.FORWARDED);
+    }
+}
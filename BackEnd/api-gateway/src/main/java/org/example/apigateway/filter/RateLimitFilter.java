@@ -0,0 +1,122 @@
+package org.example.apigateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apigateway.config.RateLimitConfig;
+import org.example.apigateway.ratelimit.RateLimitStore;
+import org.example.apigateway.security.ClientIpResolver;
+import org.example.commonlibrary.dto.response.ErrorCode;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Rate limit theo user + nhóm route (token bucket).
+ *
+ * - Key = policy name + X-User-Id (do JwtAuthenticationFilter set từ JWT đã verify).
+ *   Open endpoint (login, register...) không có X-User-Id → fallback theo IP client; sau proxy/LB
+ *   IP lấy từ Forwarded / X-Forwarded-For nếu kết nối tới từ trustedProxies (ClientIpResolver).
+ * - Policy đầu tiên khớp path + method được áp dụng (xem RateLimitConfig).
+ * - Hết quota → 429 + Retry-After, không forward xuống downstream.
+ *
+ * Order -95: SAU JwtAuthenticationFilter (-100) để có X-User-Id,
+ * TRƯỚC ResponseCacheFilter (-90) để cache hit vẫn bị tính quota.
+ */
+@Slf4j
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = -95;
+
+    private static final String USER_ID_HEADER = "X-User-Id";
+    private static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final RateLimitConfig config;
+    private final RateLimitStore store;
+    private final MeterRegistry meterRegistry;
+    private final ClientIpResolver clientIpResolver;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(RateLimitConfig config, RateLimitStore store, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.store = store;
+        this.meterRegistry = meterRegistry;
+        this.clientIpResolver = new ClientIpResolver(config.getTrustedProxies());
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!config.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        RateLimitConfig.Policy policy = matchPolicy(request);
+        if (policy == null) {
+            return chain.filter(exchange);
+        }
+
+        String key = policy.getName() + ":" + resolveClientKey(request);
+
+        return store.tryConsume(key, policy)
+                .flatMap(decision -> {
+                    ServerHttpResponse response = exchange.getResponse();
+                    response.getHeaders().set(LIMIT_HEADER, String.valueOf(policy.getCapacity()));
+                    response.getHeaders().set(REMAINING_HEADER, String.valueOf(decision.remaining()));
+
+                    if (decision.allowed()) {
+                        meterRegistry.counter("gateway.rate_limit.requests",
+                                "policy", policy.getName(), "result", "allowed").increment();
+                        return chain.filter(exchange);
+                    }
+
+                    meterRegistry.counter("gateway.rate_limit.requests",
+                            "policy", policy.getName(), "result", "rejected").increment();
+                    log.warn("[RATE_LIMIT] Rejected {} {} (policy={}, key={}, retryAfter={}s)",
+                            request.getMethod(), request.getURI().getPath(), policy.getName(), key,
+                            decision.retryAfterSeconds());
+                    return ErrorResponseWriter.write(exchange.getResponse(), ErrorCode.TOO_MANY_REQUESTS,
+                            decision.retryAfterSeconds());
+                });
+    }
+
+    private RateLimitConfig.Policy matchPolicy(ServerHttpRequest request) {
+        String path = request.getURI().getPath();
+        String method = request.getMethod().name();
+
+        for (RateLimitConfig.Policy policy : config.getPolicies()) {
+            boolean methodMatches = policy.getMethods().isEmpty()
+                    || policy.getMethods().stream().anyMatch(m -> m.equalsIgnoreCase(method));
+            if (!methodMatches) {
+                continue;
+            }
+            for (String pattern : policy.getPaths()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return policy;
+                }
+            }
+        }
+        return null;
+    }
+
+    private String resolveClientKey(ServerHttpRequest request) {
+        String userId = request.getHeaders().getFirst(USER_ID_HEADER);
+        if (userId != null && !userId.isBlank()) {
+            return "user:" + userId;
+        }
+        String ip = clientIpResolver.resolve(request);
+        return "ip:" + (ip != null ? ip : "unknown");
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
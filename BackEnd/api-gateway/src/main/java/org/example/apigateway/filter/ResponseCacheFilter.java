@@ -0,0 +1,232 @@
+package org.example.apigateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apigateway.config.ResponseCacheConfig;
+import org.example.commonlibrary.utils.ContentHashUtil;
+import org.example.commonlibrary.utils.LruCache;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Response cache cho các GET endpoint catalog (positions) đọc nhiều, ít thay đổi.
+ *
+ * - Key = path + query + X-User-Role (role do JwtAuthenticationFilter set) + X-Internal-Service
+ *   → HR và CANDIDATE không bao giờ dùng chung entry.
+ * - Chỉ cache response 200; mỗi entry có strong ETag (SHA-256 body) và TTL theo rule.
+ * - If-None-Match khớp ETag → trả 304 không body.
+ * - Đầy max-entries → bỏ entry ít dùng nhất (LRU, O(1)), không quét cache trên event loop.
+ * - recruitment-service gọi invalidation hook sau khi create/update/delete position commit.
+ *
+ * Order -90: chạy SAU JwtAuthenticationFilter (-100) để đã có X-User-Role,
+ * và TRƯỚC NettyWriteResponseFilter (-1) để decorate được response body.
+ */
+@Slf4j
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = -90;
+
+    private static final String ROLE_HEADER = "X-User-Role";
+    private static final String INTERNAL_SERVICE_HEADER = "X-Internal-Service";
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private final ResponseCacheConfig config;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final LruCache<String, CachedResponse> cache;
+
+    public ResponseCacheFilter(ResponseCacheConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.cache = new LruCache<>(config.getMaxEntries());
+        meterRegistry.gauge("gateway.response_cache.entries", cache, LruCache::size);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!config.isEnabled() || request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+
+        Duration ttl = findTtl(request.getURI().getPath());
+        if (ttl == null) {
+            return chain.filter(exchange);
+        }
+
+        String key = buildKey(request);
+        String ifNoneMatch = request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+
+        CachedResponse cached = cache.get(key);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return writeFromCache(exchange.getResponse(), cached, ifNoneMatch);
+        }
+
+        record("miss");
+        return chain.filter(exchange.mutate()
+                .response(new CachingResponseDecorator(exchange.getResponse(), key, ttl, ifNoneMatch))
+                .build());
+    }
+
+    /**
+     * Xóa các entry có path bắt đầu bằng một trong các prefix.
+     * Danh sách rỗng → xóa toàn bộ cache.
+     *
+     * @return số entry đã xóa
+     */
+    public int invalidate(List<String> pathPrefixes) {
+        if (pathPrefixes == null || pathPrefixes.isEmpty()) {
+            int size = cache.size();
+            cache.clear();
+            return size;
+        }
+
+        return cache.removeIf((key, entry) -> {
+            String path = key.split("\\|", 2)[0];
+            return pathPrefixes.stream().anyMatch(path::startsWith);
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    // Helper methods
+
+    private Duration findTtl(String path) {
+        for (ResponseCacheConfig.Rule rule : config.getRules()) {
+            if (pathMatcher.match(rule.getPath(), path)) {
+                return rule.getTtl();
+            }
+        }
+        return null;
+    }
+
+    private String buildKey(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        String role = request.getHeaders().getFirst(ROLE_HEADER);
+        // Internal endpoints được upstream kiểm tra bằng X-Internal-Service → đưa (hash) vào key
+        // để request không có header đúng không bao giờ nhận được entry đã cache
+        String internalService = request.getHeaders().getFirst(INTERNAL_SERVICE_HEADER);
+        return request.getURI().getPath()
+                + "|" + (query != null ? query : "")
+                + "|" + (role != null ? role : "ANONYMOUS")
+                + "|" + (internalService != null ? ContentHashUtil.sha256Hex(internalService) : "");
+    }
+
+    private Mono<Void> writeFromCache(ServerHttpResponse response, CachedResponse cached, String ifNoneMatch) {
+        response.getHeaders().setETag(cached.etag());
+        response.getHeaders().setCacheControl("no-cache");
+        response.getHeaders().set(CACHE_STATUS_HEADER, "HIT");
+
+        if (etagMatches(ifNoneMatch, cached.etag())) {
+            record("not_modified");
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        record("hit");
+        response.setStatusCode(HttpStatus.OK);
+        if (cached.contentType() != null) {
+            response.getHeaders().setContentType(cached.contentType());
+        }
+        response.getHeaders().setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private void store(String key, CachedResponse entry) {
+        cache.put(key, entry);
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void record(String result) {
+        meterRegistry.counter("gateway.response_cache.requests", "result", result).increment();
+    }
+
+    private record CachedResponse(byte[] body, MediaType contentType, String etag, Instant expiresAt) {
+    }
+
+    /**
+     * Gom body của response 200 từ upstream, lưu vào cache kèm ETag rồi mới ghi ra client.
+     * Response khác 200 hoặc body quá lớn được pass-through không cache.
+     */
+    private class CachingResponseDecorator extends ServerHttpResponseDecorator {
+        private final String key;
+        private final Duration ttl;
+        private final String ifNoneMatch;
+
+        CachingResponseDecorator(ServerHttpResponse delegate, String key, Duration ttl, String ifNoneMatch) {
+            super(delegate);
+            this.key = key;
+            this.ttl = ttl;
+            this.ifNoneMatch = ifNoneMatch;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!HttpStatus.OK.equals(getStatusCode())) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+
+                String etag = "\"" + ContentHashUtil.sha256Hex(bytes) + "\"";
+                if (bytes.length <= config.getMaxBodyBytes()) {
+                    store(key, new CachedResponse(bytes, getHeaders().getContentType(), etag,
+                            Instant.now().plus(ttl)));
+                }
+
+                getHeaders().setETag(etag);
+                getHeaders().setCacheControl("no-cache");
+                getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+
+                if (etagMatches(ifNoneMatch, etag)) {
+                    setStatusCode(HttpStatus.NOT_MODIFIED);
+                    getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                    getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+                    return getDelegate().setComplete();
+                }
+
+                getHeaders().setContentLength(bytes.length);
+                return getDelegate().writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            }).switchIfEmpty(Mono.defer(() -> getDelegate().setComplete()));
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package org.example.apigateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apigateway.config.SingleFlightConfig;
+import org.example.commonlibrary.utils.ContentHashUtil;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gom các GET giống hệt nhau đang in-flight vào MỘT upstream call (single-flight).
+ *
+ * - Key = path + query + X-User-Role + hash(X-Internal-Service) (+ X-User-Id nếu route perUser)
+ *   → chỉ request cùng authorization scope mới dùng chung response.
+ * - Request đầu tiên (leader) đi upstream; các request trùng key tới trong lúc đó (follower)
+ *   chờ và nhận bản sao status + headers + body của leader.
+ * - Leader lỗi / bị cancel / body quá lớn → follower tự gọi upstream như bình thường.
+ *
+ * Order -85: SAU ResponseCacheFilter (-90) → chỉ cache miss mới tới đây,
+ * follower ghi qua CachingResponseDecorator nên vẫn có ETag như leader.
+ */
+@Slf4j
+@Component
+public class SingleFlightFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = -85;
+
+    private static final String ROLE_HEADER = "X-User-Role";
+    private static final String USER_ID_HEADER = "X-User-Id";
+    private static final String INTERNAL_SERVICE_HEADER = "X-Internal-Service";
+
+    // Header do gateway/Netty tự tính lại cho từng response, không copy sang follower
+    private static final Set<String> SKIPPED_HEADERS = Set.of(
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.CONNECTION.toLowerCase());
+
+    private final SingleFlightConfig config;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlightFilter(SingleFlightConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gaugeMapSize("gateway.single_flight.in_flight", List.of(), inFlight);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!config.isEnabled() || request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+
+        SingleFlightConfig.Route route = findRoute(request.getURI().getPath());
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+
+        String key = buildKey(request, route);
+        Sinks.One<SharedResponse> sink = Sinks.one();
+        Sinks.One<SharedResponse> existing = inFlight.putIfAbsent(key, sink);
+
+        if (existing != null) {
+            return awaitLeader(exchange, chain, existing);
+        }
+
+        record("leader");
+        return chain.filter(exchange.mutate()
+                        .response(new SharingResponseDecorator(exchange.getResponse(), sink))
+                        .build())
+                .doFinally(signal -> {
+                    inFlight.remove(key, sink);
+                    // Leader không ghi body (lỗi, cancel, setComplete) → giải phóng follower
+                    sink.tryEmitError(new IllegalStateException("Leader finished without shareable response"));
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    // Helper methods
+
+    private Mono<Void> awaitLeader(ServerWebExchange exchange, GatewayFilterChain chain,
+                                   Sinks.One<SharedResponse> leader) {
+        return leader.asMono()
+                .timeout(config.getWaitTimeout())
+                .flatMap(shared -> {
+                    record("coalesced");
+                    return writeShared(exchange.getResponse(), shared);
+                })
+                .onErrorResume(e -> {
+                    record("fallback");
+                    log.debug("[SINGLE_FLIGHT] Leader unavailable for {}, calling upstream: {}",
+                            exchange.getRequest().getURI().getPath(), e.getMessage());
+                    return chain.filter(exchange);
+                });
+    }
+
+    private Mono<Void> writeShared(ServerHttpResponse response, SharedResponse shared) {
+        response.setStatusCode(shared.status());
+        // Header follower đã có (X-RateLimit-*...) là của riêng request đó → giữ nguyên
+        shared.headers().forEach((name, values) -> {
+            if (!response.getHeaders().containsKey(name)) {
+                response.getHeaders().put(name, values);
+            }
+        });
+        response.getHeaders().setContentLength(shared.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+    }
+
+    private SingleFlightConfig.Route findRoute(String path) {
+        for (SingleFlightConfig.Route route : config.getRoutes()) {
+            if (pathMatcher.match(route.getPath(), path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private String buildKey(ServerHttpRequest request, SingleFlightConfig.Route route) {
+        HttpHeaders headers = request.getHeaders();
+        String query = request.getURI().getRawQuery();
+        String role = headers.getFirst(ROLE_HEADER);
+        String internalService = headers.getFirst(INTERNAL_SERVICE_HEADER);
+        String userId = route.isPerUser() ? headers.getFirst(USER_ID_HEADER) : null;
+        return request.getURI().getPath()
+                + "|" + (query != null ? query : "")
+                + "|" + (role != null ? role : "ANONYMOUS")
+                + "|" + (internalService != null ? ContentHashUtil.sha256Hex(internalService) : "")
+                + "|" + (userId != null ? userId : "");
+    }
+
+    private void record(String result) {
+        meterRegistry.counter("gateway.single_flight.requests", "result", result).increment();
+    }
+
+    private record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    /**
+     * Gom body của leader, phát bản sao cho các follower rồi mới ghi ra client của leader.
+     */
+    private class SharingResponseDecorator extends ServerHttpResponseDecorator {
+        private final Sinks.One<SharedResponse> sink;
+
+        SharingResponseDecorator(ServerHttpResponse delegate, Sinks.One<SharedResponse> sink) {
+            super(delegate);
+            this.sink = sink;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+
+                if (bytes.length <= config.getMaxBodyBytes() && getStatusCode() != null) {
+                    HttpHeaders copy = new HttpHeaders();
+                    getHeaders().forEach((name, values) -> {
+                        if (!SKIPPED_HEADERS.contains(name.toLowerCase())) {
+                            copy.put(name, List.copyOf(values));
+                        }
+                    });
+                    sink.tryEmitValue(new SharedResponse(getStatusCode(), copy, bytes));
+                }
+
+                return getDelegate().writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            }).switchIfEmpty(Mono.defer(() -> getDelegate().setComplete()));
+        }
+    }
+}
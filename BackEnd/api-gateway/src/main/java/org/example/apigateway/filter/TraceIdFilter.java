@@ -0,0 +1,46 @@
+package org.example.apigateway.filter;
+
+import org.example.apigateway.logging.GatewayLogContext;
+import org.example.commonlibrary.logging.LogContext;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Gán traceId cho mỗi request (giữ X-Trace-Id client gửi lên nếu có), forward xuống service
+ * và trả lại cho client để đối chiếu log giữa gateway và các service.
+ *
+ * Order -200: chạy đầu tiên, trước JwtAuthenticationFilter (-100).
+ */
+@Component
+public class TraceIdFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = -200;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String traceId = exchange.getRequest().getHeaders().getFirst(LogContext.TRACE_ID_HEADER);
+        if (traceId == null || traceId.isBlank()) {
+            traceId = UUID.randomUUID().toString().replace("-", "");
+        }
+
+        exchange.getAttributes().put(GatewayLogContext.TRACE_ID_ATTR, traceId);
+        exchange.getResponse().getHeaders().set(LogContext.TRACE_ID_HEADER, traceId);
+
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .header(LogContext.TRACE_ID_HEADER, traceId)
+                .build();
+        return chain.filter(exchange.mutate().request(request).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
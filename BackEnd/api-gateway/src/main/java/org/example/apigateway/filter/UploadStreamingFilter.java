@@ -0,0 +1,114 @@
+package org.example.apigateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apigateway.config.UploadStreamingConfig;
+import org.example.commonlibrary.dto.response.ErrorCode;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Giới hạn kích thước upload ngay khi body đang stream (không gom body vào RAM).
+ *
+ * NettyRoutingFilter vốn đã forward request body dạng Flux&lt;DataBuffer&gt; có backpressure;
+ * filter này chỉ đếm byte trên đường đi:
+ * - Content-Length khai báo vượt limit → 413 ngay, không đọc body.
+ * - Chunked / Content-Length sai → đếm từng buffer, vượt limit thì huỷ stream với 413,
+ *   upstream nhận connection bị cắt và bỏ request đang dở.
+ * Mỗi buffer được release ngay sau khi Netty ghi xuống upstream → bộ nhớ gateway
+ * không phụ thuộc số upload đồng thời hay kích thước file.
+ *
+ * KHÔNG dùng ModifyRequestBody / cacheRequestBody cho các route này — chúng gom toàn bộ body.
+ */
+@Slf4j
+@Component
+public class UploadStreamingFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = -75;
+
+    private final UploadStreamingConfig config;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public UploadStreamingFilter(UploadStreamingConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!config.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        UploadStreamingConfig.Rule rule = findRule(request);
+        if (rule == null) {
+            return chain.filter(exchange);
+        }
+
+        long maxBytes = rule.getMaxSize().toBytes();
+        long declaredLength = request.getHeaders().getContentLength();
+        if (declaredLength > maxBytes) {
+            record("declared_too_large");
+            log.warn("[UPLOAD] Rejected {} {}: Content-Length {} > {}",
+                    request.getMethod(), request.getURI().getPath(), declaredLength, maxBytes);
+            return ErrorResponseWriter.write(exchange.getResponse(), ErrorCode.PAYLOAD_TOO_LARGE);
+        }
+
+        ServerHttpRequest limited = new ServerHttpRequestDecorator(request) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                AtomicLong received = new AtomicLong();
+                return super.getBody().handle((buffer, sink) -> {
+                    if (received.addAndGet(buffer.readableByteCount()) > maxBytes) {
+                        DataBufferUtils.release(buffer);
+                        record("streamed_too_large");
+                        sink.error(new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                                ErrorCode.PAYLOAD_TOO_LARGE.getMessage()));
+                        return;
+                    }
+                    sink.next(buffer);
+                });
+            }
+        };
+
+        return chain.filter(exchange.mutate().request(limited).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private UploadStreamingConfig.Rule findRule(ServerHttpRequest request) {
+        String path = request.getURI().getPath();
+        String method = request.getMethod().name();
+        for (UploadStreamingConfig.Rule rule : config.getRules()) {
+            boolean methodMatches = rule.getMethods().isEmpty()
+                    || rule.getMethods().stream().anyMatch(m -> m.equalsIgnoreCase(method));
+            if (methodMatches && pathMatcher.match(rule.getPath(), path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private void record(String result) {
+        meterRegistry.counter("gateway.upload_streaming.rejected", "reason", result).increment();
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.apigateway.filter;
+
+import io.netty.handler.timeout.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apigateway.upstream.UpstreamInstance;
+import org.example.apigateway.upstream.UpstreamPool;
+import org.example.apigateway.upstream.UpstreamPoolRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.netty.http.client.PrematureCloseException;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Chọn instance upstream cho route có pool (gateway.upstream.pools).
+ *
+ * Chạy SAU RouteToRequestUrlFilter (10000) — lúc đó GATEWAY_REQUEST_URL_ATTR đã là URL đầy đủ
+ * theo uri của route — và thay scheme/host/port bằng instance được balancer chọn.
+ * Cùng order với ReactiveLoadBalancerClientFilter của Spring Cloud (10150).
+ *
+ * Kết quả mỗi request được dùng cho passive outlier ejection. Chỉ tính là lỗi của instance:
+ * connect error / timeout / upstream đóng kết nối giữa chừng, và response 5xx từ upstream.
+ * Lỗi do client gây ra (4xx gateway tự ném, vd. 413 khi upload quá cỡ giữa body) và client
+ * hủy request không được tính — client không thể làm instance khỏe mạnh bị eject.
+ */
+@Slf4j
+@Component
+public class UpstreamLoadBalancerFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = 10150;
+
+    private final UpstreamPoolRegistry registry;
+
+    public UpstreamLoadBalancerFilter(UpstreamPoolRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        URI requestUrl = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        if (route == null || requestUrl == null) {
+            return chain.filter(exchange);
+        }
+
+        UpstreamPool pool = registry.getPool(route.getId());
+        if (pool == null) {
+            return chain.filter(exchange);
+        }
+
+        UpstreamInstance instance = pool.choose();
+        if (instance == null) {
+            return chain.filter(exchange);
+        }
+
+        URI base = instance.getBaseUri();
+        URI targetUrl = UriComponentsBuilder.fromUri(requestUrl)
+                .scheme(base.getScheme())
+                .host(base.getHost())
+                .port(base.getPort())
+                .build(true)
+                .toUri();
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR, targetUrl);
+
+        instance.getOutstanding().incrementAndGet();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        return chain.filter(exchange)
+                .doOnError(error::set)
+                .doFinally(signal -> {
+                    instance.getOutstanding().decrementAndGet();
+                    if (signal == SignalType.ON_ERROR) {
+                        if (isUpstreamError(error.get())) {
+                            pool.recordFailure(instance);
+                        }
+                    } else if (signal == SignalType.ON_COMPLETE) {
+                        if (isUpstreamFailure(exchange.getResponse().getStatusCode())) {
+                            pool.recordFailure(instance);
+                        } else {
+                            pool.recordSuccess(instance);
+                        }
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private boolean isUpstreamFailure(HttpStatusCode status) {
+        return status != null && status.is5xxServerError();
+    }
+
+    /** Lỗi mạng tới instance (connect / timeout / đóng kết nối) hoặc 5xx; 4xx do gateway ném thì bỏ qua. */
+    private boolean isUpstreamError(Throwable error) {
+        if (error instanceof ResponseStatusException statusException) {
+            return statusException.getStatusCode().is5xxServerError();
+        }
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof ConnectException
+                    || t instanceof SocketTimeoutException
+                    || t instanceof java.util.concurrent.TimeoutException
+                    || t instanceof TimeoutException
+                    || t instanceof PrematureCloseException) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.apigateway.logging;
+
+import org.example.commonlibrary.logging.LogContext;
+import org.slf4j.MDC;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * MDC trên Netty event loop: thread được dùng chung cho nhiều request nên MDC chỉ được set
+ * trong phạm vi 1 đoạn code đồng bộ và phải xoá ngay sau đó.
+ * traceId/userId được giữ trong exchange attribute (TraceIdFilter, JwtAuthenticationFilter).
+ */
+public final class GatewayLogContext {
+
+    public static final String TRACE_ID_ATTR = GatewayLogContext.class.getName() + ".traceId";
+    public static final String USER_ID_ATTR = GatewayLogContext.class.getName() + ".userId";
+
+    private GatewayLogContext() {
+    }
+
+    /** Chạy action (thường là 1 lệnh log trong callback reactive) với MDC của exchange. */
+    public static void run(ServerWebExchange exchange, Runnable action) {
+        open(exchange);
+        try {
+            action.run();
+        } finally {
+            close();
+        }
+    }
+
+    public static void open(ServerWebExchange exchange) {
+        String traceId = exchange.getAttribute(TRACE_ID_ATTR);
+        String userId = exchange.getAttribute(USER_ID_ATTR);
+        if (traceId != null) {
+            MDC.put(LogContext.MDC_TRACE_ID, traceId);
+        }
+        if (userId != null) {
+            MDC.put(LogContext.MDC_USER_ID, userId);
+        }
+    }
+
+    public static void close() {
+        MDC.remove(LogContext.MDC_TRACE_ID);
+        MDC.remove(LogContext.MDC_USER_ID);
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.apigateway.ratelimit;
+
+import org.example.apigateway.config.RateLimitConfig;
+import org.springframework.scheduling.annotation.Scheduled;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket in-memory, lock theo từng bucket (không lock global).
+ * Bucket idle lâu hơn IDLE_EVICT_NANOS sẽ bị dọn để map không phình theo số user.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private static final long IDLE_EVICT_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<RateLimitDecision> tryConsume(String key, RateLimitConfig.Policy policy) {
+        TokenBucket bucket = buckets.computeIfAbsent(key,
+                k -> new TokenBucket(policy.getCapacity(), policy.refillPerSecond()));
+        return Mono.just(bucket.tryConsume());
+    }
+
+    // Dọn bucket idle mỗi 5 phút
+    @Scheduled(fixedRate = 300000)
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now, IDLE_EVICT_NANOS));
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private static final class TokenBucket {
+        private final int capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefillNanos;
+        private volatile long lastAccessNanos;
+
+        TokenBucket(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.tokens = capacity;
+            this.lastRefillNanos = System.nanoTime();
+            this.lastAccessNanos = lastRefillNanos;
+        }
+
+        synchronized RateLimitDecision tryConsume() {
+            long now = System.nanoTime();
+            lastAccessNanos = now;
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return new RateLimitDecision(true, (long) tokens, 0);
+            }
+            double missingNanos = (1 - tokens) / refillPerNano;
+            long retryAfter = Math.max(1, (long) Math.ceil(missingNanos / TimeUnit.SECONDS.toNanos(1)));
+            return new RateLimitDecision(false, 0, retryAfter);
+        }
+
+        // Idle đủ lâu thì bucket chắc chắn đã đầy lại → xoá không làm thay đổi quota
+        boolean isIdle(long now, long idleNanos) {
+            return now - lastAccessNanos > idleNanos;
+        }
+
+        private void refill(long now) {
+            long elapsed = now - lastRefillNanos;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+                lastRefillNanos = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.apigateway.ratelimit;
+
+/**
+ * Kết quả consume 1 token từ bucket.
+ *
+ * @param retryAfterSeconds số giây client nên chờ trước khi thử lại (0 nếu allowed)
+ */
+public record RateLimitDecision(boolean allowed, long remaining, long retryAfterSeconds) {
+}
@@ -0,0 +1,21 @@
+package org.example.apigateway.ratelimit;
+
+import org.example.apigateway.config.RateLimitConfig;
+import reactor.core.publisher.Mono;
+
+/**
+ * Nơi lưu trạng thái token bucket.
+ * Mặc định dùng InMemoryRateLimitStore (mỗi gateway instance đếm riêng).
+ * Khi chạy nhiều gateway instance, khai báo 1 bean RateLimitStore dùng shared store
+ * (Redis, DB...) để các instance thống nhất quota — bean in-memory sẽ tự lùi lại.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Thử consume 1 token cho key theo policy.
+     *
+     * @param key    bucket key (policy name + user id)
+     * @param policy policy áp dụng
+     */
+    Mono<RateLimitDecision> tryConsume(String key, RateLimitConfig.Policy policy);
+}
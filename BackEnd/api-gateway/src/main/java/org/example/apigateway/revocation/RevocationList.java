@@ -0,0 +1,103 @@
+package org.example.apigateway.revocation;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apigateway.config.RevocationConfig;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Danh sách access token bị thu hồi, replicate local trên mỗi gateway instance.
+ *
+ * - Chia slice theo thời điểm hết hạn của token (sliceDuration). Token trong slice đã hết hạn
+ *   bị JwtUtil chặn sẵn → cả slice được drop 1 lần, không phải dọn từng jti.
+ * - Mỗi slice: Bloom filter loại nhanh token chưa bị thu hồi (phần lớn request),
+ *   bảng jti chính xác xác nhận khi Bloom báo "có thể" → không có false positive khoá nhầm user.
+ * - isRevoked là O(1), không gọi mạng.
+ */
+@Slf4j
+@Component
+public class RevocationList {
+
+    private final ConcurrentSkipListMap<Long, Slice> slices = new ConcurrentSkipListMap<>();
+    private final RevocationConfig config;
+    private final long sliceMillis;
+
+    public RevocationList(RevocationConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.sliceMillis = Math.max(1000, config.getSliceDuration().toMillis());
+
+        Gauge.builder("gateway.revocation.entries", this, RevocationList::size)
+                .description("Số jti đang bị thu hồi trong revocation list local")
+                .register(meterRegistry);
+        Gauge.builder("gateway.revocation.slices", slices, Map::size)
+                .register(meterRegistry);
+    }
+
+    public void add(String jti, Instant expiresAt) {
+        if (jti == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        slices.computeIfAbsent(sliceKey(expiresAt), k -> new Slice(config.getExpectedPerSlice(),
+                        config.getFalsePositiveRate()))
+                .add(jti);
+    }
+
+    public boolean isRevoked(String jti, Instant expiresAt) {
+        if (jti == null || expiresAt == null) {
+            return false;
+        }
+        Slice slice = slices.get(sliceKey(expiresAt));
+        return slice != null && slice.contains(jti);
+    }
+
+    public int size() {
+        int total = 0;
+        for (Slice slice : slices.values()) {
+            total += slice.exact.size();
+        }
+        return total;
+    }
+
+    // Drop slice mà mọi token trong đó đã hết hạn
+    @Scheduled(fixedRate = 60000)
+    public void evictExpired() {
+        long cutoff = sliceKey(Instant.now());
+        int before = slices.size();
+        slices.headMap(cutoff, false).clear();
+        int dropped = before - slices.size();
+        if (dropped > 0) {
+            log.debug("Dropped {} expired revocation slices", dropped);
+        }
+    }
+
+    private long sliceKey(Instant expiresAt) {
+        return Math.floorDiv(expiresAt.toEpochMilli(), sliceMillis);
+    }
+
+    private static final class Slice {
+        private final BloomFilter bloom;
+        private final Set<String> exact = ConcurrentHashMap.newKeySet();
+
+        private Slice(int expected, double fpp) {
+            this.bloom = new BloomFilter(expected, fpp);
+        }
+
+        // Ghi exact trước bloom: thread đọc thấy bloom bit thì exact chắc chắn đã có jti
+        private void add(String jti) {
+            exact.add(jti);
+            bloom.put(jti);
+        }
+
+        private boolean contains(String jti) {
+            return bloom.mightContain(jti) && exact.contains(jti);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.apigateway.revocation;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apigateway.config.RevocationConfig;
+import org.example.commonlibrary.dto.request.TokenRevokedEvent;
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+
+/**
+ * Đồng bộ RevocationList với auth-service:
+ * - Realtime: mỗi gateway instance có queue riêng (anonymous, auto-delete) bind vào fanout exchange.
+ * - Snapshot: lấy toàn bộ jti còn hạn khi khởi động và định kỳ, bù các event bị lỡ lúc mất kết nối broker.
+ * Thu hồi không bao giờ bị "gỡ" nên snapshot chỉ merge thêm, không thay thế list hiện tại.
+ */
+@Slf4j
+@Component
+public class RevocationSyncService {
+
+    private static final String SNAPSHOT_PATH = "/internal/auth/revoked-tokens";
+
+    private final RevocationList revocationList;
+    private final RevocationConfig config;
+    private final ObjectMapper objectMapper;
+    private final WebClient webClient;
+
+    public RevocationSyncService(RevocationList revocationList, RevocationConfig config, ObjectMapper objectMapper) {
+        this.revocationList = revocationList;
+        this.config = config;
+        this.objectMapper = objectMapper;
+        this.webClient = WebClient.builder()
+                .codecs(configurer -> configurer.defaultCodecs()
+                        .maxInMemorySize(16 * 1024 * 1024))
+                .build();
+    }
+
+    @RabbitListener(
+            bindings = @QueueBinding(
+                    value = @Queue(autoDelete = "true", exclusive = "true"),
+                    exchange = @Exchange(value = TokenRevokedEvent.EXCHANGE, type = ExchangeTypes.FANOUT)),
+            autoStartup = "${gateway.revocation.enabled:true}")
+    public void onTokenRevoked(TokenRevokedEvent event) {
+        revocationList.add(event.getJti(), event.getExpiresAt());
+        log.debug("Token revoked: jti={}", event.getJti());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        resync();
+    }
+
+    @Scheduled(initialDelayString = "${gateway.revocation.resync-interval:PT5M}",
+            fixedDelayString = "${gateway.revocation.resync-interval:PT5M}")
+    public void resync() {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        webClient.get()
+                .uri(config.getAuthServiceUrl() + SNAPSHOT_PATH)
+                .header("X-Internal-Service", config.getInternalServiceName())
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(config.getSnapshotTimeout())
+                .subscribe(body -> {
+                    List<TokenRevokedEvent> events = objectMapper.convertValue(body.path("data"),
+                            new TypeReference<List<TokenRevokedEvent>>() {});
+                    if (events != null) {
+                        events.forEach(e -> revocationList.add(e.getJti(), e.getExpiresAt()));
+                    }
+                    log.debug("Revocation snapshot merged: {} entries, {} total",
+                            events != null ? events.size() : 0, revocationList.size());
+                }, error -> log.warn("Failed to fetch revocation snapshot from {}: {}",
+                        config.getAuthServiceUrl(), error.getMessage()));
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.apigateway.security;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+
+/**
+ * Tập CIDR (IPv4/IPv6) bất biến — dùng cho trusted networks của InternalEndpointFilter và
+ * trusted proxies của RateLimitFilter. CIDR sai định dạng → IllegalArgumentException lúc khởi động.
+ */
+public final class CidrMatcher {
+
+    private record Network(byte[] address, int prefixLength) {
+    }
+
+    private final List<Network> networks;
+
+    public CidrMatcher(List<String> cidrs) {
+        this.networks = cidrs.stream()
+                .map(CidrMatcher::parseNetwork)
+                .toList();
+    }
+
+    public boolean isEmpty() {
+        return networks.isEmpty();
+    }
+
+    public boolean contains(InetAddress address) {
+        byte[] bytes = address.getAddress();
+        for (Network network : networks) {
+            if (matches(network, bytes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Helper methods
+
+    private static boolean matches(Network network, byte[] address) {
+        if (network.address().length != address.length) {
+            return false;
+        }
+        int fullBytes = network.prefixLength() / 8;
+        for (int i = 0; i < fullBytes; i++) {
+            if (network.address()[i] != address[i]) {
+                return false;
+            }
+        }
+        int remainingBits = network.prefixLength() % 8;
+        if (remainingBits == 0) {
+            return true;
+        }
+        int mask = (0xFF << (8 - remainingBits)) & 0xFF;
+        return (network.address()[fullBytes] & mask) == (address[fullBytes] & mask);
+    }
+
+    private static Network parseNetwork(String cidr) {
+        String[] parts = cidr.trim().split("/");
+        try {
+            byte[] address = InetAddress.getByName(parts[0]).getAddress();
+            int prefixLength = parts.length > 1 ? Integer.parseInt(parts[1]) : address.length * 8;
+            if (prefixLength < 0 || prefixLength > address.length * 8) {
+                throw new IllegalArgumentException("Invalid prefix length in network: " + cidr);
+            }
+            return new Network(address, prefixLength);
+        } catch (UnknownHostException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid network: " + cidr, e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.apigateway.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Xác định IP client thật khi gateway đứng sau reverse proxy / LB.
+ *
+ * Header Forwarded (RFC 7239) hoặc X-Forwarded-For chỉ được đọc khi kết nối tới từ trustedProxies;
+ * chuỗi hop được duyệt từ phải sang trái, bỏ qua các hop là proxy tin cậy, hop đầu tiên không tin cậy
+ * là client (giống RemoteIpValve của Tomcat). Client gọi thẳng vào gateway không giả mạo được IP
+ * bằng cách tự gửi header. trustedProxies rỗng → luôn dùng địa chỉ kết nối.
+ */
+public final class ClientIpResolver {
+
+    private static final String X_FORWARDED_FOR = "X-Forwarded-For";
+    // Chỉ parse IP literal — không để InetAddress.getByName resolve DNS theo giá trị header
+    private static final Pattern IPV4 = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+    private static final Pattern IPV6 = Pattern.compile("[0-9A-Fa-f:.]*:[0-9A-Fa-f:.]*");
+
+    private final CidrMatcher trustedProxies;
+
+    public ClientIpResolver(List<String> trustedProxies) {
+        this.trustedProxies = new CidrMatcher(trustedProxies);
+    }
+
+    /** @return IP client, hoặc null khi không xác định được địa chỉ kết nối. */
+    public String resolve(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        InetAddress client = remote != null ? remote.getAddress() : null;
+        if (client == null) {
+            return null;
+        }
+        if (trustedProxies.isEmpty() || !trustedProxies.contains(client)) {
+            return client.getHostAddress();
+        }
+
+        List<String> hops = forwardedFor(request.getHeaders());
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            InetAddress hop = parseAddress(hops.get(i));
+            if (hop == null) {
+                // "unknown", định danh ẩn danh hoặc rác → dừng ở hop tin cậy gần nhất
+                break;
+            }
+            client = hop;
+            if (!trustedProxies.contains(hop)) {
+                break;
+            }
+        }
+        return client.getHostAddress();
+    }
+
+    // Helper methods
+
+    // Thứ tự client → proxy gần nhất; Forwarded được ưu tiên hơn X-Forwarded-For
+    private static List<String> forwardedFor(HttpHeaders headers) {
+        List<String> hops = new ArrayList<>();
+        List<String> forwarded = headers.get(HttpHeaders.FORWARDED);
+        if (forwarded != null && !forwarded.isEmpty()) {
+            for (String value : forwarded) {
+                for (String element : value.split(",")) {
+                    for (String pair : element.split(";")) {
+                        int eq = pair.indexOf('=');
+                        if (eq > 0 && pair.substring(0, eq).trim().equalsIgnoreCase("for")) {
+                            hops.add(pair.substring(eq + 1).trim());
+                        }
+                    }
+                }
+            }
+            return hops;
+        }
+        List<String> xForwardedFor = headers.get(X_FORWARDED_FOR);
+        if (xForwardedFor != null) {
+            for (String value : xForwardedFor) {
+                for (String hop : value.split(",")) {
+                    hops.add(hop.trim());
+                }
+            }
+        }
+        return hops;
+    }
+
+    private static InetAddress parseAddress(String node) {
+        String host = node;
+        if (host.length() >= 2 && host.startsWith("\"") && host.endsWith("\"")) {
+            host = host.substring(1, host.length() - 1);
+        }
+        if (host.startsWith("[")) {
+            // "[2001:db8::1]:4711"
+            int end = host.indexOf(']');
+            if (end < 0) {
+                return null;
+            }
+            host = host.substring(1, end);
+        } else if (host.indexOf(':') > 0 && host.indexOf(':') == host.lastIndexOf(':')) {
+            // "192.0.2.60:4711"
+            host = host.substring(0, host.indexOf(':'));
+        }
+        try {
+            if (IPV4.matcher(host).matches()) {
+                String[] octets = host.split("\\.");
+                byte[] bytes = new byte[4];
+                for (int i = 0; i < 4; i++) {
+                    int octet = Integer.parseInt(octets[i]);
+                    if (octet > 255) {
+                        return null;
+                    }
+                    bytes[i] = (byte) octet;
+                }
+                return InetAddress.getByAddress(bytes);
+            }
+            // Chuỗi có ':' luôn được parse như IPv6 literal (sai → UnknownHostException, không DNS)
+            return IPV6.matcher(host).matches() ? InetAddress.getByName(host) : null;
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package org.example.apigateway.security;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apigateway.logging.GatewayLogContext;
+import org.example.apigateway.revocation.RevocationList;
 import org.example.commonlibrary.dto.response.ErrorCode;
 import org.example.commonlibrary.dto.response.ApiResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
@@ -18,50 +23,59 @@ import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
 
+@Slf4j
 @Component
 public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
 
+    // Log success-path (mỗi request 1 dòng) — được lấy mẫu theo category "gateway.access" trong logback-spring.xml
+    private static final Logger accessLog = LoggerFactory.getLogger("gateway.access");
+
     @Autowired
     private JwtUtil jwtUtil;
 
     @Autowired
     private RouterValidator routerValidator;
 
+    @Autowired
+    private RevocationList revocationList;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
         String path = request.getURI().getPath();
-        String uri = request.getURI().toString();
-
-        // Nếu endpoint KHÔNG cần bảo mật → forward luôn
-        if (!routerValidator.isSecured.test(request)) {
-            System.out.println("Open endpoint, forwarding to downstream: " + path);
-            return chain.filter(exchange)
-                    .doOnSuccess(aVoid -> System.out.println("Successfully forwarded to: " + uri))
-                    .doOnError(error -> System.out.println("Error forwarding to " + uri + ": " + error.getMessage()));
-        }
 
-        // Nếu CẦN bảo mật → xác thực JWT
-        System.out.println("Secured endpoint, checking authentication: " + path);
-        return handleAuthentication(exchange, chain);
+        GatewayLogContext.open(exchange);
+        try {
+            // Nếu endpoint KHÔNG cần bảo mật → forward luôn
+            if (!routerValidator.isSecured.test(request)) {
+                accessLog.info("Open endpoint {} {}", request.getMethod(), path);
+                return chain.filter(exchange)
+                        .doOnError(error -> GatewayLogContext.run(exchange, () ->
+                                log.warn("Error forwarding {}: {}", path, error.getMessage())));
+            }
+
+            // Nếu CẦN bảo mật → xác thực JWT
+            return handleAuthentication(exchange, chain);
+        } finally {
+            GatewayLogContext.close();
+        }
     }
 
     private Mono<Void> handleAuthentication(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
         String path = request.getURI().getPath();
-        String uri = request.getURI().toString();
 
         // Check authorization header
         if (!request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
-            System.out.println("Missing authorization header for: " + path);
+            log.info("Missing authorization header for: {}", path);
             return onError(exchange, ErrorCode.TOKEN_MISSING);
         }
 
         String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            System.out.println("Invalid authorization header format for: " + path);
+            log.info("Invalid authorization header format for: {}", path);
             return onError(exchange, ErrorCode.TOKEN_INVALID);
         }
 
@@ -71,31 +85,40 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
 
             if (!validationResult.isValid()) {
                 if (validationResult.isExpired()) {
-                    System.out.println("Token expired for: " + path);
+                    log.debug("Token expired for: {}", path);
                     return onError(exchange, ErrorCode.TOKEN_EXPIRED);
                 }
 
                 ErrorCode errorCode = mapToErrorCode(validationResult.getErrorCode());
-                System.out.println("Token validation failed for: " + path);
+                log.warn("Token validation failed for: {} ({})", path, validationResult.getErrorCode());
                 return onError(exchange, errorCode);
             }
 
-            // Extract claims và thêm vào headers
-            String phone = jwtUtil.extractPhone(token);
-            String role = jwtUtil.extractRole(token);
-            String id = jwtUtil.extractId(token);
+            // Claims đã được parse sẵn trong validateToken — không parse lại JWS
+            JwtClaims claims = validationResult.getClaims();
+
+            // Token đã logout — tra revocation list local, không gọi auth-service
+            if (revocationList.isRevoked(claims.jti(), claims.expiresAt())) {
+                log.debug("Revoked token used for: {}", path);
+                return onError(exchange, ErrorCode.TOKEN_REVOKED);
+            }
+
+            String phone = claims.phone();
+            String role = claims.role();
+            String id = claims.id();
 
-            System.out.println("JWT valid - Id: " + id + ", Phone: " + phone + ", Role: " + role);
+            exchange.getAttributes().put(GatewayLogContext.USER_ID_ATTR, id);
+            GatewayLogContext.open(exchange);
 
             // Kiểm tra phân quyền: Nếu route là của Admin, bắt buộc role phải là ADMIN
             if (path.startsWith("/admin") || path.startsWith("/api/admin") || path.startsWith("/auth/admin")) {
                 if (!"ADMIN".equalsIgnoreCase(role)) {
-                    System.out.println("Access denied: Not an admin for path " + path);
+                    log.warn("Access denied: Not an admin for path {}", path);
                     return onError(exchange, ErrorCode.FORBIDDEN); // Sử dụng lỗi liên quan như FORBIDDEN
                 }
             }
 
-            System.out.println("Forwarding to downstream: " + uri);
+            accessLog.info("Authorized {} {} role={}", request.getMethod(), path, role);
 
             ServerHttpRequest modifiedRequest = exchange.getRequest().mutate()
                     .header("X-User-Phone", phone)
@@ -104,12 +127,11 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
                     .build();
 
             return chain.filter(exchange.mutate().request(modifiedRequest).build())
-                    .doOnSuccess(aVoid -> System.out.println("Successfully forwarded to: " + uri))
-                    .doOnError(error -> System.out.println("Error forwarding to " + uri + ": " + error.getMessage()));
+                    .doOnError(error -> GatewayLogContext.run(exchange, () ->
+                            log.warn("Error forwarding {}: {}", path, error.getMessage())));
 
         } catch (Exception e) {
-            System.out.println("Token validation exception for " + path + ": " + e.getMessage());
-            e.printStackTrace();
+            log.error("Token validation exception for {}", path, e);
             return onError(exchange, ErrorCode.INTERNAL_SERVER_ERROR);
         }
     }
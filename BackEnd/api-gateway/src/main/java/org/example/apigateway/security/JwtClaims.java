@@ -0,0 +1,14 @@
+package org.example.apigateway.security;
+
+import java.time.Instant;
+
+/**
+ * Claims đã verify của access token — parse 1 lần duy nhất trong JwtUtil,
+ * JwtAuthenticationFilter dùng lại để set X-User-* headers.
+ */
+public record JwtClaims(String id, String phone, String role, String jti, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -3,11 +3,13 @@ package org.example.apigateway.security;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -15,41 +17,53 @@ import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
 
+@Slf4j
 @Component
 public class JwtUtil {
 
-    private final SecretKey key;
+    private final JwtParser jwtParser;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final String expectedSubject = "CV Review";
 
-    public JwtUtil(@Value("${jwt.secret}") String secret) {
+    public JwtUtil(@Value("${jwt.secret}") String secret, VerifiedTokenCache verifiedTokenCache) {
         if (secret.length() < 32) {
             throw new IllegalArgumentException("JWT secret must be at least 32 characters long");
         }
-        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        // Parser immutable + thread-safe → build 1 lần thay vì mỗi request
+        this.jwtParser = Jwts.parser().verifyWith(key).build();
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     /**
-     * Validate token and return detailed result with specific error codes
+     * Validate token and return detailed result with specific error codes.
+     * Token được parse + verify chữ ký đúng 1 lần; claims trả về kèm trong result.
+     * Token đã verify trước đó (còn hạn) được lấy thẳng từ VerifiedTokenCache.
      */
     public TokenValidationResult validateToken(String token) {
+        JwtClaims cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            return TokenValidationResult.valid(cached);
+        }
+
         try {
             Claims claims = extractAllClaims(token);
 
             // Check subject
             if (!expectedSubject.equals(claims.getSubject())) {
-                System.out.println("Invalid subject in token");
+                log.warn("Invalid subject in token");
                 return TokenValidationResult.invalid("INVALID_SUBJECT", "Token subject does not match expected value");
             }
 
             // Check expiration
             Date expiration = claims.getExpiration();
             if (expiration == null) {
-                System.out.println("Missing expiration in token");
+                log.warn("Missing expiration in token");
                 return TokenValidationResult.invalid("MISSING_EXPIRATION", "Token does not contain expiration date");
             }
 
             if (expiration.before(new Date())) {
-                System.out.println("Token expired at: " + expiration);
+                log.debug("Token expired at: {}", expiration);
                 return TokenValidationResult.expired("Token has expired. Please refresh your token or login again");
             }
 
@@ -59,32 +73,34 @@ public class JwtUtil {
             String role = claims.get("Role", String.class);
 
             if (id == null || id.isEmpty()) {
-                System.out.println("Missing Id claim");
+                log.warn("Missing Id claim");
                 return TokenValidationResult.invalid("MISSING_CLAIM_ID", "Token is missing required claim: Id");
             }
             if (phone == null || phone.isEmpty()) {
-                System.out.println("Missing Phone claim");
+                log.warn("Missing Phone claim");
                 return TokenValidationResult.invalid("MISSING_CLAIM_PHONE", "Token is missing required claim: Phone");
             }
             if (role == null || role.isEmpty()) {
-                System.out.println("Missing Role claim");
+                log.warn("Missing Role claim");
                 return TokenValidationResult.invalid("MISSING_CLAIM_ROLE", "Token is missing required claim: Role");
             }
 
-            System.out.println("Token validated successfully for user: " + phone);
-            return TokenValidationResult.valid();
+            JwtClaims jwtClaims = new JwtClaims(id, phone, role, claims.get("jti", String.class),
+                    expiration.toInstant());
+            verifiedTokenCache.put(token, jwtClaims);
+            return TokenValidationResult.valid(jwtClaims);
 
         } catch (ExpiredJwtException e) {
-            System.out.println("Token expired: " + e.getMessage());
+            log.debug("Token expired: {}", e.getMessage());
             return TokenValidationResult.expired("Token has expired. Please refresh your token or login again");
         } catch (SignatureException e) {
-            System.out.println("Invalid token signature: " + e.getMessage());
+            log.warn("Invalid token signature: {}", e.getMessage());
             return TokenValidationResult.invalid("INVALID_SIGNATURE", "Token signature verification failed");
         } catch (MalformedJwtException e) {
-            System.out.println("Malformed token: " + e.getMessage());
+            log.warn("Malformed token: {}", e.getMessage());
             return TokenValidationResult.invalid("MALFORMED_TOKEN", "Token format is invalid");
         } catch (Exception e) {
-            System.out.println("Token validation error: " + e.getMessage());
+            log.warn("Token validation error: {}", e.getMessage());
             return TokenValidationResult.invalid("INVALID_TOKEN", "Token validation failed: " + e.getMessage());
         }
     }
@@ -94,47 +110,7 @@ public class JwtUtil {
      * This will throw exceptions if token is invalid
      */
     private Claims extractAllClaims(String token) throws JwtException {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    /**
-     * Extract user ID from valid token
-     */
-    public String extractId(String token) {
-        try {
-            Claims claims = extractAllClaims(token);
-            return claims.get("Id", String.class);
-        } catch (Exception e) {
-            throw new JwtException("Failed to extract Id from token: " + e.getMessage());
-        }
-    }
-
-    /**
-     * Extract phone from valid token
-     */
-    public String extractPhone(String token) {
-        try {
-            Claims claims = extractAllClaims(token);
-            return claims.get("Phone", String.class);
-        } catch (Exception e) {
-            throw new JwtException("Failed to extract Phone from token: " + e.getMessage());
-        }
-    }
-
-    /**
-     * Extract role from valid token
-     */
-    public String extractRole(String token) {
-        try {
-            Claims claims = extractAllClaims(token);
-            return claims.get("Role", String.class);
-        } catch (Exception e) {
-            throw new JwtException("Failed to extract Role from token: " + e.getMessage());
-        }
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
 
     /**
@@ -146,24 +122,27 @@ public class JwtUtil {
         private final boolean expired;
         private final String errorCode;
         private final String errorMessage;
+        private final JwtClaims claims;
 
-        private TokenValidationResult(boolean valid, boolean expired, String errorCode, String errorMessage) {
+        private TokenValidationResult(boolean valid, boolean expired, String errorCode, String errorMessage,
+                                      JwtClaims claims) {
             this.valid = valid;
             this.expired = expired;
             this.errorCode = errorCode;
             this.errorMessage = errorMessage;
+            this.claims = claims;
         }
 
-        public static TokenValidationResult valid() {
-            return new TokenValidationResult(true, false, null, null);
+        public static TokenValidationResult valid(JwtClaims claims) {
+            return new TokenValidationResult(true, false, null, null, claims);
         }
 
         public static TokenValidationResult expired(String message) {
-            return new TokenValidationResult(false, true, "TOKEN_EXPIRED", message);
+            return new TokenValidationResult(false, true, "TOKEN_EXPIRED", message, null);
         }
 
         public static TokenValidationResult invalid(String errorCode, String message) {
-            return new TokenValidationResult(false, false, errorCode, message);
+            return new TokenValidationResult(false, false, errorCode, message, null);
         }
 
     }
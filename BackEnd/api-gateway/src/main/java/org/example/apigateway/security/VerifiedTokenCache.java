@@ -0,0 +1,85 @@
+package org.example.apigateway.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.commonlibrary.utils.ContentHashUtil;
+import org.example.commonlibrary.utils.LruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache các access token đã verify chữ ký thành công.
+ * Key = SHA-256 của token (không giữ raw token trong heap), value = claims.
+ * Mỗi entry tự hết hạn tại thời điểm exp của token → request lặp lại với cùng
+ * access token bỏ qua hoàn toàn bước verify HMAC + parse JSON.
+ * Đầy max-entries → bỏ token ít dùng nhất (LRU, O(1)) thay vì quét map trên event loop.
+ */
+@Slf4j
+@Component
+public class VerifiedTokenCache {
+
+    private final LruCache<String, JwtClaims> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public VerifiedTokenCache(MeterRegistry meterRegistry,
+                              @Value("${jwt.verified-cache.max-entries:10000}") int maxEntries) {
+        this.entries = new LruCache<>(maxEntries);
+        FunctionCounter.builder("gateway.verified_token_cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("gateway.verified_token_cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("gateway.verified_token_cache.entries", entries, LruCache::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return claims nếu token đã verify trước đó và chưa hết hạn, ngược lại null
+     */
+    public JwtClaims get(String token) {
+        String key = ContentHashUtil.sha256Hex(token);
+        JwtClaims claims = entries.get(key);
+        if (claims == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (claims.isExpired(Instant.now())) {
+            entries.remove(key, claims);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return claims;
+    }
+
+    public void put(String token, JwtClaims claims) {
+        entries.put(ContentHashUtil.sha256Hex(token), claims);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Dọn token hết hạn mỗi phút để cache không giữ entry chết (chạy trên scheduler, không trên event loop)
+    @Scheduled(fixedRate = 60000)
+    public void evictExpired() {
+        Instant now = Instant.now();
+        entries.removeIf((key, claims) -> claims.isExpired(now));
+    }
+}
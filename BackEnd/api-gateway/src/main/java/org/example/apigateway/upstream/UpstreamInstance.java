@@ -0,0 +1,55 @@
+package org.example.apigateway.upstream;
+
+import lombok.Getter;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 1 instance upstream trong pool: đếm request đang chạy + trạng thái health/ejection.
+ *
+ * 2 trạng thái độc lập, instance khả dụng khi cả 2 đều OK:
+ * - passive ejection (5xx / connect error khi proxy): hết hạn theo ejectedUntilMillis, health check
+ *   pass không rút ngắn được — /actuator/health OK không có nghĩa request thật hết lỗi.
+ * - active health (health check fail liên tiếp): chỉ được gỡ khi health check pass lại.
+ */
+@Getter
+public class UpstreamInstance {
+
+    private final URI baseUri;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicInteger consecutiveHealthCheckFailures = new AtomicInteger();
+    private volatile long ejectedUntilMillis;
+    private volatile boolean healthCheckFailing;
+
+    public UpstreamInstance(URI baseUri) {
+        this.baseUri = baseUri;
+    }
+
+    public boolean isAvailable(long nowMillis) {
+        return !healthCheckFailing && ejectedUntilMillis <= nowMillis;
+    }
+
+    public int outstandingRequests() {
+        return outstanding.get();
+    }
+
+    void eject(long untilMillis) {
+        ejectedUntilMillis = untilMillis;
+        consecutiveFailures.set(0);
+    }
+
+    void markHealthCheckFailing() {
+        healthCheckFailing = true;
+        consecutiveHealthCheckFailures.set(0);
+    }
+
+    /** @return true nếu instance đang bị loại vì health check (trước lần pass này) */
+    boolean markHealthCheckPassing() {
+        consecutiveHealthCheckFailures.set(0);
+        boolean wasFailing = healthCheckFailing;
+        healthCheckFailing = false;
+        return wasFailing;
+    }
+}
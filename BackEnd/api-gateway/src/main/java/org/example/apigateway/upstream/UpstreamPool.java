@@ -0,0 +1,149 @@
+package org.example.apigateway.upstream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.apigateway.config.UpstreamPoolConfig;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Pool instance của 1 route + thuật toán chọn instance.
+ *
+ * - POWER_OF_TWO: bốc ngẫu nhiên 2 instance khả dụng, lấy instance ít request đang chạy hơn.
+ * - LEAST_REQUESTS: quét toàn pool, lấy instance ít request đang chạy nhất.
+ * Nếu mọi instance đều bị eject (panic mode) → chọn trong toàn pool thay vì trả lỗi.
+ */
+@Slf4j
+public class UpstreamPool {
+
+    private final String routeId;
+    private final UpstreamPoolConfig config;
+    private volatile List<UpstreamInstance> instances;
+
+    public UpstreamPool(String routeId, UpstreamPoolConfig config, List<URI> baseUris) {
+        this.routeId = routeId;
+        this.config = config;
+        this.instances = baseUris.stream().map(UpstreamInstance::new).toList();
+    }
+
+    public UpstreamInstance choose() {
+        List<UpstreamInstance> all = instances;
+        if (all.isEmpty()) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        List<UpstreamInstance> candidates = new ArrayList<>(all.size());
+        for (UpstreamInstance instance : all) {
+            if (instance.isAvailable(now)) {
+                candidates.add(instance);
+            }
+        }
+        if (candidates.isEmpty()) {
+            candidates = all;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+
+        if (config.getBalancer() == UpstreamPoolConfig.BalancerType.LEAST_REQUESTS) {
+            UpstreamInstance best = candidates.get(0);
+            for (UpstreamInstance instance : candidates) {
+                if (instance.outstandingRequests() < best.outstandingRequests()) {
+                    best = instance;
+                }
+            }
+            return best;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        UpstreamInstance a = candidates.get(first);
+        UpstreamInstance b = candidates.get(second);
+        return a.outstandingRequests() <= b.outstandingRequests() ? a : b;
+    }
+
+    public void recordSuccess(UpstreamInstance instance) {
+        instance.getConsecutiveFailures().set(0);
+    }
+
+    /** Lỗi khi proxy request thật (passive) → N lần liên tiếp thì eject trong ejectionDuration. */
+    public void recordFailure(UpstreamInstance instance) {
+        if (instance.getConsecutiveFailures().incrementAndGet() < config.getConsecutiveFailures()) {
+            return;
+        }
+        if (!canEject(instance)) {
+            return;
+        }
+
+        instance.eject(System.currentTimeMillis() + config.getEjectionDuration().toMillis());
+        log.warn("[UPSTREAM] {} - ejected {} for {}", routeId, instance.getBaseUri(), config.getEjectionDuration());
+    }
+
+    /** Health check fail N lần liên tiếp → loại instance tới khi health check pass lại. */
+    public void recordHealthCheckFailure(UpstreamInstance instance) {
+        if (instance.getConsecutiveHealthCheckFailures().incrementAndGet() < config.getConsecutiveFailures()) {
+            return;
+        }
+        if (instance.isHealthCheckFailing() || !canEject(instance)) {
+            return;
+        }
+
+        instance.markHealthCheckFailing();
+        log.warn("[UPSTREAM] {} - removed {} until its health check passes", routeId, instance.getBaseUri());
+    }
+
+    /**
+     * Health check OK → gỡ trạng thái loại do health check. Passive ejection (5xx) vẫn giữ
+     * tới hết ejectionDuration.
+     */
+    public void recordHealthy(UpstreamInstance instance) {
+        if (instance.markHealthCheckPassing()) {
+            log.info("[UPSTREAM] {} - {} is healthy again", routeId, instance.getBaseUri());
+        }
+    }
+
+    private boolean canEject(UpstreamInstance instance) {
+        long now = System.currentTimeMillis();
+        List<UpstreamInstance> all = instances;
+        long ejected = all.stream().filter(i -> !i.isAvailable(now)).count();
+        if (ejected + 1 > all.size() * config.getMaxEjectionPercent()) {
+            log.warn("[UPSTREAM] {} - not ejecting {}: max ejection percent reached", routeId, instance.getBaseUri());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Đồng bộ danh sách instance (DNS discovery), giữ nguyên state của instance còn tồn tại.
+     */
+    public synchronized void syncInstances(Set<URI> discovered) {
+        List<UpstreamInstance> current = instances;
+        List<UpstreamInstance> next = new ArrayList<>(discovered.size());
+        for (URI uri : discovered) {
+            next.add(current.stream()
+                    .filter(i -> i.getBaseUri().equals(uri))
+                    .findFirst()
+                    .orElseGet(() -> new UpstreamInstance(uri)));
+        }
+        if (next.size() != current.size() || !next.containsAll(current)) {
+            log.info("[UPSTREAM] {} - instances updated: {}", routeId, discovered);
+        }
+        instances = List.copyOf(next);
+    }
+
+    public List<UpstreamInstance> getInstances() {
+        return instances;
+    }
+
+    public String getRouteId() {
+        return routeId;
+    }
+}
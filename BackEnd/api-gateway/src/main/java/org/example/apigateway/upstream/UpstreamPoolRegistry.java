@@ -0,0 +1,90 @@
+package org.example.apigateway.upstream;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apigateway.config.UpstreamPoolConfig;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Giữ UpstreamPool theo route id, dựng từ gateway.upstream.pools.
+ * Pool DNS được resolve lại mỗi vòng health check (ServiceKeepaliveScheduler).
+ */
+@Slf4j
+@Component
+public class UpstreamPoolRegistry {
+
+    private final UpstreamPoolConfig config;
+    private final Map<String, UpstreamPool> pools = new ConcurrentHashMap<>();
+
+    public UpstreamPoolRegistry(UpstreamPoolConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+
+        config.getPools().forEach((routeId, poolConfig) -> {
+            List<URI> instances = poolConfig.getInstances().stream().map(URI::create).toList();
+            UpstreamPool pool = new UpstreamPool(routeId, config, instances);
+            pools.put(routeId, pool);
+            if (poolConfig.getDns() != null && !poolConfig.getDns().isBlank()) {
+                refreshDns(pool, poolConfig.getDns());
+            }
+
+            Gauge.builder("gateway.upstream.instances.available", pool,
+                            p -> p.getInstances().stream()
+                                    .filter(i -> i.isAvailable(System.currentTimeMillis()))
+                                    .count())
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.upstream.outstanding", pool,
+                            p -> p.getInstances().stream()
+                                    .mapToInt(UpstreamInstance::outstandingRequests)
+                                    .sum())
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+        });
+
+        log.info("[UPSTREAM] Configured pools: {}", pools.keySet());
+    }
+
+    public UpstreamPool getPool(String routeId) {
+        return config.isEnabled() ? pools.get(routeId) : null;
+    }
+
+    public Collection<UpstreamPool> getPools() {
+        return pools.values();
+    }
+
+    /** Resolve lại DNS cho các pool dùng discovery. */
+    public void refreshDiscovery() {
+        config.getPools().forEach((routeId, poolConfig) -> {
+            UpstreamPool pool = pools.get(routeId);
+            if (pool != null && poolConfig.getDns() != null && !poolConfig.getDns().isBlank()) {
+                refreshDns(pool, poolConfig.getDns());
+            }
+        });
+    }
+
+    private void refreshDns(UpstreamPool pool, String dnsUri) {
+        URI template = URI.create(dnsUri);
+        try {
+            Set<URI> discovered = new LinkedHashSet<>();
+            for (InetAddress address : InetAddress.getAllByName(template.getHost())) {
+                discovered.add(URI.create(template.getScheme() + "://" + address.getHostAddress()
+                        + (template.getPort() > 0 ? ":" + template.getPort() : "")));
+            }
+            pool.syncInstances(discovered);
+        } catch (UnknownHostException e) {
+            // Giữ danh sách cũ, DNS lỗi tạm thời không được làm rỗng pool
+            log.warn("[UPSTREAM] {} - DNS lookup failed for {}: {}", pool.getRouteId(), dnsUri, e.getMessage());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.authservice.config;
 
+import lombok.extern.slf4j.Slf4j;
 import org.example.authservice.models.Role;
 import org.example.authservice.models.Users;
 import org.example.authservice.repository.UserRepository;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 
+@Slf4j
 @Component
 public class DataInitializer implements CommandLineRunner {
 
@@ -33,7 +35,7 @@ public class DataInitializer implements CommandLineRunner {
                     .updatedAt(LocalDateTime.now())
                     .build();
             userRepository.save(admin);
-            System.out.println("Super admin account created successfully.");
+            log.info("Super admin account created successfully.");
         }
     }
 }
@@ -0,0 +1,22 @@
+package org.example.authservice.config;
+
+import org.example.commonlibrary.dto.request.TokenRevokedEvent;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+    // Fanout: mọi gateway instance tự bind queue riêng và nhận đủ event thu hồi token
+    @Bean
+    public FanoutExchange tokenRevocationExchange() {
+        return new FanoutExchange(TokenRevokedEvent.EXCHANGE, true, false);
+    }
+
+    @Bean
+    public Jackson2JsonMessageConverter messageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+}
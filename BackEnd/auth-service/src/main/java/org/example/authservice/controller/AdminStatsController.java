@@ -1,8 +1,8 @@
 package org.example.authservice.controller;
 
+import lombok.extern.slf4j.Slf4j;
 import org.example.authservice.dto.response.UserStatsResponse;
-import org.example.authservice.models.Role;
-import org.example.authservice.repository.UserRepository;
+import org.example.authservice.services.UserStatsService;
 import org.example.commonlibrary.dto.response.ApiResponse;
 import org.example.commonlibrary.dto.response.ErrorCode;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,30 +10,23 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+@Slf4j
 @RestController
 @RequestMapping("/admin/stats")
 public class AdminStatsController {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserStatsService userStatsService;
 
     @GetMapping("/users")
     public ApiResponse<UserStatsResponse> getUserStats() {
         try {
-            long totalUsers = userRepository.count();
-            long totalHr = userRepository.countByRole(Role.HR);
-            long totalCandidate = userRepository.countByRole(Role.CANDIDATE);
-
-            UserStatsResponse stats = UserStatsResponse.builder()
-                    .totalUsers(totalUsers)
-                    .totalHr(totalHr)
-                    .totalCandidate(totalCandidate)
-                    .build();
+            // Đọc counter đã materialize, không COUNT trên bảng users
+            UserStatsResponse stats = userStatsService.getStats();
 
             return new ApiResponse<>(ErrorCode.SUCCESS.getCode(), "User statistics retrieved successfully", stats);
         } catch (Exception e) {
-            System.err.println("Failed to fetch user stats: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Failed to fetch user stats: {}", e.getMessage(), e);
             return new ApiResponse<>(ErrorCode.INTERNAL_SERVER_ERROR.getCode(), "Failed to fetch user stats", null);
         }
     }
@@ -40,10 +40,15 @@ public class AuthController {
             @RequestHeader(value = "X-User-Id", required = true) String userId,
             @RequestHeader(value = "X-User-Phone", required = false) String userPhone,
             @RequestHeader(value = "X-User-Role", required = false) String userRole,
+            @RequestHeader(value = "Authorization", required = false) String authorizationHeader,
             @RequestBody LogoutRequest logoutRequest) {
 
-        // LogoutRequest đã có cả accessToken và refreshToken rồi
-        return authService.logout(userId, logoutRequest);
+        // Access token cần thu hồi lấy từ Authorization (token gateway đã verify cho userId này);
+        // accessToken trong body chỉ là fallback cho client cũ và được kiểm tra claim Id
+        String accessToken = authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                ? authorizationHeader.substring("Bearer ".length())
+                : logoutRequest.getAccessToken();
+        return authService.logout(userId, accessToken, logoutRequest.getRefreshToken());
     }
 
     @PostMapping("/refresh-token")
@@ -58,8 +63,9 @@ public class AuthController {
             String newAccessToken = jwtUtil.generateAccessToken(
                     user.getId(), user.getPhone(), user.getRole());
 
+            // DB chỉ giữ hash → trả lại đúng refresh token client đã gửi
             RefreshTokenResponse responseData = new RefreshTokenResponse(
-                    refreshToken.getToken(), newAccessToken);
+                    refreshTokenRequest.getRefreshToken(), newAccessToken);
 
             ApiResponse<RefreshTokenResponse> apiResponse = new ApiResponse<>(
                     ErrorCode.SUCCESS.getCode(),
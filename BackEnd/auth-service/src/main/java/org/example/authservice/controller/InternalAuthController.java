@@ -0,0 +1,48 @@
+package org.example.authservice.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.example.authservice.services.TokenBlackListService;
+import org.example.commonlibrary.dto.request.TokenRevokedEvent;
+import org.example.commonlibrary.dto.response.ApiResponse;
+import org.example.commonlibrary.dto.response.ErrorCode;
+import org.example.commonlibrary.exception.CustomException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Internal endpoints cho api-gateway.
+ * Base path: /internal/auth
+ */
+@RestController
+@RequestMapping("/internal/auth")
+@RequiredArgsConstructor
+public class InternalAuthController {
+
+    private static final String INTERNAL_SERVICE_HEADER = "X-Internal-Service";
+    private static final String EXPECTED_SERVICE_NAME   = "api-gateway";
+
+    @Value("${auth.internal-secret:api-gateway}")
+    private String internalSecret;
+
+    private final TokenBlackListService tokenBlackListService;
+
+    /** GET /internal/auth/revoked-tokens — Snapshot jti đã thu hồi, còn hạn (gateway bootstrap/resync). */
+    @GetMapping("/revoked-tokens")
+    public ApiResponse<List<TokenRevokedEvent>> getRevokedTokens(HttpServletRequest httpRequest) {
+        validateInternalRequest(httpRequest);
+        return new ApiResponse<>(ErrorCode.SUCCESS.getCode(), "Revoked tokens fetched",
+                tokenBlackListService.getActiveRevocations());
+    }
+
+    private void validateInternalRequest(HttpServletRequest request) {
+        String serviceHeader = request.getHeader(INTERNAL_SERVICE_HEADER);
+        if (!internalSecret.equals(serviceHeader) && !EXPECTED_SERVICE_NAME.equals(serviceHeader)) {
+            throw new CustomException(ErrorCode.FORBIDDEN);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.authservice.exception;
+
+import org.example.commonlibrary.dto.response.ApiResponse;
+import org.example.commonlibrary.dto.response.ErrorCode;
+import org.example.commonlibrary.exception.CustomException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(CustomException.class)
+    public ResponseEntity<ApiResponse<Object>> handleCustomException(CustomException ex) {
+        ErrorCode errorCode = ex.getErrorCode();
+        ApiResponse<Object> response = new ApiResponse<>(
+                errorCode.getCode(),
+                errorCode.getMessage(),
+                null
+        );
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(errorCode.getHttpStatus());
+        // Hashing executor quá tải (queue đầy / chờ quá timeout) → báo client thử lại sau 1s
+        if (errorCode == ErrorCode.TOO_MANY_REQUESTS || errorCode == ErrorCode.SERVICE_OVERLOADED) {
+            builder.header(HttpHeaders.RETRY_AFTER, "1");
+        }
+        return builder.body(response);
+    }
+}
@@ -13,8 +13,7 @@ import java.time.Instant;
 @NoArgsConstructor
 @Entity
 @Table(name = "refresh_tokens", indexes = {
-        // Index đơn trên token — dùng cho lookup khi validate/logout
-        @Index(name = "idx_refresh_token_token", columnList = "token"),
+        // Lookup khi validate/logout dùng unique index của cột token (SHA-256, 64 ký tự)
         // Composite index trên (user_id, expires_at) — dùng cho cleanup job
         // và query "lấy token còn hạn của user"
         @Index(name = "idx_refresh_token_user_expires", columnList = "user_id, expires_at")
@@ -26,7 +25,13 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true, length = 512)
+    // SHA-256 hex của refresh JWT — không lưu token gốc trong DB.
+    // Giữ tên cột "token" để schema cũ (ddl-auto: update) không cần migrate.
+    @Column(name = "token", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    // Token gốc chỉ có trong bộ nhớ ngay sau khi tạo để trả cho client
+    @Transient
     private String token;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,27 @@
+package org.example.authservice.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counter số user theo role — dashboard admin đọc bảng này thay vì COUNT trên users.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "user_role_stats")
+@Builder
+public class UserRoleStats {
+
+    @Id
+    @Column(length = 20)
+    @Enumerated(EnumType.STRING)
+    private Role role;
+
+    @Column(name = "user_count", nullable = false)
+    private long userCount;
+}
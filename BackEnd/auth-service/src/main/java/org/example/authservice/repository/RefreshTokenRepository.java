@@ -2,18 +2,22 @@ package org.example.authservice.repository;
 
 import org.example.authservice.models.RefreshToken;
 import org.example.authservice.models.Users;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
-    // Lookup token khi validate hoặc logout
-    Optional<RefreshToken> findByToken(String token);
+    // Lookup theo SHA-256 của token khi validate hoặc logout.
+    // Fetch luôn user để entity dùng được khi trả từ cache (ngoài session)
+    @EntityGraph(attributePaths = "user")
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
 
     // Xóa tất cả token của user — dùng khi force logout all devices
     @Modifying
@@ -29,8 +33,10 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
             "(SELECT id FROM (SELECT id FROM refresh_tokens WHERE user_id = :userId ORDER BY created_at DESC LIMIT :limit) AS keep_tokens)", nativeQuery = true)
     int deleteOldTokensForUser(@Param("userId") String userId, @Param("limit") int limit);
 
-    // Cleanup job: xóa tất cả token đã hết hạn — chạy định kỳ
+    // Cleanup job: xóa token hết hạn theo từng chunk — mỗi chunk 1 transaction ngắn
+    // để không giữ lock lâu trên bảng trong khi user vẫn đang login
+    @Transactional
     @Modifying
-    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :now")
-    int deleteExpiredTokens(@Param("now") Instant now);
+    @Query(value = "DELETE FROM refresh_tokens WHERE expires_at < :now LIMIT :batchSize", nativeQuery = true)
+    int deleteExpiredTokensBatch(@Param("now") Instant now, @Param("batchSize") int batchSize);
 }
\ No newline at end of file
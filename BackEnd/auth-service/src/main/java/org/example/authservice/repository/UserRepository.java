@@ -2,8 +2,12 @@ package org.example.authservice.repository;
 
 import org.example.authservice.models.Users;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 
 public interface UserRepository extends JpaRepository<Users, String> {
     @Query("SELECT u FROM Users u WHERE u.phone = :phone")
@@ -12,4 +16,12 @@ public interface UserRepository extends JpaRepository<Users, String> {
 
     @Query("SELECT COUNT(u) FROM Users u WHERE u.role = :role")
     long countByRole(@Param("role") org.example.authservice.models.Role role);
+
+    // Rehash password khi login — chỉ ghi đúng cột password, không đụng entity đang nằm trong UserCache
+    @Transactional
+    @Modifying
+    @Query("UPDATE Users u SET u.password = :password, u.updatedAt = :updatedAt WHERE u.id = :id")
+    int updatePassword(@Param("id") String id,
+                       @Param("password") String password,
+                       @Param("updatedAt") LocalDateTime updatedAt);
 }
@@ -0,0 +1,28 @@
+package org.example.authservice.repository;
+
+import org.example.authservice.models.Role;
+import org.example.authservice.models.UserRoleStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface UserRoleStatsRepository extends JpaRepository<UserRoleStats, Role> {
+
+    // REQUIRES_NEW: được gọi từ afterCommit của transaction tạo user
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "INSERT INTO user_role_stats (role, user_count) VALUES (:role, 1) " +
+            "ON DUPLICATE KEY UPDATE user_count = user_count + 1", nativeQuery = true)
+    void increment(@Param("role") String role);
+
+    // Đồng bộ lại counter từ bảng users (khởi động + định kỳ), sửa drift do user tạo ngoài service
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO user_role_stats (role, user_count) " +
+            "SELECT u.role, COUNT(*) FROM users u WHERE u.role IS NOT NULL GROUP BY u.role " +
+            "ON DUPLICATE KEY UPDATE user_count = VALUES(user_count)", nativeQuery = true)
+    int reconcile();
+}
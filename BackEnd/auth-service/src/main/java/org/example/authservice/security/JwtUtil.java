@@ -1,5 +1,6 @@
 package org.example.authservice.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.example.authservice.models.Role;
@@ -52,6 +53,18 @@ public class JwtUtil {
                 .signWith(secretKey, Jwts.SIG.HS256)
                 .compact();
     }
+
+    /**
+     * Parse + verify chữ ký, trả claims (dùng khi thu hồi access token lúc logout).
+     * Ném JwtException nếu token sai chữ ký hoặc đã hết hạn.
+     */
+    public Claims parseClaims(String token) {
+        return Jwts.parser()
+                .verifyWith(secretKey)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
     //
     // public String validateTokenAndRetrieveSubject(String token) throws
     // JwtException {
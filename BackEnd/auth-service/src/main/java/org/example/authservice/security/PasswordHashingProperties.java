@@ -0,0 +1,30 @@
+package org.example.authservice.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Cấu hình BCrypt + executor băm mật khẩu riêng (không chạy trên Tomcat thread).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "auth.password-hashing")
+@Getter
+@Setter
+public class PasswordHashingProperties {
+
+    // BCrypt cost (log2 rounds). Tăng cost → hash cũ tự rehash ở lần login kế tiếp
+    private int bcryptCost = 10;
+
+    // Số thread băm; mặc định = số core để login storm không chiếm hết CPU của /auth/refresh-token
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    // Số job được xếp hàng; vượt ngưỡng → 429 ngay thay vì để request chờ timeout
+    private int queueCapacity = Runtime.getRuntime().availableProcessors() * 8;
+
+    // Thời gian tối đa request chờ kết quả băm
+    private Duration timeout = Duration.ofSeconds(5);
+}
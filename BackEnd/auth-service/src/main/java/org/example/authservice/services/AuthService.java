@@ -1,8 +1,8 @@
 package org.example.authservice.services;
 
+import lombok.extern.slf4j.Slf4j;
 import org.example.authservice.dto.request.LoginRequest;
 import org.example.authservice.dto.response.LoginData;
-import org.example.authservice.dto.request.LogoutRequest;
 import org.example.authservice.dto.request.RegisterHrRequest;
 import org.example.authservice.dto.response.LogoutData;
 import org.example.authservice.dto.response.Userdata;
@@ -13,15 +13,16 @@ import org.example.authservice.repository.UserRepository;
 import org.example.authservice.security.JwtUtil;
 import org.example.commonlibrary.dto.response.ApiResponse;
 import org.example.commonlibrary.dto.response.ErrorCode;
+import org.example.commonlibrary.exception.CustomException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.concurrent.Executor;
 
+@Slf4j
 @Service
 public class AuthService {
 
@@ -32,10 +33,25 @@ public class AuthService {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private RefreshTokenService refreshTokenService;
 
     @Autowired
-    private RefreshTokenService refreshTokenService;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private TokenBlackListService tokenBlackListService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    // Executor mặc định của Spring Boot (@EnableAsync) — cho bước I/O sau khi băm xong,
+    // không chiếm thread của hashing executor
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor ioExecutor;
 
     public ApiResponse<LoginData> login(LoginRequest loginRequest) {
         try {
@@ -49,7 +65,7 @@ public class AuthService {
                         "Password is required", null);
             }
 
-            Users user = userRepository.findByPhone(loginRequest.getPhone());
+            Users user = userCache.findByPhone(loginRequest.getPhone());
             if (user == null) {
                 return new ApiResponse<>(ErrorCode.USER_NOT_FOUND.getCode(),
                         ErrorCode.USER_NOT_FOUND.getMessage(), null);
@@ -60,7 +76,7 @@ public class AuthService {
                         ErrorCode.INVALID_CREDENTIALS.getMessage(), null);
             }
 
-            // Upgrade password hash async — không block login
+            // Upgrade password hash async (plain text / cost cũ) — không block login
             if (needsPasswordUpgrade(user)) {
                 upgradePasswordAsync(user, loginRequest.getPassword());
             }
@@ -91,35 +107,42 @@ public class AuthService {
             return new ApiResponse<>(ErrorCode.SUCCESS.getCode(),
                     "Welcome to CV Review System", loginData);
 
+        } catch (CustomException e) {
+            // Hashing executor quá tải → 429 (queue đầy) / 503 (chờ quá timeout)
+            throw e;
         } catch (Exception e) {
-            System.err.println("Login failed: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Login failed: {}", e.getMessage(), e);
             return new ApiResponse<>(ErrorCode.UNAUTHORIZED.getCode(),
                     "Login failed: " + e.getMessage(), null);
         }
     }
 
-    public ApiResponse<LogoutData> logout(String userId, LogoutRequest logoutRequest) {
+    public ApiResponse<LogoutData> logout(String userId, String accessToken, String refreshToken) {
         try {
             if (userId == null || userId.trim().isEmpty()) {
                 return new ApiResponse<>(ErrorCode.MISSING_REQUIRED_FIELD.getCode(),
                         "User ID is required", null);
             }
 
+            // Thu hồi access token hiện tại — gateway chặn ngay, không đợi hết hạn.
+            // Chạy trước khi xóa refresh token: token của user khác → 403, không đụng gì cả
+            if (accessToken != null && !accessToken.trim().isEmpty()
+                    && !tokenBlackListService.revoke(accessToken, userId)) {
+                return new ApiResponse<>(ErrorCode.FORBIDDEN.getCode(),
+                        "Access token does not belong to this user", null);
+            }
+
             // Xóa đúng refresh token của thiết bị này
-            if (logoutRequest.getRefreshToken() != null
-                    && !logoutRequest.getRefreshToken().trim().isEmpty()) {
+            if (refreshToken != null && !refreshToken.trim().isEmpty()) {
                 try {
-                    refreshTokenService.findValidateAndDelete(
-                            logoutRequest.getRefreshToken(), userId);
+                    refreshTokenService.findValidateAndDelete(refreshToken, userId);
                 } catch (RuntimeException e) {
                     if (e.getMessage().equals(ErrorCode.FORBIDDEN.getMessage())) {
                         return new ApiResponse<>(ErrorCode.FORBIDDEN.getCode(),
                                 "Refresh token does not belong to this user", null);
                     }
                     // Token không tồn tại hoặc đã bị xóa → vẫn coi là logout thành công
-                    System.out.println("Refresh token not found or already deleted: "
-                            + e.getMessage());
+                    log.debug("Refresh token not found or already deleted: {}", e.getMessage());
                 }
             }
 
@@ -127,7 +150,7 @@ public class AuthService {
                     "Logout successful", new LogoutData("Goodbye"));
 
         } catch (Exception e) {
-            System.err.println("Logout error for user " + userId + ": " + e.getMessage());
+            log.warn("Logout error for user {}: {}", userId, e.getMessage());
             return new ApiResponse<>(ErrorCode.UNAUTHORIZED.getCode(),
                     "Logout failed: " + e.getMessage(), null);
         }
@@ -141,12 +164,11 @@ public class AuthService {
                         "User ID is required", null);
             }
 
-            Optional<Users> user = userRepository.findById(userId);
-            if (user.isEmpty()) {
+            Users foundUser = userCache.findById(userId);
+            if (foundUser == null) {
                 return new ApiResponse<>(ErrorCode.USER_NOT_FOUND.getCode(),
                         ErrorCode.USER_NOT_FOUND.getMessage(), null);
             }
-            Users foundUser = user.get();
 
             Userdata.UserInfo userInfo = new Userdata.UserInfo(
                     foundUser.getId(),
@@ -164,8 +186,7 @@ public class AuthService {
                     "User detail fetched successfully", userdata);
 
         } catch (Exception e) {
-            System.err.println("Failed to get user detail: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Failed to get user detail: {}", e.getMessage(), e);
             return new ApiResponse<>(ErrorCode.USER_NOT_FOUND.getCode(),
                     "User not found", null);
         }
@@ -176,21 +197,34 @@ public class AuthService {
     private boolean isPasswordValid(Users user, String rawPassword) {
         String pwd = user.getPassword();
         if (pwd.startsWith("$2a$") || pwd.startsWith("$2b$") || pwd.startsWith("$2y$")) {
-            return passwordEncoder.matches(rawPassword, pwd);
+            return passwordHashingService.matches(rawPassword, pwd);
         }
         return pwd.equals(rawPassword);
     }
 
     private boolean needsPasswordUpgrade(Users user) {
         String pwd = user.getPassword();
-        return !pwd.startsWith("$2a$") && !pwd.startsWith("$2b$") && !pwd.startsWith("$2y$");
+        boolean isBcrypt = pwd.startsWith("$2a$") || pwd.startsWith("$2b$") || pwd.startsWith("$2y$");
+        return !isBcrypt || passwordHashingService.needsRehash(pwd);
     }
 
-    @Async
-    @Transactional
+    /**
+     * Rehash trên hashing executor, không chặn request login; UPDATE + evict chạy trên ioExecutor.
+     * Executor đầy → bỏ qua, lần login sau sẽ thử lại.
+     * Không sửa Users đang được UserCache chia sẻ giữa các request: UPDATE thẳng cột password
+     * rồi evict, lần đọc sau nạp lại bản mới từ DB.
+     */
     public void upgradePasswordAsync(Users user, String rawPassword) {
-        user.setPassword(passwordEncoder.encode(rawPassword));
-        userRepository.save(user);
+        String userId = user.getId();
+        passwordHashingService.encodeAsync(rawPassword)
+                .thenAcceptAsync(encoded -> {
+                    userRepository.updatePassword(userId, encoded, LocalDateTime.now());
+                    userCache.evict(userId);
+                }, ioExecutor)
+                .exceptionally(e -> {
+                    log.debug("Skip password upgrade for user {}: {}", user.getId(), e.getMessage());
+                    return null;
+                });
     }
 
     @Transactional
@@ -206,7 +240,7 @@ public class AuthService {
                 return new ApiResponse<>(ErrorCode.MISSING_REQUIRED_FIELD.getCode(), "Name is required", null);
             }
 
-            // Check duplicate phone
+            // Check duplicate phone — đọc thẳng DB, không qua cache
             if (userRepository.findByPhone(request.getPhone()) != null) {
                 return new ApiResponse<>(ErrorCode.DUPLICATE_PHONE.getCode(), ErrorCode.DUPLICATE_PHONE.getMessage(),
                         null);
@@ -216,13 +250,15 @@ public class AuthService {
                     .name(request.getName())
                     .email(request.getEmail() != null ? request.getEmail() : "")
                     .phone(request.getPhone())
-                    .password(passwordEncoder.encode(request.getPassword()))
+                    .password(passwordHashingService.encode(request.getPassword()))
                     .role(Role.HR)
                     .createdAt(LocalDateTime.now())
                     .updatedAt(LocalDateTime.now())
                     .build();
 
             Users savedUser = userRepository.save(hrUser);
+            userCache.evictPhone(savedUser.getPhone());
+            userStatsService.recordUserCreated(savedUser.getRole());
 
             Userdata.UserInfo userInfo = new Userdata.UserInfo(
                     savedUser.getId(),
@@ -237,9 +273,10 @@ public class AuthService {
 
             return new ApiResponse<>(ErrorCode.SUCCESS.getCode(), "HR account created successfully", userdata);
 
+        } catch (CustomException e) {
+            throw e;
         } catch (Exception e) {
-            System.err.println("Register HR failed: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Register HR failed: {}", e.getMessage(), e);
             return new ApiResponse<>(ErrorCode.INTERNAL_SERVER_ERROR.getCode(), "Register HR failed: " + e.getMessage(),
                     null);
         }
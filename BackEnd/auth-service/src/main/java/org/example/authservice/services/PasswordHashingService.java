@@ -0,0 +1,127 @@
+package org.example.authservice.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.authservice.security.PasswordHashingProperties;
+import org.example.commonlibrary.dto.response.ErrorCode;
+import org.example.commonlibrary.exception.CustomException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Chạy BCrypt (~100ms CPU ở cost 10) trên executor riêng có giới hạn.
+ *
+ * - Số thread cố định → login storm tối đa chiếm N core, các endpoint rẻ (refresh-token,
+ *   user-detail) vẫn còn CPU.
+ * - Queue có giới hạn: đầy → CustomException(TOO_MANY_REQUESTS) ngay (controller trả 429),
+ *   không để request xếp hàng tới timeout.
+ * - Đã vào queue nhưng chờ quá timeout → SERVICE_OVERLOADED (503), đếm riêng ở
+ *   auth.password_hashing.timeouts — không lẫn với rejected (queue đầy).
+ * - Executor chỉ dành cho CPU: continuation có I/O (DB, cache) phải chạy trên executor khác.
+ */
+@Slf4j
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejectedCounter;
+    private final Counter timeoutCounter;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder, PasswordHashingProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.properties = properties;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                properties.getThreads(), properties.getThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.password_hashing.queue_depth", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("auth.password_hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        this.rejectedCounter = meterRegistry.counter("auth.password_hashing.rejected");
+        this.timeoutCounter = meterRegistry.counter("auth.password_hashing.timeouts");
+
+        log.info("[PasswordHashing] bcryptCost={}, threads={}, queueCapacity={}",
+                properties.getBcryptCost(), properties.getThreads(), properties.getQueueCapacity());
+    }
+
+    /** So khớp mật khẩu trên hashing executor; chặn caller tới khi có kết quả. */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return await(submit(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /** Băm mật khẩu mới trên hashing executor; chặn caller tới khi có kết quả. */
+    public String encode(String rawPassword) {
+        return await(submit(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * Băm không chặn caller (dùng cho rehash sau login).
+     * Executor đầy → future lỗi, caller tự bỏ qua và thử lại ở lần login sau.
+     */
+    public CompletableFuture<String> encodeAsync(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /** Hash lưu trong DB có cost thấp hơn cost đang cấu hình → cần rehash. */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            return CompletableFuture.failedFuture(new CustomException(ErrorCode.TOO_MANY_REQUESTS));
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CustomException customException) {
+                throw customException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            timeoutCounter.increment();
+            throw new CustomException(ErrorCode.SERVICE_OVERLOADED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CustomException(ErrorCode.SERVICE_OVERLOADED);
+        }
+    }
+}
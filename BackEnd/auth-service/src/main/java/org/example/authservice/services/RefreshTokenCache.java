@@ -0,0 +1,65 @@
+package org.example.authservice.services;
+
+import org.example.authservice.models.RefreshToken;
+import org.example.commonlibrary.utils.LruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Cache ngắn hạn cho refresh token đã tra DB (key = SHA-256 của token).
+ *
+ * Entry sống tối đa ttl-seconds và không bao giờ quá expiresAt của token.
+ * Mọi thao tác xoá token trong RefreshTokenService đều evict cache ở instance hiện tại;
+ * instance khác có thể còn thấy token đã logout tối đa ttl-seconds.
+ * Đầy max-entries → bỏ token ít dùng nhất (LRU, O(1)).
+ */
+@Component
+public class RefreshTokenCache {
+
+    private final LruCache<String, Entry> entries;
+
+    @Value("${jwt.refresh-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    public RefreshTokenCache(@Value("${jwt.refresh-cache.max-entries:10000}") int maxEntries) {
+        this.entries = new LruCache<>(maxEntries);
+    }
+
+    public RefreshToken get(String tokenHash) {
+        Entry entry = entries.get(tokenHash);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.cachedUntil().isBefore(Instant.now())) {
+            entries.remove(tokenHash, entry);
+            return null;
+        }
+        return entry.token();
+    }
+
+    public void put(RefreshToken token) {
+        Instant ttlLimit = Instant.now().plusSeconds(ttlSeconds);
+        Instant cachedUntil = token.getExpiresAt().isBefore(ttlLimit) ? token.getExpiresAt() : ttlLimit;
+        entries.put(token.getTokenHash(), new Entry(token, cachedUntil));
+    }
+
+    public void evict(String tokenHash) {
+        entries.remove(tokenHash);
+    }
+
+    public void evictUser(String userId) {
+        entries.removeIf((tokenHash, entry) -> userId.equals(entry.token().getUser().getId()));
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void evictExpired() {
+        Instant now = Instant.now();
+        entries.removeIf((tokenHash, entry) -> entry.cachedUntil().isBefore(now));
+    }
+
+    private record Entry(RefreshToken token, Instant cachedUntil) {
+    }
+}
@@ -1,10 +1,12 @@
 package org.example.authservice.services;
 
+import lombok.extern.slf4j.Slf4j;
 import org.example.authservice.models.RefreshToken;
 import org.example.authservice.models.Users;
 import org.example.authservice.repository.RefreshTokenRepository;
 import org.example.authservice.security.JwtUtil;
 import org.example.commonlibrary.dto.response.ErrorCode;
+import org.example.commonlibrary.utils.ContentHashUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -12,13 +14,18 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Optional;
 
+@Slf4j
 @Service
 public class RefreshTokenService {
 
     // Giới hạn số token active tối đa per user (5 thiết bị đồng thời)
     private static final int MAX_ACTIVE_TOKENS_PER_USER = 5;
 
+    // Số row mỗi lần DELETE của cleanup job
+    private static final int CLEANUP_BATCH_SIZE = 1000;
+
     @Value("${jwt.refresh-expiration}")
     private long refreshDuration;
 
@@ -28,6 +35,9 @@ public class RefreshTokenService {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private RefreshTokenCache refreshTokenCache;
+
     /**
      * Tạo refresh token mới cho user.
      * Sử dụng Insert-First rồi Delete-Oldest bằng 1 native query duy nhất
@@ -38,10 +48,12 @@ public class RefreshTokenService {
         Instant now = Instant.now();
 
         // 1. Chỉ INSERT — không đọc (Read) trước để tránh Read-Modify-Write race condition
+        // DB chỉ lưu SHA-256 của token, token gốc trả về qua field @Transient
+        String rawToken = jwtUtil.generateRefreshToken(user.getId(), user.getPhone(), user.getRole());
         RefreshToken refreshToken = RefreshToken.builder()
                 .user(user)
-                .token(jwtUtil.generateRefreshToken(
-                        user.getId(), user.getPhone(), user.getRole()))
+                .tokenHash(ContentHashUtil.sha256Hex(rawToken))
+                .token(rawToken)
                 .expiresAt(now.plusMillis(refreshDuration))
                 .build();
 
@@ -51,11 +63,12 @@ public class RefreshTokenService {
         try {
             int deleted = refreshTokenRepository.deleteOldTokensForUser(user.getId(), MAX_ACTIVE_TOKENS_PER_USER);
             if (deleted > 0) {
-                System.out.println("[RefreshTokenService] Cleaned up " + deleted + " excess tokens for user " + user.getId());
+                refreshTokenCache.evictUser(user.getId());
+                log.debug("[RefreshTokenService] Cleaned up {} excess tokens for user {}", deleted, user.getId());
             }
         } catch (Exception e) {
             // Không làm gián đoạn tiến trình login nếu cleanup thất bại tạm thời (ví dụ trùng lock)
-            System.err.println("[RefreshTokenService] Failed to cleanup excess tokens: " + e.getMessage());
+            log.warn("[RefreshTokenService] Failed to cleanup excess tokens: {}", e.getMessage());
         }
 
         return savedToken;
@@ -68,18 +81,27 @@ public class RefreshTokenService {
     @Transactional
     public void verifyExpiration(RefreshToken token) {
         if (token.getExpiresAt().isBefore(Instant.now())) {
-            refreshTokenRepository.delete(token);
+            refreshTokenCache.evict(token.getTokenHash());
+            refreshTokenRepository.deleteById(token.getId());
             throw new RuntimeException(ErrorCode.REFRESH_TOKEN_EXPIRED.getMessage());
         }
     }
 
     /**
-     * Tìm token theo string value.
+     * Tìm token theo string value (tra theo SHA-256, ưu tiên cache).
      */
     public RefreshToken findByToken(String token) {
-        return refreshTokenRepository.findByToken(token)
+        String tokenHash = ContentHashUtil.sha256Hex(token);
+        RefreshToken cached = refreshTokenCache.get(tokenHash);
+        if (cached != null) {
+            return cached;
+        }
+
+        RefreshToken refreshToken = lookup(token, tokenHash)
                 .orElseThrow(() -> new RuntimeException(
                         ErrorCode.REFRESH_TOKEN_NOT_FOUND.getMessage()));
+        refreshTokenCache.put(refreshToken);
+        return refreshToken;
     }
 
     /**
@@ -87,7 +109,8 @@ public class RefreshTokenService {
      */
     @Transactional
     public void findValidateAndDelete(String token, String userId) {
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(token)
+        String tokenHash = ContentHashUtil.sha256Hex(token);
+        RefreshToken refreshToken = lookup(token, tokenHash)
                 .orElseThrow(() -> new RuntimeException(
                         ErrorCode.REFRESH_TOKEN_NOT_FOUND.getMessage()));
 
@@ -95,6 +118,7 @@ public class RefreshTokenService {
             throw new RuntimeException(ErrorCode.FORBIDDEN.getMessage());
         }
 
+        refreshTokenCache.evict(refreshToken.getTokenHash());
         refreshTokenRepository.delete(refreshToken);
     }
 
@@ -103,17 +127,33 @@ public class RefreshTokenService {
      */
     @Transactional
     public void deleteAllByUser(Users user) {
+        refreshTokenCache.evictUser(user.getId());
         refreshTokenRepository.deleteByUser(user);
     }
 
     /**
      * Cleanup job: xóa token hết hạn mỗi ngày lúc 3 giờ sáng.
      * Tránh bảng refresh_tokens phình to theo thời gian.
+     * Xoá theo chunk CLEANUP_BATCH_SIZE row, mỗi chunk commit riêng → không lock bảng lâu.
      */
     @Scheduled(cron = "0 0 3 * * *", zone = "Asia/Ho_Chi_Minh")
-    @Transactional
     public void cleanupExpiredTokens() {
-        int deleted = refreshTokenRepository.deleteExpiredTokens(Instant.now());
-        System.out.println("[RefreshTokenCleanup] Deleted " + deleted + " expired tokens");
+        Instant now = Instant.now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = refreshTokenRepository.deleteExpiredTokensBatch(now, CLEANUP_BATCH_SIZE);
+            total += deleted;
+        } while (deleted == CLEANUP_BATCH_SIZE);
+        log.info("[RefreshTokenCleanup] Deleted {} expired tokens", total);
+    }
+
+    /**
+     * Tra theo hash; fallback tra theo token gốc cho các row tạo trước khi chuyển sang lưu hash
+     * (các row này tự hết hạn sau refresh-expiration).
+     */
+    private Optional<RefreshToken> lookup(String rawToken, String tokenHash) {
+        Optional<RefreshToken> byHash = refreshTokenRepository.findByTokenHash(tokenHash);
+        return byHash.isPresent() ? byHash : refreshTokenRepository.findByTokenHash(rawToken);
     }
 }
\ No newline at end of file
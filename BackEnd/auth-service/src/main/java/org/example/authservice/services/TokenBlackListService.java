@@ -1,19 +1,105 @@
-// package org.example.authservice.services;
+package org.example.authservice.services;
 
-// import org.springframework.stereotype.Service;
-// import java.util.Set;
-// import java.util.concurrent.ConcurrentHashMap;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.example.authservice.models.RevokedToken;
+import org.example.authservice.repository.RevokedTokenRepository;
+import org.example.authservice.security.JwtUtil;
+import org.example.commonlibrary.dto.request.TokenRevokedEvent;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
 
-// @Service
-// public class TokenBlackListService {
+import java.time.Instant;
+import java.util.List;
 
-// private final Set<String> blacklistedTokens = ConcurrentHashMap.newKeySet();
+/**
+ * Thu hồi access token trước khi hết hạn (logout).
+ * Bảng revoked_tokens là nguồn sự thật; mỗi lần thu hồi được broadcast qua fanout exchange
+ * để gateway cập nhật revocation list local — gateway không gọi auth-service theo từng request.
+ */
+@Slf4j
+@Service
+public class TokenBlackListService {
 
-// public void addBlacklistToken(String token) {
-// blacklistedTokens.add(token);
-// }
+    private static final int CLEANUP_BATCH_SIZE = 1000;
 
-// public boolean isBlacklisted(String token) {
-// return blacklistedTokens.contains(token);
-// }
-// }
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    /**
+     * Thu hồi access token của userId. Token sai chữ ký / đã hết hạn thì bỏ qua (gateway đã tự chặn).
+     *
+     * @return false nếu claim Id của token khác userId (không thu hồi token của người khác)
+     */
+    public boolean revoke(String accessToken, String userId) {
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(accessToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Skip revoking invalid/expired access token: {}", e.getMessage());
+            return true;
+        }
+
+        if (!userId.equals(claims.get("Id", String.class))) {
+            log.warn("User {} tried to revoke an access token issued to another user", userId);
+            return false;
+        }
+
+        String jti = claims.get("jti", String.class);
+        if (jti == null || claims.getExpiration() == null) {
+            return true;
+        }
+        Instant expiresAt = claims.getExpiration().toInstant();
+
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(jti)
+                .expiresAt(expiresAt)
+                .revokedAt(Instant.now())
+                .build());
+
+        try {
+            rabbitTemplate.convertAndSend(TokenRevokedEvent.EXCHANGE, "",
+                    new TokenRevokedEvent(jti, expiresAt));
+        } catch (AmqpException e) {
+            // Row đã lưu → gateway vẫn nhận được ở lần resync snapshot kế tiếp
+            log.warn("Failed to broadcast revocation for jti {}: {}", jti, e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Snapshot các jti còn hiệu lực — gateway gọi khi khởi động và resync định kỳ.
+     */
+    public List<TokenRevokedEvent> getActiveRevocations() {
+        return revokedTokenRepository.findByExpiresAtAfter(Instant.now()).stream()
+                .map(t -> new TokenRevokedEvent(t.getJti(), t.getExpiresAt()))
+                .toList();
+    }
+
+    /**
+     * Token đã hết hạn thì không cần giữ trong danh sách thu hồi.
+     */
+    @Scheduled(fixedDelay = 600000)
+    public void cleanupExpired() {
+        Instant now = Instant.now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = revokedTokenRepository.deleteExpiredBatch(now, CLEANUP_BATCH_SIZE);
+            total += deleted;
+        } while (deleted == CLEANUP_BATCH_SIZE);
+        if (total > 0) {
+            log.info("[RevokedTokenCleanup] Deleted {} expired entries", total);
+        }
+    }
+}
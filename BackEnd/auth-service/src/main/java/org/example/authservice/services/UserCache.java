@@ -0,0 +1,146 @@
+package org.example.authservice.services;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.authservice.models.Users;
+import org.example.authservice.repository.UserRepository;
+import org.example.commonlibrary.utils.LruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache cho user lookup theo id và phone (login, user detail).
+ *
+ * Entry sống tối đa ttl-seconds; mọi thao tác ghi user trong auth-service (registerHr,
+ * upgrade password) đều evict/put lại ở instance hiện tại. Instance khác thấy dữ liệu cũ
+ * tối đa ttl-seconds. Không cache kết quả "không tồn tại" → check trùng phone luôn đúng.
+ * Đầy max-entries → bỏ user ít dùng nhất (LRU, O(1)) cùng phone index của nó.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+
+    private final LruCache<String, Entry> byId;
+    // phone → id, entry chính nằm ở byId
+    private final Map<String, String> phoneIndex = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Value("${auth.user-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    public UserCache(UserRepository userRepository, MeterRegistry meterRegistry,
+                     @Value("${auth.user-cache.max-entries:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.byId = new LruCache<>(maxEntries,
+                (id, evicted) -> phoneIndex.remove(evicted.user().getPhone(), id));
+
+        FunctionCounter.builder("auth.user_cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.user_cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("auth.user_cache.hit_ratio", this, UserCache::getHitRatio)
+                .register(meterRegistry);
+        Gauge.builder("auth.user_cache.size", byId, LruCache::size)
+                .register(meterRegistry);
+    }
+
+    public Users findById(String id) {
+        Users cached = getFresh(id);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        Users user = userRepository.findById(id).orElse(null);
+        if (user != null) {
+            put(user);
+        }
+        return user;
+    }
+
+    public Users findByPhone(String phone) {
+        String id = phoneIndex.get(phone);
+        Users cached = id != null ? getFresh(id) : null;
+        // Phone của user có thể đã đổi → chỉ dùng entry khi vẫn khớp
+        if (cached != null && phone.equals(cached.getPhone())) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        Users user = userRepository.findByPhone(phone);
+        if (user != null) {
+            put(user);
+        }
+        return user;
+    }
+
+    public void put(Users user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        Entry previous = byId.put(user.getId(), new Entry(user, Instant.now().plusSeconds(ttlSeconds)));
+        if (previous != null && !previous.user().getPhone().equals(user.getPhone())) {
+            phoneIndex.remove(previous.user().getPhone(), user.getId());
+        }
+        phoneIndex.put(user.getPhone(), user.getId());
+    }
+
+    public void evict(String userId) {
+        Entry removed = byId.remove(userId);
+        if (removed != null) {
+            phoneIndex.remove(removed.user().getPhone(), userId);
+        }
+    }
+
+    public void evictPhone(String phone) {
+        String id = phoneIndex.remove(phone);
+        if (id != null) {
+            byId.remove(id);
+        }
+    }
+
+    public double getHitRatio() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void evictExpired() {
+        Instant now = Instant.now();
+        byId.removeIf((id, entry) -> {
+            if (entry.cachedUntil().isBefore(now)) {
+                phoneIndex.remove(entry.user().getPhone(), id);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private Users getFresh(String id) {
+        Entry entry = byId.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.cachedUntil().isBefore(Instant.now())) {
+            evict(id);
+            return null;
+        }
+        return entry.user();
+    }
+
+    private record Entry(Users user, Instant cachedUntil) {
+    }
+}
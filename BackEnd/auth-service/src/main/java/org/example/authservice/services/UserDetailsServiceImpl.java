@@ -1,5 +1,6 @@
 package org.example.authservice.services;
 
+import lombok.extern.slf4j.Slf4j;
 import org.example.authservice.models.Users;
 import org.example.authservice.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +12,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 
+@Slf4j
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
@@ -22,7 +24,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         if (user == null) {
             throw new UsernameNotFoundException("User not found with username: " + phone);
         }
-        System.out.println("Loading user from DB...");
+        log.debug("Loading user from DB...");
         return new User(user.getPhone(), user.getPassword(), new ArrayList<>());
     }
 }
@@ -0,0 +1,72 @@
+package org.example.authservice.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.authservice.dto.response.UserStatsResponse;
+import org.example.authservice.models.Role;
+import org.example.authservice.models.UserRoleStats;
+import org.example.authservice.repository.UserRoleStatsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Thống kê user cho admin dashboard từ bảng counter user_role_stats (đọc tối đa 3 row).
+ * Counter tăng khi tạo user; reconcile từ bảng users lúc khởi động và mỗi giờ.
+ */
+@Slf4j
+@Service
+public class UserStatsService {
+
+    @Autowired
+    private UserRoleStatsRepository userRoleStatsRepository;
+
+    /**
+     * Gọi sau khi tạo user. Trong transaction → chỉ tăng khi commit thành công.
+     */
+    public void recordUserCreated(Role role) {
+        if (role == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userRoleStatsRepository.increment(role.name());
+                }
+            });
+        } else {
+            userRoleStatsRepository.increment(role.name());
+        }
+    }
+
+    public UserStatsResponse getStats() {
+        Map<Role, Long> counts = new EnumMap<>(Role.class);
+        for (UserRoleStats stats : userRoleStatsRepository.findAll()) {
+            counts.put(stats.getRole(), stats.getUserCount());
+        }
+
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        return UserStatsResponse.builder()
+                .totalUsers(total)
+                .totalHr(counts.getOrDefault(Role.HR, 0L))
+                .totalCandidate(counts.getOrDefault(Role.CANDIDATE, 0L))
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 15 * * * *", zone = "Asia/Ho_Chi_Minh")
+    public void reconcile() {
+        try {
+            userRoleStatsRepository.reconcile();
+        } catch (Exception e) {
+            log.warn("[UserStats] Reconcile failed: {}", e.getMessage());
+        }
+    }
+}
@@ -12,7 +12,6 @@ Phase 4 changes:
 
 import json
 import re
-import asyncio
 from typing import TypedDict, Literal, Optional, List, Dict, Any
 from langgraph.graph import StateGraph, END
 from langchain_google_genai import ChatGoogleGenerativeAI
@@ -103,46 +102,44 @@ def _extract_llm_text(content: Any) -> str:
 
 
 # ---------------------------------------------------------------------------
-# Node 0 — Load session history + active positions (concurrent)
+# Node 0 — Load session history + active positions (single context call)
 # ---------------------------------------------------------------------------
 
 async def load_session_history_node(state: ChatState) -> ChatState:
-    """Fetch conversation history and active positions concurrently.
+    """Fetch conversation history and active positions in one call to the context endpoint.
     Builds `position_ref_map` for downstream O(1) ID-to-name lookups.
     Also restores scoring cache and detects apply intent (Tầng 1) early.
     """
+    try:
+        context = await recruitment_api.get_chat_context(
+            facets=["HISTORY", "ACTIVE_POSITIONS"],
+            session_id=state["session_id"],
+            history_limit=settings.MAX_HISTORY_TURNS,
+        )
+    except Exception as e:
+        print(f"[API Error] Could not load chat context: {e}")
+        context = {}
+
+    for facet, error in (context.get("errors") or {}).items():
+        print(f"[API Error] Could not load {facet}: {error}")
+
+    history = context.get("history") or []
+    positions = context.get("activePositions") or []
+
+    # Restore multi-dimensional scored_jobs from the most recent ASSISTANT turn
+    for turn in reversed(history):
+        if turn.get("role") == "ASSISTANT":
+            func_data_str = turn.get("functionCall")
+            if func_data_str:
+                try:
+                    func_data = json.loads(func_data_str)
+                    if isinstance(func_data, dict) and "scored_jobs" in func_data:
+                        state["scored_jobs"] = func_data["scored_jobs"]
+                        print(f"[Cache Hit] Restored {len(state['scored_jobs'])} scored jobs from history.")
+                        break
+                except json.JSONDecodeError:
+                    continue
 
-    async def _get_history():
-        try:
-            history = await recruitment_api.get_history(state["session_id"], limit=settings.MAX_HISTORY_TURNS)
-
-            # Restore multi-dimensional scored_jobs from the most recent ASSISTANT turn
-            for turn in reversed(history):
-                if turn.get("role") == "ASSISTANT":
-                    func_data_str = turn.get("functionCall")
-                    if func_data_str:
-                        try:
-                            func_data = json.loads(func_data_str)
-                            if isinstance(func_data, dict) and "scored_jobs" in func_data:
-                                state["scored_jobs"] = func_data["scored_jobs"]
-                                print(f"[Cache Hit] Restored {len(state['scored_jobs'])} scored jobs from history.")
-                                break
-                        except json.JSONDecodeError:
-                            continue
-
-            return history
-        except Exception as e:
-            print(f"[API Error] Could not load history: {e}")
-            return []
-
-    async def _get_active_positions():
-        try:
-            return await recruitment_api.get_active_positions()
-        except Exception as e:
-            print(f"[API Error] Could not load active positions: {e}")
-            return []
-
-    history, positions = await asyncio.gather(_get_history(), _get_active_positions())
     state["conversation_history"] = history
     state["active_position_ids"] = [p["id"] for p in positions]
 
@@ -221,9 +218,17 @@ async def retrieve_context_node(state: ChatState) -> ChatState:
                 position_ids.append(pid)
 
         if not has_scoring_cache and position_ids:
-            print(f"[Retriever] Mode A (no cache): fetching full JD for {len(position_ids)} positions")
+            # Expand hits to their whole JD sections (not the whole JD): sections that no hit
+            # landed in are not sent. Java falls back to the full JD when none of them match.
+            sections = sorted({
+                hit["payload"]["sectionName"]
+                for hit in chunk_hits
+                if hit.get("payload", {}).get("sectionName")
+            })
+            print(f"[Retriever] Mode A (no cache): fetching JD sections {sections or 'ALL'} "
+                  f"for {len(position_ids)} positions")
             try:
-                full_jd_list = await recruitment_api.get_position_details(position_ids)
+                full_jd_list = await recruitment_api.get_position_details(position_ids, sections or None)
                 jd_context = [
                     {
                         "score": 1.0,
@@ -1,10 +1,14 @@
 import json
 import httpx
+from collections import OrderedDict
 from typing import Dict, Any, List, Optional, Union
 from app.config import get_settings
 
 settings = get_settings()
 
+# Max cached /positions/details responses kept for If-None-Match revalidation
+POSITION_DETAILS_CACHE_SIZE = 256
+
 class RecruitmentAPI:
     def __init__(self):
         self.base_url = settings.RECRUITMENT_SERVICE_URL
@@ -12,6 +16,8 @@ class RecruitmentAPI:
             "X-Internal-Service": settings.INTERNAL_SERVICE_SECRET,
             "Content-Type": "application/json"
         }
+        # (ids, sections) -> (ETag, data); LRU order, revalidated with a conditional GET
+        self._details_cache: "OrderedDict[tuple, tuple[str, List[Dict[str, Any]]]]" = OrderedDict()
         
     async def create_session(self, user_id: str, chatbot_type: str, position_id: Optional[int] = None, mode: Optional[str] = None) -> Dict[str, Any]:
         async with httpx.AsyncClient() as client:
@@ -32,6 +38,38 @@ class RecruitmentAPI:
             res = response.json()
             return res.get("data") or []
             
+    async def get_chat_context(
+        self,
+        facets: List[str],
+        session_id: Optional[str] = None,
+        history_limit: int = 20,
+        position_ids: Optional[List[int]] = None,
+        candidate_id: Optional[str] = None,
+        position_id: Optional[int] = None,
+        mode: Optional[str] = None,
+    ) -> Dict[str, Any]:
+        """
+        Load several context facets in one round trip (POST /internal/chatbot/context).
+        `facets`: HISTORY, ACTIVE_POSITIONS, POSITION_DETAILS, APPLICATION_STATUS, CV_STATISTICS.
+        Facets that failed on the Java side are omitted from the result and listed under `errors`.
+        """
+        payload: Dict[str, Any] = {"facets": facets, "historyLimit": history_limit}
+        if session_id:
+            payload["sessionId"] = session_id
+        if position_ids:
+            payload["positionIds"] = list(set(position_ids))
+        if candidate_id:
+            payload["candidateId"] = candidate_id
+        if position_id is not None:
+            payload["positionId"] = position_id
+        if mode:
+            payload["mode"] = mode
+        async with httpx.AsyncClient(timeout=15.0) as client:
+            response = await client.post(f"{self.base_url}/internal/chatbot/context", json=payload, headers=self.headers)
+            response.raise_for_status()
+            res = response.json()
+            return res.get("data") or {}
+
     async def save_message(self, session_id: str, role: str, content: str, function_call: Optional[Union[Dict[str, Any], List[Any], str]] = None) -> Dict[str, Any]:
         async with httpx.AsyncClient() as client:
             payload: Dict[str, Any] = {"sessionId": session_id, "role": role, "content": content}
@@ -53,22 +91,48 @@ class RecruitmentAPI:
             res = response.json()
             return res.get("data") or []
 
-    async def get_position_details(self, position_ids: List[int]) -> List[Dict[str, Any]]:
+    async def get_position_details(
+        self, position_ids: List[int], sections: Optional[List[str]] = None
+    ) -> List[Dict[str, Any]]:
         """
         Fetch full JD text for a list of position IDs (Small-to-Big retrieval).
         Qdrant returns chunk hits → extract unique positionIds → call this → feed full JD to scoring LLM.
+        `sections` (e.g. ["REQUIREMENTS"]) limits jdText to those JD sections; omitted → full JD.
+        Uses GET + If-None-Match: an unchanged JD set comes back as 304 and is served from memory.
         """
         if not position_ids:
             return []
+        ids = tuple(sorted(set(position_ids)))  # de-dup + stable key / ETag across calls
+        wanted = tuple(sorted(set(sections))) if sections else ()
+        key = (ids, wanted)
+
+        params: Dict[str, str] = {"ids": ",".join(str(i) for i in ids)}
+        if wanted:
+            params["sections"] = ",".join(wanted)
+        headers = dict(self.headers)
+        cached = self._details_cache.get(key)
+        if cached:
+            headers["If-None-Match"] = cached[0]
+
         async with httpx.AsyncClient(timeout=15.0) as client:
-            response = await client.post(
+            response = await client.get(
                 f"{self.base_url}/internal/chatbot/positions/details",
-                json=list(set(position_ids)),  # de-dup on client side as well
-                headers=self.headers,
+                params=params,
+                headers=headers,
             )
+            if response.status_code == 304 and cached:
+                self._details_cache.move_to_end(key)
+                return cached[1]
             response.raise_for_status()
-            res = response.json()
-            return res.get("data") or []
+            data = response.json().get("data") or []
+
+        etag = response.headers.get("ETag")
+        if etag:
+            self._details_cache[key] = (etag, data)
+            self._details_cache.move_to_end(key)
+            while len(self._details_cache) > POSITION_DETAILS_CACHE_SIZE:
+                self._details_cache.popitem(last=False)
+        return data
             
     async def get_applications(self, position_id: int) -> List[Dict[str, Any]]:
         """
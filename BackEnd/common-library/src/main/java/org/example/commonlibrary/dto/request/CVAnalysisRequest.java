@@ -15,6 +15,12 @@ public class CVAnalysisRequest {
     private Integer cvId;
     private Integer positionId;
     private String cvText;
+    /**
+     * Inline JD text — optional fallback. Khi gửi theo reference (positionId + jdHash)
+     * thì để null để message nhỏ gọn; ai-service resolve từ JD cache.
+     */
     private String jdText;
+    /** SHA-256 hex của JD text (xem ContentHashUtil) — key cho JD cache bên ai-service. */
+    private String jdHash;
     private String batchId;
 }
@@ -0,0 +1,25 @@
+package org.example.commonlibrary.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * auth-service broadcast khi 1 access token bị thu hồi (logout).
+ * Gateway nhận qua fanout exchange và cập nhật revocation list local.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TokenRevokedEvent {
+
+    public static final String EXCHANGE = "auth.token-revocation.exchange";
+
+    private String jti;
+    // Hết hạn của access token — sau thời điểm này không cần giữ trong revocation list
+    private Instant expiresAt;
+}
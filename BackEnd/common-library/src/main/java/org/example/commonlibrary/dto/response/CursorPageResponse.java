@@ -0,0 +1,20 @@
+package org.example.commonlibrary.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Trang kết quả keyset pagination. Client gửi lại nextCursor để lấy trang kế tiếp;
+ * nextCursor = null khi đã hết dữ liệu.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -27,6 +27,7 @@ public enum ErrorCode {
     TOKEN_EXPIRED(1015, "Token has expired. Please refresh your token or login again", HttpStatus.UNAUTHORIZED),
     TOKEN_MISSING(1016, "Authorization token is required", HttpStatus.UNAUTHORIZED),
     DUPLICATE_PHONE(1017, "Phone number already exists", HttpStatus.CONFLICT),
+    TOKEN_REVOKED(1018, "Token has been revoked. Please login again", HttpStatus.UNAUTHORIZED),
 
     // CV errors
     CV_NOT_FOUND(2001, "CV not found", HttpStatus.NOT_FOUND),
@@ -68,7 +69,14 @@ public enum ErrorCode {
     MASTER_CV_NOT_FOUND(8002, "Candidate has no master CV. Please upload a CV first.", HttpStatus.NOT_FOUND),
     APPLICATION_ALREADY_EXISTS(8003, "Candidate has already applied for this position", HttpStatus.CONFLICT),
     SCORE_BELOW_THRESHOLD(8004, "Score is below the required threshold to apply", HttpStatus.BAD_REQUEST),
-    EMAIL_SEND_FAILED(8005, "Failed to send email notification", HttpStatus.INTERNAL_SERVER_ERROR);
+    EMAIL_SEND_FAILED(8005, "Failed to send email notification", HttpStatus.INTERNAL_SERVER_ERROR),
+    INVALID_CURSOR(8006, "Invalid pagination cursor", HttpStatus.BAD_REQUEST),
+    INVALID_CHAT_MESSAGE(8007, "Chat message content is too large or functionCall is not valid JSON", HttpStatus.BAD_REQUEST),
+
+    // Gateway / throttling
+    TOO_MANY_REQUESTS(9001, "Too many requests, please try again later", HttpStatus.TOO_MANY_REQUESTS),
+    SERVICE_OVERLOADED(9002, "Service is overloaded, please try again later", HttpStatus.SERVICE_UNAVAILABLE),
+    PAYLOAD_TOO_LARGE(9003, "Request body exceeds the allowed upload size", HttpStatus.PAYLOAD_TOO_LARGE);
 
     private final int code;
     private final String message;
@@ -0,0 +1,18 @@
+package org.example.commonlibrary.logging;
+
+/**
+ * Tên header/MDC key dùng chung để nối log của cùng 1 request qua gateway → service.
+ */
+public final class LogContext {
+
+    // Gateway sinh (hoặc nhận từ client) và forward xuống service
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+    // Gateway set từ JWT đã verify
+    public static final String USER_ID_HEADER = "X-User-Id";
+
+    public static final String MDC_TRACE_ID = "traceId";
+    public static final String MDC_USER_ID = "userId";
+
+    private LogContext() {
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.commonlibrary.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Đưa traceId (X-Trace-Id do gateway forward) và userId (X-User-Id) vào MDC cho mọi log
+ * trong request thread. Request gọi thẳng service (không qua gateway) được sinh traceId mới.
+ */
+public class MdcServletFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String traceId = request.getHeader(LogContext.TRACE_ID_HEADER);
+        if (traceId == null || traceId.isBlank()) {
+            traceId = UUID.randomUUID().toString().replace("-", "");
+        }
+        String userId = request.getHeader(LogContext.USER_ID_HEADER);
+
+        MDC.put(LogContext.MDC_TRACE_ID, traceId);
+        if (userId != null) {
+            MDC.put(LogContext.MDC_USER_ID, userId);
+        }
+        response.setHeader(LogContext.TRACE_ID_HEADER, traceId);
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(LogContext.MDC_TRACE_ID);
+            MDC.remove(LogContext.MDC_USER_ID);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.commonlibrary.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logback filter lấy mẫu log success-path theo category (logger name prefix).
+ *
+ * Khai báo trong logback-spring.xml, mỗi dòng "prefix=rate" (rate trong [0, 1]):
+ * <pre>
+ * &lt;filter class="org.example.commonlibrary.logging.SamplingFilter"&gt;
+ *     &lt;category&gt;gateway.access=0.01&lt;/category&gt;
+ * &lt;/filter&gt;
+ * </pre>
+ * WARN/ERROR luôn được giữ; logger không khớp prefix nào cũng luôn được giữ.
+ * Prefix dài nhất khớp được áp dụng.
+ */
+public class SamplingFilter extends Filter<ILoggingEvent> {
+
+    private final Map<String, Double> rates = new LinkedHashMap<>();
+
+    public void addCategory(String spec) {
+        int separator = spec.lastIndexOf('=');
+        if (separator <= 0) {
+            addWarn("Invalid sampling category '" + spec + "', expected prefix=rate");
+            return;
+        }
+        rates.put(spec.substring(0, separator).trim(), Double.parseDouble(spec.substring(separator + 1).trim()));
+    }
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (event.getLevel().isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+
+        Double rate = findRate(event.getLoggerName());
+        if (rate == null || rate >= 1.0) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextDouble() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private Double findRate(String loggerName) {
+        String bestPrefix = null;
+        for (String prefix : rates.keySet()) {
+            if (loggerName.startsWith(prefix) && (bestPrefix == null || prefix.length() > bestPrefix.length())) {
+                bestPrefix = prefix;
+            }
+        }
+        return bestPrefix != null ? rates.get(bestPrefix) : null;
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.commonlibrary.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public class ContentHashUtil {
+
+    /**
+     * SHA-256 hex digest của text — dùng làm content hash cho JD khi gửi
+     * CVAnalysisRequest theo reference (positionId + jdHash) thay vì inline jdText.
+     */
+    public static String sha256Hex(String text) {
+        if (text == null) {
+            return null;
+        }
+        return sha256Hex(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String sha256Hex(byte[] bytes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.commonlibrary.utils;
+
+import org.example.commonlibrary.dto.response.ErrorCode;
+import org.example.commonlibrary.exception.CustomException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encode / decode cursor cho keyset pagination trên cặp (timestamp, id).
+ * Cursor là chuỗi base64url opaque — client không cần (và không nên) parse.
+ */
+public class CursorUtil {
+
+    private static final String SEPARATOR = "|";
+
+    public record Cursor(LocalDateTime timestamp, String id) {
+    }
+
+    public static String encode(LocalDateTime timestamp, Object id) {
+        String raw = timestamp.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return null nếu cursor rỗng (trang đầu tiên)
+     * @throws CustomException INVALID_CURSOR nếu cursor không hợp lệ
+     */
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int idx = raw.indexOf(SEPARATOR);
+            if (idx <= 0 || idx == raw.length() - 1) {
+                throw new CustomException(ErrorCode.INVALID_CURSOR);
+            }
+            return new Cursor(LocalDateTime.parse(raw.substring(0, idx)), raw.substring(idx + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new CustomException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.commonlibrary.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+
+/**
+ * Map LRU giới hạn maxEntries, thread-safe (LinkedHashMap access-order dưới 1 lock).
+ *
+ * Put khi đầy → bỏ entry ít được dùng nhất, O(1), không quét toàn bộ map trên đường request.
+ * TTL do caller tự giữ trong value: entry hết hạn không còn được đọc sẽ trôi về cuối LRU và bị
+ * bỏ trước, sweep định kỳ (removeIf) chỉ để trả bộ nhớ sớm hơn.
+ */
+public class LruCache<K, V> {
+
+    private final int maxEntries;
+    private final BiConsumer<K, V> onEvict;
+    private final LinkedHashMap<K, V> map;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public LruCache(int maxEntries) {
+        this(maxEntries, (key, value) -> {
+        });
+    }
+
+    /**
+     * @param onEvict gọi khi entry bị bỏ vì cache đầy (không gọi cho remove/removeIf); chạy trong lock
+     */
+    public LruCache(int maxEntries, BiConsumer<K, V> onEvict) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.onEvict = onEvict;
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > LruCache.this.maxEntries) {
+                    LruCache.this.onEvict.accept(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(K key) {
+        lock.lock();
+        try {
+            return map.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** @return value cũ của key, hoặc null */
+    public V put(K key, V value) {
+        lock.lock();
+        try {
+            return map.put(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V remove(K key) {
+        lock.lock();
+        try {
+            return map.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Chỉ xoá khi key vẫn trỏ tới đúng value (tránh xoá entry vừa được put lại). */
+    public boolean remove(K key, V value) {
+        lock.lock();
+        try {
+            return map.remove(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** O(n) — dùng cho sweep nền / invalidate theo điều kiện, không dùng trên đường đọc. */
+    public int removeIf(BiPredicate<? super K, ? super V> predicate) {
+        lock.lock();
+        try {
+            int removed = 0;
+            Iterator<Map.Entry<K, V>> it = map.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<K, V> entry = it.next();
+                if (predicate.test(entry.getKey(), entry.getValue())) {
+                    it.remove();
+                    removed++;
+                }
+            }
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return map.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            map.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
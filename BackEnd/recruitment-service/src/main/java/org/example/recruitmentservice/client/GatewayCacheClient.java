@@ -0,0 +1,67 @@
+package org.example.recruitmentservice.client;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+/**
+ * Gọi invalidation hook của api-gateway để xóa response cache các endpoint catalog positions
+ * (/positions, /positions/all, /positions/search). Endpoint /internal/chatbot/** không đi qua gateway
+ * (chatbot-service gọi thẳng recruitment-service) nên không có cache để xóa.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GatewayCacheClient {
+
+    private static final List<String> POSITION_PATH_PREFIXES = List.of("/positions");
+
+    private final RestTemplate restTemplate;
+
+    @Value("${gateway.url:http://localhost:8080}")
+    private String gatewayUrl;
+
+    @Value("${gateway.cache-secret}")
+    private String cacheSecret;
+
+    /**
+     * Invalidate cache positions sau khi transaction hiện tại commit
+     * (nếu không có transaction thì gọi ngay).
+     */
+    public void invalidatePositionsAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidatePositions();
+                }
+            });
+        } else {
+            invalidatePositions();
+        }
+    }
+
+    public void invalidatePositions() {
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.set("X-Internal-Service", cacheSecret);
+
+            restTemplate.postForEntity(gatewayUrl + "/internal/gateway/cache/invalidate",
+                    new HttpEntity<>(POSITION_PATH_PREFIXES, headers), String.class);
+            log.info("[GatewayCache] Invalidated position cache");
+        } catch (Exception e) {
+            // Không block nghiệp vụ — cache sẽ tự hết hạn theo TTL
+            log.warn("[GatewayCache] Failed to invalidate position cache: {}", e.getMessage());
+        }
+    }
+}
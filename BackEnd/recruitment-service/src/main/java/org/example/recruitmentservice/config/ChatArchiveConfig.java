@@ -0,0 +1,31 @@
+package org.example.recruitmentservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Chuyển chat history của session idle sang cold storage (ChatArchiveService).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "chat.archive")
+@Getter
+@Setter
+public class ChatArchiveConfig {
+
+    private boolean enabled = true;
+
+    // Session không có message mới quá thời gian này sẽ bị archive
+    private Duration idleThreshold = Duration.ofDays(30);
+
+    private String cron = "0 30 3 * * *";
+
+    // Số session lấy mỗi lượt quét; mỗi session archive trong 1 transaction riêng
+    private int batchSize = 100;
+
+    // Giới hạn mỗi lần chạy để job không kéo dài sang giờ cao điểm
+    private int maxSessionsPerRun = 5000;
+}
@@ -0,0 +1,34 @@
+package org.example.recruitmentservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Endpoint gộp context cho chatbot (ChatContextService): timeout + TTL cache theo từng facet.
+ * TTL = 0 → không cache facet đó.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "chat.context")
+@Getter
+@Setter
+public class ChatContextConfig {
+
+    // Tổng thời gian chờ cho tất cả facet; facet chưa xong bị báo lỗi timeout
+    private Duration timeout = Duration.ofSeconds(3);
+
+    private int maxCacheEntries = 1000;
+
+    private Duration activePositionsTtl = Duration.ofSeconds(30);
+
+    private Duration positionDetailsTtl = Duration.ofSeconds(60);
+
+    // Ngắn vì HR upload/chấm CV liên tục
+    private Duration cvStatisticsTtl = Duration.ofSeconds(10);
+
+    // Ngắn để candidate thấy ngay application vừa nộp
+    private Duration applicationStatusTtl = Duration.ofSeconds(5);
+}
@@ -0,0 +1,28 @@
+package org.example.recruitmentservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Ring buffer N message gần nhất theo session đang active (ChatHistoryCache).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "chat.history-cache")
+@Getter
+@Setter
+public class ChatHistoryCacheConfig {
+
+    private boolean enabled = true;
+
+    // Số message giữ lại mỗi session — phải >= limit chatbot dùng để build LLM context (20)
+    private int window = 30;
+
+    private int maxSessions = 5000;
+
+    // Session không có message mới quá thời gian này bị evict (theo lastActiveAt)
+    private Duration idleTimeout = Duration.ofMinutes(30);
+}
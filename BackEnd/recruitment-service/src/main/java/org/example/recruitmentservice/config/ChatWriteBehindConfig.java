@@ -0,0 +1,28 @@
+package org.example.recruitmentservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Write-behind cho chat message (ChatWriteBehindBuffer).
+ * Tắt → saveMessage ghi DB đồng bộ như cũ. Mặc định tắt vì message còn pending mất khi process crash.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "chat.write-behind")
+@Getter
+@Setter
+public class ChatWriteBehindConfig {
+
+    private boolean enabled = false;
+
+    // Chu kỳ flush buffer xuống DB
+    private long flushIntervalMs = 200;
+
+    // Số message tối đa mỗi JDBC batch
+    private int batchSize = 200;
+
+    // Buffer đầy → caller flush đồng bộ trước khi enqueue (backpressure); vẫn đầy → từ chối ghi
+    private int maxPending = 10000;
+}
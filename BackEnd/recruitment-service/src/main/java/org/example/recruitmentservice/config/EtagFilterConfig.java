@@ -0,0 +1,23 @@
+package org.example.recruitmentservice.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * ETag (hash của body) cho các GET internal trả về payload lớn, chủ yếu JD text.
+ * Client gửi lại If-None-Match → 304, không truyền lại body. Nén gzip do server.compression xử lý.
+ */
+@Configuration
+public class EtagFilterConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> positionDetailsEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/internal/chatbot/positions/details");
+        registration.setName("positionDetailsEtagFilter");
+        return registration;
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.recruitmentservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Sweep đưa lại vào hàng đợi các position kẹt ở PENDING / PARSING / EMBEDDING (JDRecoveryJob).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "positions.jd-recovery")
+@Getter
+@Setter
+public class JDRecoveryConfig {
+
+    private boolean enabled = true;
+
+    // Lượt đầu chạy ngay sau khởi động (bắt position kẹt do crash), sau đó theo intervalMs
+    private long initialDelayMs = 60000;
+
+    private long intervalMs = 300000;
+
+    // Không đổi updatedAt quá lâu mới coi là kẹt — phải dài hơn thời gian parse + embed bình thường
+    private Duration stuckAfter = Duration.ofMinutes(30);
+
+    // Số position tối đa xử lý mỗi lượt
+    private int batchSize = 100;
+}
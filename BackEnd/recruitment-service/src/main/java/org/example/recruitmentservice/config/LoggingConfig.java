@@ -0,0 +1,19 @@
+package org.example.recruitmentservice.config;
+
+import org.example.commonlibrary.logging.MdcServletFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class LoggingConfig {
+
+    // Chạy trước mọi filter khác để cả log của Spring Security cũng có traceId/userId
+    @Bean
+    public FilterRegistrationBean<MdcServletFilter> mdcServletFilter() {
+        FilterRegistrationBean<MdcServletFilter> registration = new FilterRegistrationBean<>(new MdcServletFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.recruitmentservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Read model position trong bộ nhớ (PositionReadModel) cho các endpoint chatbot.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "positions.read-model")
+@Getter
+@Setter
+public class PositionReadModelConfig {
+
+    // Tắt → đọc thẳng DB như trước
+    private boolean enabled = true;
+
+    // Sweep so (id, updatedAt, isActive, status) với DB để bắt các lần ghi không đi qua JPA
+    // (instance khác, update SQL trực tiếp, event bị mất)
+    private long sweepIntervalMs = 300000;
+
+    // Số position nạp mỗi lượt khi load lúc khởi động / reload trong sweep
+    private int loadBatchSize = 500;
+}
@@ -233,7 +233,44 @@ public class RabbitMQConfig {
 
     /*
      * ============================================================
-     * 6. COMMON SETTINGS
+     * 6. JD PARSE FLOW (Recruitment-service OWN, consumes)
+     * PositionService publishes after the position row commits.
+     * JDParseListener downloads + parses + chunks; failures go to DLQ.
+     * ============================================================
+     */
+    public static final String JD_PARSE_QUEUE = "jd.parse.queue";
+    public static final String JD_PARSE_DLQ = "jd.parse.queue.dlq";
+    public static final String JD_PARSE_EXCHANGE = "jd.parse.exchange.dlx";
+    public static final String JD_PARSE_DLQ_ROUTING_KEY = "jd.parse.dlq";
+
+    @Bean
+    public Queue jdParseQueue() {
+        return QueueBuilder.durable(JD_PARSE_QUEUE)
+                .withArgument("x-dead-letter-exchange", JD_PARSE_EXCHANGE)
+                .withArgument("x-dead-letter-routing-key", JD_PARSE_DLQ_ROUTING_KEY)
+                .build();
+    }
+
+    @Bean
+    public Queue jdParseDlqQueue() {
+        return QueueBuilder.durable(JD_PARSE_DLQ).build();
+    }
+
+    @Bean
+    public DirectExchange jdParseExchange() {
+        return new DirectExchange(JD_PARSE_EXCHANGE);
+    }
+
+    @Bean
+    public Binding jdParseDlqBinding(Queue jdParseDlqQueue, DirectExchange jdParseExchange) {
+        return BindingBuilder.bind(jdParseDlqQueue)
+                .to(jdParseExchange)
+                .with(JD_PARSE_DLQ_ROUTING_KEY);
+    }
+
+    /*
+     * ============================================================
+     * 7. COMMON SETTINGS
      * ============================================================
      */
 
@@ -314,6 +351,28 @@ public class RabbitMQConfig {
         return factory;
     }
 
+    /**
+     * Factory chuyên dụng cho JD Parsing Queue (jd.parse.queue).
+     * Tách khỏi cvParsingContainerFactory để bulk JD import không chiếm thread parse CV của HR.
+     * - concurrency=2 / max=3: LlamaParse dùng chung quota với CV parsing.
+     * - prefetchCount=1: message chưa xử lý nằm lại trên broker → crash không mất JD.
+     * - KHÔNG RetryTemplate: LlamaParseClient tự retry, exception ném ra → DLQ.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory jdParsingContainerFactory(
+            ConnectionFactory connectionFactory,
+            MessageConverter messageConverter) {
+
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter);
+        factory.setConcurrentConsumers(2);
+        factory.setMaxConcurrentConsumers(3);
+        factory.setPrefetchCount(1);
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+
     @Bean
     public RetryTemplate retryTemplate() {
         RetryTemplate retryTemplate = new RetryTemplate();
@@ -5,6 +5,7 @@ import lombok.RequiredArgsConstructor;
 import org.example.commonlibrary.dto.response.ApiResponse;
 import org.example.commonlibrary.dto.response.ErrorCode;
 import org.example.commonlibrary.exception.CustomException;
+import org.example.recruitmentservice.dto.request.ChatContextRequest;
 import org.example.recruitmentservice.dto.request.CreateSessionRequest;
 import org.example.recruitmentservice.dto.request.FinalizeApplicationRequest;
 import org.example.recruitmentservice.dto.request.InterviewNotificationRequest;
@@ -16,6 +17,7 @@ import org.example.recruitmentservice.services.ChatSessionService;
 import org.example.recruitmentservice.services.ChatbotInternalService;
 import org.example.recruitmentservice.services.FinalizeApplicationService;
 import org.example.recruitmentservice.services.NotificationService;
+import org.example.recruitmentservice.services.chat.ChatContextService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.*;
 
@@ -43,6 +45,7 @@ public class ChatbotInternalController {
     private final ChatbotInternalService chatbotInternalService;
     private final FinalizeApplicationService finalizeApplicationService;
     private final NotificationService notificationService;
+    private final ChatContextService chatContextService;
 
     // -------------------------------------------------------
     // Session Management
@@ -79,6 +82,20 @@ public class ChatbotInternalController {
         return new ApiResponse<>(ErrorCode.SUCCESS.getCode(), "Message saved", response);
     }
 
+    /**
+     * POST /internal/chatbot/context
+     * Gộp history, active positions, JD details, application status, CV statistics vào 1 round trip.
+     * Chỉ các facet trong request.facets được load (song song); facet lỗi trả về trong errors.
+     */
+    @PostMapping("/context")
+    public ApiResponse<ChatContextResponse> getChatContext(
+            @RequestBody ChatContextRequest request,
+            HttpServletRequest httpRequest) {
+        validateInternalRequest(httpRequest);
+        ChatContextResponse response = chatContextService.getContext(request);
+        return new ApiResponse<>(ErrorCode.SUCCESS.getCode(), "Chat context fetched", response);
+    }
+
     // -------------------------------------------------------
     // Application & Workflow
     // -------------------------------------------------------
@@ -112,16 +129,38 @@ public class ChatbotInternalController {
      * POST /internal/chatbot/positions/details
      * Small-to-Big retrieval: chatbot-service sends positionIds extracted from Qdrant chunk hits
      * and receives back the full JD text for each, which is then fed to the scoring LLM.
+     * Optional ?sections=REQUIREMENTS,BENEFITS trims jdText to those sections only.
      */
     @PostMapping("/positions/details")
     public ApiResponse<List<PositionDetailsResponse>> getPositionDetails(
             @RequestBody List<Integer> positionIds,
+            @RequestParam(required = false) List<String> sections,
             HttpServletRequest httpRequest) {
         validateInternalRequest(httpRequest);
-        List<PositionDetailsResponse> details = chatbotInternalService.getPositionDetails(positionIds);
+        List<PositionDetailsResponse> details = chatbotInternalService.getPositionDetails(positionIds, sections);
         return new ApiResponse<>(ErrorCode.SUCCESS.getCode(), "Position details fetched", details);
     }
 
+    /**
+     * GET /internal/chatbot/positions/details?ids=1,2&sections=REQUIREMENTS
+     * Cacheable variant of the POST endpoint, used by chatbot-service — responses carry an ETag
+     * (EtagFilterConfig), so a repeated call with If-None-Match returns 304 without a body.
+     * Không set timestamp: ETag là hash của body, timestamp đổi mỗi request sẽ làm ETag không bao giờ khớp.
+     */
+    @GetMapping("/positions/details")
+    public ApiResponse<List<PositionDetailsResponse>> getPositionDetailsByIds(
+            @RequestParam List<Integer> ids,
+            @RequestParam(required = false) List<String> sections,
+            HttpServletRequest httpRequest) {
+        validateInternalRequest(httpRequest);
+        List<PositionDetailsResponse> details = chatbotInternalService.getPositionDetails(ids, sections);
+        return ApiResponse.<List<PositionDetailsResponse>>builder()
+                .statusCode(ErrorCode.SUCCESS.getCode())
+                .message("Position details fetched")
+                .data(details)
+                .build();
+    }
+
     /**
      * GET /internal/chatbot/positions/{positionId}/cv-statistics
      * Thống kê số CV, số đã chấm, pass/fail cho HR chatbot.
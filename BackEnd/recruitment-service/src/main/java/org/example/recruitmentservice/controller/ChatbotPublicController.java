@@ -3,6 +3,7 @@ package org.example.recruitmentservice.controller;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.example.commonlibrary.dto.response.ApiResponse;
+import org.example.commonlibrary.dto.response.CursorPageResponse;
 import org.example.commonlibrary.dto.response.ErrorCode;
 import org.example.commonlibrary.dto.response.PageResponse;
 import org.example.commonlibrary.exception.CustomException;
@@ -51,21 +52,54 @@ public class ChatbotPublicController {
                 .build();
     }
 
+    /**
+     * GET /api/chatbot/sessions/cursor — Danh sách sessions theo keyset pagination.
+     * Trang đầu bỏ trống cursor; trang sau gửi lại nextCursor của response trước.
+     */
+    @PreAuthorize("hasAnyRole('HR', 'CANDIDATE')")
+    @GetMapping("/sessions/cursor")
+    public ApiResponse<CursorPageResponse<ChatSessionResponse>> getUserSessionsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            HttpServletRequest request) {
+        String userId = extractUserId(request);
+        return new ApiResponse<>(ErrorCode.SUCCESS.getCode(), "Sessions fetched successfully",
+                chatSessionService.getUserSessions(userId, cursor, size));
+    }
+
     /**
      * GET /api/chatbot/sessions/{sessionId} — Full chat history của 1 session.
      * FE dùng để render lại toàn bộ cuộc hội thoại khi user click vào session cũ.
+     * functionCall mặc định bị lược bỏ — truyền includeFunctionCall=true nếu cần.
      */
     @PreAuthorize("hasAnyRole('HR', 'CANDIDATE')")
     @GetMapping("/sessions/{sessionId}")
     public ApiResponse<List<ChatMessageResponse>> getSessionHistory(
             @PathVariable String sessionId,
+            @RequestParam(defaultValue = "false") boolean includeFunctionCall,
             HttpServletRequest request) {
         // userId dùng để log audit, không cần dùng trực tiếp vì sessionId đã là unique key
         extractUserId(request);
-        List<ChatMessageResponse> history = chatSessionService.getFullHistory(sessionId);
+        List<ChatMessageResponse> history = chatSessionService.getFullHistory(sessionId, includeFunctionCall);
         return new ApiResponse<>(ErrorCode.SUCCESS.getCode(), "History fetched successfully", history);
     }
 
+    /**
+     * GET /api/chatbot/sessions/{sessionId}/messages — History theo keyset pagination (cũ → mới).
+     */
+    @PreAuthorize("hasAnyRole('HR', 'CANDIDATE')")
+    @GetMapping("/sessions/{sessionId}/messages")
+    public ApiResponse<CursorPageResponse<ChatMessageResponse>> getSessionHistoryPage(
+            @PathVariable String sessionId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "false") boolean includeFunctionCall,
+            HttpServletRequest request) {
+        extractUserId(request);
+        return new ApiResponse<>(ErrorCode.SUCCESS.getCode(), "History fetched successfully",
+                chatSessionService.getHistoryPage(sessionId, cursor, size, includeFunctionCall));
+    }
+
     private String extractUserId(HttpServletRequest request) {
         String userId = request.getHeader("X-User-Id");
         if (userId == null || userId.isBlank()) {
@@ -55,10 +55,19 @@ public class PositionController {
         return positionService.getAllPositions(page, size);
     }
 
+    /**
+     * GET /positions/search?keyword=&page=0&size=10 — trả PageResponse (trước đây là List toàn bộ kết quả),
+     * xếp hạng theo độ khớp. Mỗi từ khớp nguyên từ hoặc tiền tố ("back" → "backend") trong name,
+     * language, level, JD; không còn khớp giữa từ như substring cũ ("end" không ra "backend").
+     * page < 0 → 0, size ngoài [1, 100] → clamp (service), không còn 500 với input lạ.
+     */
     @PreAuthorize("hasAnyRole('HR', 'CANDIDATE')")
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<PositionsResponse>>> searchPositions(@RequestParam String keyword) {
-        return ResponseEntity.ok(positionService.searchPositions(keyword));
+    public ResponseEntity<ApiResponse<PageResponse<PositionsResponse>>> searchPositions(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(positionService.searchPositions(keyword, page, size));
     }
 
     @PreAuthorize("hasRole('HR')")
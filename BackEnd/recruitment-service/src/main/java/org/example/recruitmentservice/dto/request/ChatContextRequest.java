@@ -0,0 +1,32 @@
+package org.example.recruitmentservice.dto.request;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.example.recruitmentservice.models.enums.ChatContextFacet;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Payload cho /internal/chatbot/context — gom nhiều lần gọi internal thành 1 round trip.
+ * Chỉ các tham số của facet được yêu cầu mới bắt buộc:
+ * HISTORY → sessionId, POSITION_DETAILS → positionIds, APPLICATION_STATUS → candidateId,
+ * CV_STATISTICS → positionId + mode.
+ */
+@Getter
+@NoArgsConstructor
+public class ChatContextRequest {
+    private Set<ChatContextFacet> facets;
+
+    private String sessionId;
+    private Integer historyLimit = 20;
+
+    private List<Integer> positionIds;
+
+    private String candidateId;
+
+    // APPLICATION_STATUS: optional filter; CV_STATISTICS: bắt buộc
+    private Integer positionId;
+    private Integer passThreshold = 75;
+    private String mode;
+}
@@ -0,0 +1,19 @@
+package org.example.recruitmentservice.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Trigger cho JD processing pipeline (jd.parse.queue): download từ Drive → LlamaParse → chunk → publish.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JDParseEvent implements Serializable {
+    private Integer positionId;
+    private String fileId;
+    private String batchId;
+}
@@ -0,0 +1,24 @@
+package org.example.recruitmentservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kết quả gộp của /internal/chatbot/context. Facet không được yêu cầu sẽ null (bị lược khỏi JSON).
+ * Facet lỗi không làm hỏng cả response — lỗi được trả về trong errors theo tên facet.
+ */
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChatContextResponse {
+    private List<ChatMessageResponse> history;
+    private List<ActivePositionResponse> activePositions;
+    private List<PositionDetailsResponse> positionDetails;
+    private CandidateApplicationStatusResponse applicationStatus;
+    private CvStatisticsResponse cvStatistics;
+    private Map<String, String> errors;
+}
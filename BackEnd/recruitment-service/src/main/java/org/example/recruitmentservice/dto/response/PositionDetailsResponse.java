@@ -5,10 +5,14 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 /**
  * Full JD text payload returned by the internal chatbot API.
  * Used by chatbot-service for Small-to-Big retrieval:
  * Qdrant finds chunk → extract positionId → call this API → feed full JD to the LLM.
+ * When specific sections are requested, jdText only contains those sections and
+ * {@code sections} lists which ones were included.
  */
 @Data
 @Builder
@@ -20,4 +24,5 @@ public class PositionDetailsResponse {
     private String language;
     private String level;
     private String jdText;
+    private List<String> sections;
 }
@@ -22,6 +22,7 @@ public class PositionsResponse {
     private String jdPath;
     private String driveFileUrl;
     private String jdText;
+    private String jdHash;
     private Boolean isActive;
     private LocalDateTime openedAt;
     private org.example.recruitmentservice.models.enums.JDStatus status;
@@ -2,6 +2,7 @@ package org.example.recruitmentservice.listener;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.recruitmentservice.client.GatewayCacheClient;
 import org.example.commonlibrary.dto.response.ErrorCode;
 import org.example.commonlibrary.exception.CustomException;
 import org.example.recruitmentservice.config.RabbitMQConfig;
@@ -24,6 +25,7 @@ public class JDEmbedReplyListener {
 
     private final PositionRepository positionRepository;
     private final ProcessingBatchService processingBatchService;
+    private final GatewayCacheClient gatewayCacheClient;
 
     @RabbitListener(queues = RabbitMQConfig.JD_EMBED_REPLY_QUEUE)
     @Transactional
@@ -36,13 +38,19 @@ public class JDEmbedReplyListener {
             throw new CustomException(ErrorCode.POSITION_NOT_FOUND);
         }
 
+        // Chỉ reply kết thúc lượt xử lý đầu tiên (đang EMBEDDING) mới được đếm vào batch — reply trùng
+        // (JDRecoveryJob publish lại) hoặc reply của lần re-embed khi update JD không đếm lần nữa
+        boolean completesBatch = position.getStatus() == JDStatus.EMBEDDING;
+
         if (event.isSuccess()) {
             position.setStatus(JDStatus.EMBEDDED);
             position.setUpdatedAt(LocalDateTime.now());
             position.setErrorMessage(null);
             positionRepository.save(position);
 
-            processingBatchService.incrementProcessed(event.getBatchId(), true);
+            if (completesBatch) {
+                processingBatchService.incrementProcessed(event.getBatchId(), true);
+            }
             log.info("[JD-EMBED-REPLY] Position {} successfully embedded into Qdrant.", positionId);
         } else {
             position.setStatus(JDStatus.FAILED);
@@ -50,9 +58,13 @@ public class JDEmbedReplyListener {
             position.setUpdatedAt(LocalDateTime.now());
             positionRepository.save(position);
 
-            processingBatchService.incrementProcessed(event.getBatchId(), false);
+            if (completesBatch) {
+                processingBatchService.incrementProcessed(event.getBatchId(), false);
+            }
             log.error("[JD-EMBED-REPLY] Embedding failed for positionId={}: {}", positionId, event.getErrorMessage());
         }
+        // Status hiển thị trong catalog positions → xóa response cache của gateway sau commit
+        gatewayCacheClient.invalidatePositionsAfterCommit();
     }
 
     private String truncate(String message) {
@@ -0,0 +1,52 @@
+package org.example.recruitmentservice.listener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.recruitmentservice.client.GatewayCacheClient;
+import org.example.recruitmentservice.config.RabbitMQConfig;
+import org.example.recruitmentservice.dto.request.JDParseEvent;
+import org.example.recruitmentservice.models.enums.JDStatus;
+import org.example.recruitmentservice.repository.PositionRepository;
+import org.example.recruitmentservice.services.ProcessingBatchService;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Listens to the JD parse Dead Letter Queue — the single owner of the FAILED state
+ * for JD parsing, mirroring CVUploadDlqListener for CVs.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JDParseDlqListener {
+
+    private final PositionRepository positionRepository;
+    private final ProcessingBatchService processingBatchService;
+    private final GatewayCacheClient gatewayCacheClient;
+
+    @RabbitListener(queues = RabbitMQConfig.JD_PARSE_DLQ)
+    @Transactional
+    public void handleParseFailure(@Payload JDParseEvent event) {
+        log.error("[JD-PARSE-DLQ] Position {} permanently failed parsing. batchId={}",
+                event.getPositionId(), event.getBatchId());
+
+        positionRepository.findById(event.getPositionId()).ifPresent(position -> {
+            if (position.getStatus() == JDStatus.FAILED) {
+                log.warn("[JD-PARSE-DLQ] Position {} already FAILED, skipping duplicate DLQ processing",
+                        event.getPositionId());
+                return;
+            }
+            position.setStatus(JDStatus.FAILED);
+            position.setErrorMessage("Parsing permanently failed. File may be corrupt or unsupported.");
+            position.setUpdatedAt(LocalDateTime.now());
+            positionRepository.save(position);
+            gatewayCacheClient.invalidatePositionsAfterCommit();
+        });
+
+        processingBatchService.incrementProcessed(event.getBatchId(), false);
+    }
+}
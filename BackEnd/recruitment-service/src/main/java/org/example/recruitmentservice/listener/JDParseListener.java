@@ -0,0 +1,29 @@
+package org.example.recruitmentservice.listener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.recruitmentservice.config.RabbitMQConfig;
+import org.example.recruitmentservice.dto.request.JDParseEvent;
+import org.example.recruitmentservice.services.PositionService;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumes jd.parse.queue on its own bounded container (jdParsingContainerFactory),
+ * replacing the old fire-and-forget runAsync on the common ForkJoinPool.
+ * The message is only acked after processing returns, so a restart mid-parse redelivers it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JDParseListener {
+
+    private final PositionService positionService;
+
+    @RabbitListener(queues = RabbitMQConfig.JD_PARSE_QUEUE, containerFactory = "jdParsingContainerFactory")
+    public void handleJDParse(@Payload JDParseEvent event) {
+        log.info("[JD-PARSE] Processing position {} (batch {})", event.getPositionId(), event.getBatchId());
+        positionService.processJobDescription(event);
+    }
+}
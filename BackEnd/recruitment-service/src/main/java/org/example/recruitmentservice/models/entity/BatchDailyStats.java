@@ -0,0 +1,44 @@
+package org.example.recruitmentservice.models.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Rollup theo ngày + nhóm kích thước batch cho thời gian xử lý trung bình.
+ * Lưu tổng số batch và tổng giây → AVG = totalSeconds / batchCount khi đọc.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "batch_daily_stats")
+@Builder
+public class BatchDailyStats {
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "batch_count", nullable = false)
+    private long batchCount;
+
+    @Column(name = "total_seconds", nullable = false)
+    private long totalSeconds;
+
+    @Embeddable
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        @Column(name = "stat_date")
+        private LocalDate statDate;
+
+        // 1: 1-10 CVs, 2: 11-20 CVs, 3: 21-30 CVs, 4: > 30 CVs
+        @Column(name = "size_bucket")
+        private int sizeBucket;
+    }
+}
@@ -5,6 +5,7 @@ import lombok.*;
 import org.example.recruitmentservice.models.enums.CVStatus;
 import org.example.recruitmentservice.models.enums.RecruitmentStage;
 import org.example.recruitmentservice.models.enums.SourceType;
+import org.example.recruitmentservice.services.analytics.CvStatusTransitionListener;
 
 import java.time.LocalDateTime;
 
@@ -14,6 +15,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Table(name = "candidate_cv")
 @org.hibernate.annotations.DynamicUpdate
+@EntityListeners(CvStatusTransitionListener.class)
 public class CandidateCV {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -97,4 +99,10 @@ public class CandidateCV {
     /** Timestamp when the Drive file was physically deleted by the GC job. Null means file still exists on Drive. */
     @Column
     private LocalDateTime deletedAt;
+
+    /** cvStatus lúc load/persist gần nhất — CvStatusTransitionListener dùng để phát hiện đổi trạng thái. */
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private CVStatus loadedStatus;
 }
@@ -19,7 +19,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "chat_history", indexes = {
-        @Index(name = "idx_chat_history_session_id", columnList = "session_id")
+        @Index(name = "idx_chat_history_session_id", columnList = "session_id"),
+        // Phục vụ sliding window ORDER BY created_at DESC khi session không có trong ChatHistoryCache
+        @Index(name = "idx_chat_history_session_created", columnList = "session_id, created_at")
 })
 public class ChatHistory {
 
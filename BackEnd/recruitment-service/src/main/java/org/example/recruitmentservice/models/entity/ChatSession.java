@@ -19,7 +19,12 @@ import java.time.LocalDateTime;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "chat_session")
+@Table(name = "chat_session", indexes = {
+        // Keyset pagination danh sách session theo user (lastActiveAt DESC, sessionId DESC)
+        @Index(name = "idx_chat_session_user_active", columnList = "user_id, last_active_at, session_id"),
+        // ChatArchiveService quét session idle chưa archive
+        @Index(name = "idx_chat_session_archive_scan", columnList = "archived_at, last_active_at")
+})
 public class ChatSession {
 
     @Id
@@ -55,4 +60,11 @@ public class ChatSession {
     /** Cập nhật mỗi khi có message mới — dùng để sắp xếp danh sách sessions cho FE. */
     @Column(name = "last_active_at", nullable = false)
     private LocalDateTime lastActiveAt;
+
+    /**
+     * != null → history đã chuyển sang chat_session_archive, sẽ rehydrate khi được đọc.
+     * Chỉ ChatArchiveService cập nhật (bulk update) — save() entity không ghi đè cột này.
+     */
+    @Column(name = "archived_at", insertable = false, updatable = false)
+    private LocalDateTime archivedAt;
 }
@@ -0,0 +1,40 @@
+package org.example.recruitmentservice.models.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cold storage cho chat history: toàn bộ message của 1 session idle được nén (gzip JSON)
+ * thành 1 blob, các row tương ứng trong chat_history bị xoá. Rehydrate khi session được đọc lại.
+ */
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "chat_session_archive")
+public class ChatSessionArchive {
+
+    @Id
+    @Column(name = "session_id", length = 36, nullable = false)
+    private String sessionId;
+
+    @Column(name = "message_count", nullable = false)
+    private int messageCount;
+
+    /** Kích thước JSON trước khi nén — theo dõi tỉ lệ nén. */
+    @Column(name = "raw_size", nullable = false)
+    private long rawSize;
+
+    @Lob
+    @Column(name = "payload", columnDefinition = "LONGBLOB", nullable = false)
+    private byte[] payload;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
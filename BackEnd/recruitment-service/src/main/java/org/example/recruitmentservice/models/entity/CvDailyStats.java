@@ -0,0 +1,35 @@
+package org.example.recruitmentservice.models.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Rollup theo ngày cho CV traffic (admin analytics).
+ * Cập nhật tăng dần khi CV đổi trạng thái — dashboard cộng tối đa `days` row.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "cv_daily_stats")
+@Builder
+public class CvDailyStats {
+    @Id
+    @Column(name = "stat_date")
+    private LocalDate statDate;
+
+    // CV mới tạo hoặc được đưa lại về PENDING để xử lý lại
+    @Column(name = "uploaded_count", nullable = false)
+    private long uploadedCount;
+
+    @Column(name = "embedded_count", nullable = false)
+    private long embeddedCount;
+
+    @Column(name = "failed_count", nullable = false)
+    private long failedCount;
+}
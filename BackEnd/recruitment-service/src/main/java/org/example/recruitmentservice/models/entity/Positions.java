@@ -2,6 +2,7 @@ package org.example.recruitmentservice.models.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.example.recruitmentservice.services.readmodel.PositionChangeListener;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -14,6 +15,7 @@ import java.util.List;
 @Table(name = "positions")
 @Builder
 @org.hibernate.annotations.DynamicUpdate
+@EntityListeners(PositionChangeListener.class)
 public class Positions {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
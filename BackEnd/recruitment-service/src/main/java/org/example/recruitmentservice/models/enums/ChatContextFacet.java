@@ -0,0 +1,10 @@
+package org.example.recruitmentservice.models.enums;
+
+/** Các phần dữ liệu chatbot-service có thể yêu cầu trong 1 lần gọi /internal/chatbot/context. */
+public enum ChatContextFacet {
+    HISTORY,
+    ACTIVE_POSITIONS,
+    POSITION_DETAILS,
+    APPLICATION_STATUS,
+    CV_STATISTICS
+}
@@ -0,0 +1,55 @@
+package org.example.recruitmentservice.repository;
+
+import org.example.recruitmentservice.models.entity.BatchDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface BatchDailyStatsRepository extends JpaRepository<BatchDailyStats, BatchDailyStats.Key> {
+
+    interface BucketTotals {
+        Integer getSizeBucket();
+
+        Long getBatchCount();
+
+        Long getTotalSeconds();
+    }
+
+    // REQUIRES_NEW: được gọi từ afterCommit của transaction nghiệp vụ
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "INSERT INTO batch_daily_stats (stat_date, size_bucket, batch_count, total_seconds) " +
+            "VALUES (:date, :bucket, 1, :seconds) " +
+            "ON DUPLICATE KEY UPDATE batch_count = batch_count + 1, total_seconds = total_seconds + :seconds",
+            nativeQuery = true)
+    void increment(@Param("date") LocalDate date,
+                   @Param("bucket") int bucket,
+                   @Param("seconds") long seconds);
+
+    @Query(value = "SELECT size_bucket AS sizeBucket, " +
+            "CAST(SUM(batch_count) AS SIGNED) AS batchCount, " +
+            "CAST(SUM(total_seconds) AS SIGNED) AS totalSeconds " +
+            "FROM batch_daily_stats WHERE stat_date >= :since " +
+            "GROUP BY size_bucket ORDER BY size_bucket", nativeQuery = true)
+    List<BucketTotals> sumSince(@Param("since") LocalDate since);
+
+    // Backfill 1 lần từ processing_batch khi bảng rollup còn trống
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO batch_daily_stats (stat_date, size_bucket, batch_count, total_seconds) " +
+            "SELECT DATE(b.completed_at), " +
+            "CASE WHEN b.total_cv <= 10 THEN 1 WHEN b.total_cv <= 20 THEN 2 WHEN b.total_cv <= 30 THEN 3 ELSE 4 END AS bucket, " +
+            "COUNT(*), SUM(TIMESTAMPDIFF(SECOND, b.created_at, b.completed_at)) " +
+            "FROM processing_batch b " +
+            "WHERE b.status = 'COMPLETED' AND b.completed_at IS NOT NULL AND b.total_cv >= 1 " +
+            "GROUP BY DATE(b.completed_at), bucket " +
+            "ON DUPLICATE KEY UPDATE batch_count = VALUES(batch_count), total_seconds = VALUES(total_seconds)",
+            nativeQuery = true)
+    int backfill();
+}
@@ -2,6 +2,7 @@ package org.example.recruitmentservice.repository;
 
 import org.example.recruitmentservice.models.enums.CVStatus;
 import org.example.recruitmentservice.models.entity.CandidateCV;
+import org.example.recruitmentservice.models.enums.MatchStatus;
 import org.example.recruitmentservice.models.enums.SourceType;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -29,16 +30,6 @@ public interface CandidateCVRepository extends JpaRepository<CandidateCV, Intege
 
         int countByPositionId(int positionId);
 
-        @Query("SELECT COUNT(c) FROM CandidateCV c WHERE c.position.id = :positionId AND c.sourceType = :sourceType")
-        long countByPositionIdAndSourceType(@Param("positionId") int positionId,
-                        @Param("sourceType") SourceType sourceType);
-
-        @Query("SELECT COUNT(c) FROM CandidateCV c WHERE c.updatedAt >= :date")
-        long countTotalCVsAfterDate(@Param("date") java.time.LocalDateTime date);
-
-        @Query("SELECT COUNT(c) FROM CandidateCV c WHERE c.cvStatus = :status AND c.updatedAt >= :date")
-        long countByCvStatusAndDateAfter(@Param("status") CVStatus status, @Param("date") java.time.LocalDateTime date);
-
         /**
          * Load CandidateCV cùng Position trong 1 query → tránh
          * LazyInitializationException
@@ -114,4 +105,79 @@ public interface CandidateCVRepository extends JpaRepository<CandidateCV, Intege
         List<CandidateCV> findApplicationsByCandidateIdAndPositionId(
                         @Param("candidateId") String candidateId,
                         @Param("positionId") int positionId);
+
+        // -------------------------------------------------------
+        // Projection queries cho chatbot internal endpoints — 1 SQL / tool call,
+        // không load cvContent LOB, không N+1 sang cv_analysis.
+        // -------------------------------------------------------
+
+        interface ApplicationSummaryView {
+                String getCandidateId();
+
+                String getCandidateName();
+
+                String getCandidateEmail();
+
+                Integer getAppCvId();
+
+                Integer getMasterCvId();
+
+                SourceType getSourceType();
+
+                Integer getScore();
+
+                String getFeedback();
+
+                String getSkillMatch();
+
+                String getSkillMiss();
+        }
+
+        interface ApplicationStatusView {
+                Integer getPositionId();
+
+                String getPositionName();
+
+                Integer getScore();
+
+                MatchStatus getOverallStatus();
+        }
+
+        interface CvStatisticsView {
+                Long getTotal();
+
+                Long getScored();
+
+                Long getPassed();
+        }
+
+        /** Tóm tắt application của 1 position kèm điểm (LEFT JOIN cv_analysis). */
+        @Query("SELECT c.candidateId AS candidateId, c.name AS candidateName, c.email AS candidateEmail, " +
+                        "c.id AS appCvId, c.parentCvId AS masterCvId, c.sourceType AS sourceType, " +
+                        "a.technicalScore AS score, a.feedback AS feedback, a.skillMatch AS skillMatch, " +
+                        "a.skillMiss AS skillMiss " +
+                        "FROM CandidateCV c LEFT JOIN c.analysis a " +
+                        "WHERE c.position.id = :positionId AND c.deletedAt IS NULL")
+        List<ApplicationSummaryView> findApplicationSummariesByPositionId(@Param("positionId") int positionId);
+
+        /**
+         * Trạng thái ứng tuyển của candidate (JOIN positions + cv_analysis).
+         * positionId = null → tất cả application của candidate.
+         */
+        @Query("SELECT p.id AS positionId, p.name AS positionName, " +
+                        "a.technicalScore AS score, a.overallStatus AS overallStatus " +
+                        "FROM CandidateCV c JOIN c.position p LEFT JOIN c.analysis a " +
+                        "WHERE c.candidateId = :candidateId AND c.sourceType = 'CANDIDATE' AND c.deletedAt IS NULL " +
+                        "AND (:positionId IS NULL OR p.id = :positionId)")
+        List<ApplicationStatusView> findApplicationStatuses(@Param("candidateId") String candidateId,
+                        @Param("positionId") Integer positionId);
+
+        /** total / scored / passed trong 1 aggregate query thay vì 3 lần COUNT. */
+        @Query("SELECT COUNT(c) AS total, COUNT(a) AS scored, " +
+                        "COALESCE(SUM(CASE WHEN a.technicalScore >= :threshold THEN 1 ELSE 0 END), 0) AS passed " +
+                        "FROM CandidateCV c LEFT JOIN c.analysis a " +
+                        "WHERE c.position.id = :positionId AND c.sourceType = :sourceType")
+        CvStatisticsView getCvStatistics(@Param("positionId") int positionId,
+                        @Param("sourceType") SourceType sourceType,
+                        @Param("threshold") int threshold);
 }
@@ -1,15 +1,33 @@
 package org.example.recruitmentservice.repository;
 
 import org.example.recruitmentservice.models.entity.ChatHistory;
+import org.example.recruitmentservice.models.enums.ChatRole;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ChatHistoryRepository extends JpaRepository<ChatHistory, Long> {
 
+    /** Projection message — functionCall chỉ được SELECT khi caller yêu cầu. */
+    interface ChatMessageView {
+        Long getId();
+
+        String getSessionId();
+
+        ChatRole getRole();
+
+        String getContent();
+
+        String getFunctionCall();
+
+        LocalDateTime getCreatedAt();
+    }
+
     /**
      * Lấy N messages gần nhất của session (sliding window).
      * Dùng ORDER BY DESC + LIMIT để chỉ lấy 20 rows, sau đó đảo lại ở service layer.
@@ -21,4 +39,46 @@ public interface ChatHistoryRepository extends JpaRepository<ChatHistory, Long>
 
     /** Lấy toàn bộ history của session theo thứ tự thời gian — dùng cho FE xem lịch sử đầy đủ. */
     List<ChatHistory> findBySessionIdOrderByCreatedAtAsc(String sessionId);
+
+    /** Full history dạng projection, bỏ payload functionCall nếu không được yêu cầu. */
+    @Query("SELECT h.id AS id, h.sessionId AS sessionId, h.role AS role, h.content AS content, " +
+            "CASE WHEN :includeFunctionCall = true THEN h.functionCall ELSE NULL END AS functionCall, " +
+            "h.createdAt AS createdAt " +
+            "FROM ChatHistory h WHERE h.sessionId = :sessionId ORDER BY h.createdAt ASC, h.id ASC")
+    List<ChatMessageView> findViewsBySessionId(@Param("sessionId") String sessionId,
+                                               @Param("includeFunctionCall") boolean includeFunctionCall);
+
+    /**
+     * Keyset pagination — trang đầu tiên.
+     * Index (session_id, created_at); InnoDB tự nối PK id vào secondary index nên ORDER BY created_at, id
+     * vẫn đi theo index.
+     */
+    @Query("SELECT h.id AS id, h.sessionId AS sessionId, h.role AS role, h.content AS content, " +
+            "CASE WHEN :includeFunctionCall = true THEN h.functionCall ELSE NULL END AS functionCall, " +
+            "h.createdAt AS createdAt " +
+            "FROM ChatHistory h WHERE h.sessionId = :sessionId ORDER BY h.createdAt ASC, h.id ASC")
+    List<ChatMessageView> findFirstPageBySessionId(@Param("sessionId") String sessionId,
+                                                   @Param("includeFunctionCall") boolean includeFunctionCall,
+                                                   Pageable pageable);
+
+    /** Keyset pagination — các trang sau cursor (createdAt, id). */
+    @Query("SELECT h.id AS id, h.sessionId AS sessionId, h.role AS role, h.content AS content, " +
+            "CASE WHEN :includeFunctionCall = true THEN h.functionCall ELSE NULL END AS functionCall, " +
+            "h.createdAt AS createdAt " +
+            "FROM ChatHistory h WHERE h.sessionId = :sessionId " +
+            "AND (h.createdAt > :createdAt OR (h.createdAt = :createdAt AND h.id > :id)) " +
+            "ORDER BY h.createdAt ASC, h.id ASC")
+    List<ChatMessageView> findPageBySessionIdAfter(@Param("sessionId") String sessionId,
+                                                   @Param("createdAt") LocalDateTime createdAt,
+                                                   @Param("id") Long id,
+                                                   @Param("includeFunctionCall") boolean includeFunctionCall,
+                                                   Pageable pageable);
+
+    /**
+     * Xoá các row đã được archive. Giới hạn theo maxId để không xoá message
+     * được write-behind flush vào giữa lúc đang archive.
+     */
+    @Modifying
+    @Query("DELETE FROM ChatHistory h WHERE h.sessionId = :sessionId AND h.id <= :maxId")
+    int deleteArchived(@Param("sessionId") String sessionId, @Param("maxId") Long maxId);
 }
@@ -0,0 +1,7 @@
+package org.example.recruitmentservice.repository;
+
+import org.example.recruitmentservice.models.entity.ChatSessionArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ChatSessionArchiveRepository extends JpaRepository<ChatSessionArchive, String> {
+}
@@ -3,8 +3,15 @@ package org.example.recruitmentservice.repository;
 import org.example.recruitmentservice.models.entity.ChatSession;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface ChatSessionRepository extends JpaRepository<ChatSession, String> {
@@ -13,4 +20,41 @@ public interface ChatSessionRepository extends JpaRepository<ChatSession, String
     Page<ChatSession> findByUserIdOrderByLastActiveAtDesc(String userId, Pageable pageable);
 
     Optional<ChatSession> findBySessionId(String sessionId);
+
+    /** Keyset pagination — trang đầu tiên. Dùng index (user_id, last_active_at, session_id). */
+    @Query("SELECT s FROM ChatSession s WHERE s.userId = :userId " +
+            "ORDER BY s.lastActiveAt DESC, s.sessionId DESC")
+    List<ChatSession> findFirstPageByUserId(@Param("userId") String userId, Pageable pageable);
+
+    /** Keyset pagination — các trang sau cursor (lastActiveAt, sessionId), không OFFSET. */
+    @Query("SELECT s FROM ChatSession s WHERE s.userId = :userId " +
+            "AND (s.lastActiveAt < :lastActiveAt OR (s.lastActiveAt = :lastActiveAt AND s.sessionId < :sessionId)) " +
+            "ORDER BY s.lastActiveAt DESC, s.sessionId DESC")
+    List<ChatSession> findPageByUserIdAfter(@Param("userId") String userId,
+                                            @Param("lastActiveAt") LocalDateTime lastActiveAt,
+                                            @Param("sessionId") String sessionId,
+                                            Pageable pageable);
+
+    interface SessionStateView {
+        String getSessionId();
+
+        LocalDateTime getArchivedAt();
+    }
+
+    /** Kiểm tra tồn tại + trạng thái archive trong 1 query. */
+    Optional<SessionStateView> findStateBySessionId(String sessionId);
+
+    /** Session idle quá cutoff và chưa archive — ứng viên cho ChatArchiveService. */
+    @Query("SELECT s.sessionId FROM ChatSession s WHERE s.archivedAt IS NULL AND s.lastActiveAt < :cutoff " +
+            "ORDER BY s.lastActiveAt ASC")
+    List<String> findArchiveCandidates(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /** SELECT ... FOR UPDATE — serialize archive / rehydrate của cùng 1 session. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ChatSession s WHERE s.sessionId = :sessionId")
+    Optional<ChatSession> findForUpdate(@Param("sessionId") String sessionId);
+
+    @Modifying
+    @Query("UPDATE ChatSession s SET s.archivedAt = :archivedAt WHERE s.sessionId = :sessionId")
+    int updateArchivedAt(@Param("sessionId") String sessionId, @Param("archivedAt") LocalDateTime archivedAt);
 }
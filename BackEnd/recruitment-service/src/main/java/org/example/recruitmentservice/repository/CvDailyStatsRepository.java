@@ -0,0 +1,54 @@
+package org.example.recruitmentservice.repository;
+
+import org.example.recruitmentservice.models.entity.CvDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+public interface CvDailyStatsRepository extends JpaRepository<CvDailyStats, LocalDate> {
+
+    interface CvTrafficTotals {
+        Long getUploaded();
+
+        Long getEmbedded();
+
+        Long getFailed();
+    }
+
+    // REQUIRES_NEW: được gọi từ afterCommit của transaction nghiệp vụ
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "INSERT INTO cv_daily_stats (stat_date, uploaded_count, embedded_count, failed_count) " +
+            "VALUES (:date, :uploaded, :embedded, :failed) " +
+            "ON DUPLICATE KEY UPDATE uploaded_count = uploaded_count + :uploaded, " +
+            "embedded_count = embedded_count + :embedded, failed_count = failed_count + :failed",
+            nativeQuery = true)
+    void increment(@Param("date") LocalDate date,
+                   @Param("uploaded") long uploaded,
+                   @Param("embedded") long embedded,
+                   @Param("failed") long failed);
+
+    @Query(value = "SELECT CAST(COALESCE(SUM(uploaded_count), 0) AS SIGNED) AS uploaded, " +
+            "CAST(COALESCE(SUM(embedded_count), 0) AS SIGNED) AS embedded, " +
+            "CAST(COALESCE(SUM(failed_count), 0) AS SIGNED) AS failed " +
+            "FROM cv_daily_stats WHERE stat_date >= :since", nativeQuery = true)
+    CvTrafficTotals sumSince(@Param("since") LocalDate since);
+
+    // Backfill 1 lần từ candidate_cv khi bảng rollup còn trống
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO cv_daily_stats (stat_date, uploaded_count, embedded_count, failed_count) " +
+            "SELECT DATE(c.updated_at), COUNT(*), " +
+            "SUM(CASE WHEN c.cv_status = 'EMBEDDED' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN c.cv_status = 'FAILED' THEN 1 ELSE 0 END) " +
+            "FROM candidate_cv c GROUP BY DATE(c.updated_at) " +
+            "ON DUPLICATE KEY UPDATE uploaded_count = VALUES(uploaded_count), " +
+            "embedded_count = VALUES(embedded_count), failed_count = VALUES(failed_count)",
+            nativeQuery = true)
+    int backfill();
+}
@@ -1,14 +1,69 @@
 package org.example.recruitmentservice.repository;
 
 import org.example.recruitmentservice.models.entity.Positions;
+import org.example.recruitmentservice.models.enums.JDStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface PositionRepository extends JpaRepository<Positions, Integer> {
+
+    interface PositionVersionView {
+        Integer getId();
+
+        LocalDateTime getUpdatedAt();
+
+        Boolean getActive();
+
+        JDStatus getStatus();
+    }
+
+    /** Chỉ đọc cột version (không đụng LOB jobDescription) — dùng cho sweep của PositionReadModel. */
+    @Query("SELECT p.id AS id, p.updatedAt AS updatedAt, p.isActive AS active, p.status AS status FROM Positions p")
+    List<PositionVersionView> findAllVersions();
+
+    interface PositionListingView {
+        Integer getId();
+
+        String getHrId();
+
+        String getName();
+
+        String getLanguage();
+
+        String getLevel();
+
+        String getJdPath();
+
+        String getDriveFileUrl();
+
+        Boolean getActive();
+
+        LocalDateTime getOpenedAt();
+
+        LocalDateTime getCreatedAt();
+
+        Long getTotalCVs();
+    }
+
+    /**
+     * Cột cho trang kết quả /positions/search — bỏ LOB jobDescription/errorMessage, đếm CV bằng
+     * subquery thay vì 1 query count mỗi position.
+     */
+    @Query("SELECT p.id AS id, p.hrId AS hrId, p.name AS name, p.language AS language, p.level AS level, " +
+            "p.jdPath AS jdPath, p.driveFileUrl AS driveFileUrl, p.isActive AS active, " +
+            "p.openedAt AS openedAt, p.createdAt AS createdAt, " +
+            "(SELECT COUNT(c) FROM CandidateCV c WHERE c.position = p) AS totalCVs " +
+            "FROM Positions p WHERE p.id IN :ids")
+    List<PositionListingView> findListingByIdIn(@Param("ids") Collection<Integer> ids);
     Positions findById(int positionId);
     Optional<Positions> findByNameAndLanguageAndLevel(String name, String language, String level);
     Optional<Positions> findByNameAndLanguage(String name, String language);
@@ -35,6 +90,22 @@ public interface PositionRepository extends JpaRepository<Positions, Integer> {
     @Query("SELECT p FROM Positions p WHERE p.isActive = true ORDER BY p.openedAt DESC")
     List<Positions> findAllActive();
 
+    /** Position kẹt ở trạng thái xử lý JD (event mất, crash giữa chừng) — dùng bởi JDRecoveryJob. */
+    @Query("SELECT p FROM Positions p WHERE p.status IN :statuses AND p.updatedAt < :before ORDER BY p.updatedAt")
+    List<Positions> findStuck(@Param("statuses") Collection<JDStatus> statuses,
+                              @Param("before") LocalDateTime before,
+                              Pageable pageable);
+
+    // Giành quyền recover: chỉ 1 instance cập nhật được khi (status, updatedAt) chưa đổi kể từ lúc đọc
+    @Transactional
+    @Modifying
+    @Query("UPDATE Positions p SET p.updatedAt = :now " +
+            "WHERE p.id = :id AND p.status = :status AND p.updatedAt = :updatedAt")
+    int claimForRecovery(@Param("id") int id,
+                         @Param("status") JDStatus status,
+                         @Param("updatedAt") LocalDateTime updatedAt,
+                         @Param("now") LocalDateTime now);
+
     long countByBatchIdAndStatus(String batchId, org.example.recruitmentservice.models.enums.JDStatus status);
     List<Positions> findByBatchIdAndStatus(String batchId, org.example.recruitmentservice.models.enums.JDStatus status);
 }
@@ -0,0 +1,78 @@
+package org.example.recruitmentservice.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.recruitmentservice.config.JDRecoveryConfig;
+import org.example.recruitmentservice.models.entity.Positions;
+import org.example.recruitmentservice.models.enums.JDStatus;
+import org.example.recruitmentservice.repository.PositionRepository;
+import org.example.recruitmentservice.services.PositionService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Đưa lại vào hàng đợi các position kẹt trong luồng xử lý JD.
+ *
+ * - PENDING/PARSING: JDParseEvent publish sau commit không có outbox — broker lỗi hoặc crash giữa
+ *   commit và publish thì message mất, position nằm PENDING mãi và batch không bao giờ xong.
+ * - EMBEDDING: crash sau khi đã chuyển EMBEDDING thì message parse giao lại bị bỏ qua (stale),
+ *   còn JDChunkedEvent có thể chưa từng được gửi.
+ *
+ * Position được coi là kẹt khi updatedAt không đổi quá stuckAfter. Trước khi recover, job bump
+ * updatedAt bằng UPDATE có điều kiện (claimForRecovery) nên mỗi position chỉ được 1 instance
+ * đưa lại 1 lần mỗi stuckAfter. Message trùng với message gốc còn đang chạy là vô hại:
+ * processJobDescription bỏ qua position đã qua PARSING, JDEmbedReplyListener chỉ đếm batch 1 lần.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JDRecoveryJob {
+
+    private static final EnumSet<JDStatus> IN_PROGRESS =
+            EnumSet.of(JDStatus.PENDING, JDStatus.PARSING, JDStatus.EMBEDDING);
+
+    private final JDRecoveryConfig config;
+    private final PositionRepository positionRepository;
+    private final PositionService positionService;
+
+    @Scheduled(initialDelayString = "${positions.jd-recovery.initial-delay-ms:60000}",
+            fixedDelayString = "${positions.jd-recovery.interval-ms:300000}")
+    public void recoverStuckPositions() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Positions> stuck = positionRepository.findStuck(
+                IN_PROGRESS, now.minus(config.getStuckAfter()), PageRequest.of(0, config.getBatchSize()));
+        if (stuck.isEmpty()) {
+            return;
+        }
+
+        int recovered = 0;
+        int failed = 0;
+        for (Positions position : stuck) {
+            // Instance khác đã claim, hoặc position vừa đổi trạng thái sau lúc SELECT
+            if (positionRepository.claimForRecovery(
+                    position.getId(), position.getStatus(), position.getUpdatedAt(), now) == 0) {
+                continue;
+            }
+            try {
+                log.warn("[JD-RECOVERY] Position {} stuck in {} since {}, re-enqueueing",
+                        position.getId(), position.getStatus(), position.getUpdatedAt());
+                position.setUpdatedAt(now);
+                positionService.recoverStuckPosition(position);
+                recovered++;
+            } catch (Exception e) {
+                // updatedAt đã bump → thử lại sau stuckAfter
+                log.error("[JD-RECOVERY] Failed to recover position {}: {}", position.getId(), e.getMessage());
+                failed++;
+            }
+        }
+        log.info("[JD-RECOVERY] Re-enqueued {} stuck positions ({} failed, retried next run)", recovered, failed);
+    }
+}
@@ -1,8 +1,14 @@
 package org.example.recruitmentservice.services;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.example.commonlibrary.exception.CustomException;
+import org.example.commonlibrary.dto.response.CursorPageResponse;
 import org.example.commonlibrary.dto.response.ErrorCode;
+import org.example.commonlibrary.utils.CursorUtil;
+import org.example.recruitmentservice.config.ChatWriteBehindConfig;
 import org.example.recruitmentservice.dto.request.CreateSessionRequest;
 import org.example.recruitmentservice.dto.request.SaveMessageRequest;
 import org.example.recruitmentservice.dto.response.ChatMessageResponse;
@@ -11,12 +17,16 @@ import org.example.recruitmentservice.models.entity.ChatHistory;
 import org.example.recruitmentservice.models.entity.ChatSession;
 import org.example.recruitmentservice.repository.ChatHistoryRepository;
 import org.example.recruitmentservice.repository.ChatSessionRepository;
+import org.example.recruitmentservice.services.chat.ChatArchiveService;
+import org.example.recruitmentservice.services.chat.ChatHistoryCache;
+import org.example.recruitmentservice.services.chat.ChatWriteBehindBuffer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -35,6 +45,15 @@ public class ChatSessionService {
 
     private final ChatSessionRepository chatSessionRepository;
     private final ChatHistoryRepository chatHistoryRepository;
+    private final ChatWriteBehindBuffer chatWriteBehindBuffer;
+    private final ChatWriteBehindConfig chatWriteBehindConfig;
+    private final ChatHistoryCache chatHistoryCache;
+    private final ChatArchiveService chatArchiveService;
+    private final ObjectMapper objectMapper;
+
+    private static final int MAX_PAGE_SIZE = 100;
+    // Giới hạn cột content kiểu TEXT của MySQL (byte, không phải ký tự)
+    private static final int MAX_CONTENT_BYTES = 65_535;
 
     /**
      * Tạo session mới với UUID do BE generate. FE sẽ dùng sessionId này cho mọi
@@ -59,23 +78,52 @@ public class ChatSessionService {
 
     /**
      * Lấy N messages gần nhất theo sliding window — dùng để build LLM context.
-     * Kết quả được đảo ngược để trả về chronological order (cũ → mới).
+     * Session đang active đọc từ ChatHistoryCache; session nguội hoặc limit > window thì đọc DB.
+     * Kết quả theo chronological order (cũ → mới).
      */
     public List<ChatMessageResponse> getHistory(String sessionId, int limit) {
-        validateSessionExists(sessionId);
+        // Session đã có trong cache chắc chắn tồn tại — bỏ qua existsById
+        if (!chatHistoryCache.contains(sessionId)) {
+            ensureSessionReadable(sessionId);
+        }
+
+        List<ChatHistory> messages = chatHistoryCache.getRecent(sessionId, limit,
+                () -> loadRecentMessages(sessionId, chatHistoryCache.getWindow()));
+        if (messages == null) {
+            messages = loadRecentMessages(sessionId, limit);
+        }
+        return messages.stream().map(this::toMessageResponse).collect(Collectors.toList());
+    }
 
+    /** N message gần nhất từ DB + write-behind buffer, thứ tự cũ → mới. */
+    private List<ChatHistory> loadRecentMessages(String sessionId, int limit) {
         Pageable pageable = PageRequest.of(0, limit);
-        List<ChatHistory> messages = chatHistoryRepository
-                .findTopNBySessionIdOrderByCreatedAtDesc(sessionId, pageable);
+        List<ChatHistory> messages = chatWriteBehindBuffer.readConsistent(sessionId, () -> {
+            List<ChatHistory> rows = chatHistoryRepository
+                    .findTopNBySessionIdOrderByCreatedAtDesc(sessionId, pageable);
+            // Đảo lại để trả về thứ tự cũ → mới (đúng với LLM context)
+            Collections.reverse(rows);
+            return rows;
+        });
 
-        // Đảo lại để trả về thứ tự cũ → mới (đúng với LLM context)
-        Collections.reverse(messages);
-        return messages.stream().map(this::toMessageResponse).collect(Collectors.toList());
+        // Gộp thêm message chưa flush → chỉ giữ `limit` message mới nhất
+        if (messages.size() > limit) {
+            messages = messages.subList(messages.size() - limit, messages.size());
+        }
+        return messages;
     }
 
-    /** Persist một message turn và cập nhật lastActiveAt của session. */
+    /**
+     * Persist một message turn và cập nhật lastActiveAt của session.
+     * Write-behind bật → enqueue vào buffer và trả về ngay (id = null), flusher ghi DB theo batch.
+     */
     @Transactional
     public ChatMessageResponse saveMessage(SaveMessageRequest request) {
+        validateMessage(request);
+        if (chatWriteBehindConfig.isEnabled()) {
+            return enqueueMessage(request);
+        }
+
         ChatSession session = chatSessionRepository.findBySessionId(request.getSessionId())
                 .orElseThrow(() -> new CustomException(ErrorCode.SESSION_NOT_FOUND));
 
@@ -88,6 +136,8 @@ public class ChatSessionService {
                 .build();
 
         chatHistoryRepository.save(history);
+        // Ring buffer chỉ nhận message sau commit — reader không dựng window thiếu message đang ghi
+        chatHistoryCache.appendAfterCommit(history);
 
         // Cập nhật timestamp hoạt động của session
         session.setLastActiveAt(LocalDateTime.now());
@@ -96,6 +146,54 @@ public class ChatSessionService {
         return toMessageResponse(history);
     }
 
+    /**
+     * Kiểm tra trước khi ack: message lỗi phải bị từ chối ngay ở đây, không để write-behind
+     * chỉ phát hiện lúc INSERT (khi đó API đã trả thành công).
+     */
+    private void validateMessage(SaveMessageRequest request) {
+        if (request.getContent() != null
+                && request.getContent().getBytes(StandardCharsets.UTF_8).length > MAX_CONTENT_BYTES) {
+            throw new CustomException(ErrorCode.INVALID_CHAT_MESSAGE);
+        }
+        if (request.getFunctionCall() != null) {
+            if (request.getFunctionCall().isBlank()) {
+                throw new CustomException(ErrorCode.INVALID_CHAT_MESSAGE);
+            }
+            try {
+                // Cột function_call kiểu JSON: MySQL từ chối cả phần thừa sau document
+                objectMapper.reader()
+                        .with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS)
+                        .readTree(request.getFunctionCall());
+            } catch (JsonProcessingException e) {
+                throw new CustomException(ErrorCode.INVALID_CHAT_MESSAGE);
+            }
+        }
+    }
+
+    private ChatMessageResponse enqueueMessage(SaveMessageRequest request) {
+        if (request.getRole() == null || request.getContent() == null) {
+            throw new CustomException(ErrorCode.MISSING_REQUIRED_FIELD);
+        }
+        // Session đã có message pending thì chắc chắn tồn tại — bỏ qua lookup DB
+        if (!chatWriteBehindBuffer.hasPending(request.getSessionId())) {
+            validateSessionExists(request.getSessionId());
+        }
+
+        ChatHistory history = ChatHistory.builder()
+                .sessionId(request.getSessionId())
+                .role(request.getRole())
+                .content(request.getContent())
+                .functionCall(request.getFunctionCall())
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        chatHistoryCache.appendWith(history.getSessionId(), () -> {
+            chatWriteBehindBuffer.enqueue(history);
+            return history;
+        });
+        return toMessageResponse(history);
+    }
+
     /** Lấy danh sách sessions của user — FE dùng để render sidebar chat history. */
     public Page<ChatSessionResponse> getUserSessions(String userId, Pageable pageable) {
         return chatSessionRepository
@@ -103,24 +201,130 @@ public class ChatSessionService {
                 .map(this::toSessionResponse);
     }
 
+    /**
+     * Keyset pagination danh sách sessions trên (lastActiveAt DESC, sessionId DESC).
+     * Không dùng OFFSET nên chi phí mỗi trang không tăng theo số session của user.
+     */
+    public CursorPageResponse<ChatSessionResponse> getUserSessions(String userId, String cursor, int size) {
+        int pageSize = clampPageSize(size);
+        CursorUtil.Cursor after = CursorUtil.decode(cursor);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<ChatSession> rows = after == null
+                ? chatSessionRepository.findFirstPageByUserId(userId, limit)
+                : chatSessionRepository.findPageByUserIdAfter(userId, after.timestamp(), after.id(), limit);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ChatSession> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ChatSession last = page.get(page.size() - 1);
+            nextCursor = CursorUtil.encode(last.getLastActiveAt(), last.getSessionId());
+        }
+
+        return CursorPageResponse.<ChatSessionResponse>builder()
+                .content(page.stream().map(this::toSessionResponse).collect(Collectors.toList()))
+                .size(pageSize)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
     /**
      * Lấy full chat history của 1 session — FE dùng khi user click vào 1 session
-     * cũ.
+     * cũ. functionCall chỉ được đọc từ DB khi includeFunctionCall = true.
      */
-    public List<ChatMessageResponse> getFullHistory(String sessionId) {
-        validateSessionExists(sessionId);
-        return chatHistoryRepository.findBySessionIdOrderByCreatedAtAsc(sessionId)
-                .stream().map(this::toMessageResponse).collect(Collectors.toList());
+    public List<ChatMessageResponse> getFullHistory(String sessionId, boolean includeFunctionCall) {
+        ensureSessionReadable(sessionId);
+        return chatWriteBehindBuffer.readConsistent(sessionId,
+                        () -> toHistories(chatHistoryRepository.findViewsBySessionId(sessionId, includeFunctionCall)))
+                .stream()
+                .map(h -> toMessageResponse(h, includeFunctionCall))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Keyset pagination history trên (createdAt ASC, id ASC).
+     * Message còn trong write-behind buffer (chưa có id) chỉ được gộp vào trang cuối.
+     */
+    public CursorPageResponse<ChatMessageResponse> getHistoryPage(String sessionId, String cursor, int size,
+                                                                  boolean includeFunctionCall) {
+        ensureSessionReadable(sessionId);
+        int pageSize = clampPageSize(size);
+        CursorUtil.Cursor after = CursorUtil.decode(cursor);
+        Long afterId = after == null ? null : parseMessageId(after.id());
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        int[] dbCount = new int[1];
+        List<ChatHistory> rows = chatWriteBehindBuffer.readConsistent(sessionId, () -> {
+            List<ChatHistoryRepository.ChatMessageView> views = after == null
+                    ? chatHistoryRepository.findFirstPageBySessionId(sessionId, includeFunctionCall, limit)
+                    : chatHistoryRepository.findPageBySessionIdAfter(
+                            sessionId, after.timestamp(), afterId, includeFunctionCall, limit);
+            dbCount[0] = views.size();
+            return toHistories(views);
+        });
+
+        boolean hasMore = dbCount[0] > pageSize;
+        List<ChatHistory> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ChatHistory last = page.get(page.size() - 1);
+            nextCursor = CursorUtil.encode(last.getCreatedAt(), last.getId());
+        }
+
+        return CursorPageResponse.<ChatMessageResponse>builder()
+                .content(page.stream()
+                        .map(h -> toMessageResponse(h, includeFunctionCall))
+                        .collect(Collectors.toList()))
+                .size(pageSize)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
     }
 
     // Helper methods
 
+    /** Như validateSessionExists, đồng thời rehydrate history nếu session đã bị archive. */
+    private void ensureSessionReadable(String sessionId) {
+        ChatSessionRepository.SessionStateView state = chatSessionRepository.findStateBySessionId(sessionId)
+                .orElseThrow(() -> new CustomException(ErrorCode.SESSION_NOT_FOUND));
+        if (state.getArchivedAt() != null) {
+            chatArchiveService.rehydrate(sessionId);
+        }
+    }
+
     private void validateSessionExists(String sessionId) {
         if (!chatSessionRepository.existsById(sessionId)) {
             throw new CustomException(ErrorCode.SESSION_NOT_FOUND);
         }
     }
 
+    private int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private Long parseMessageId(String id) {
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            throw new CustomException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+
+    private List<ChatHistory> toHistories(List<ChatHistoryRepository.ChatMessageView> views) {
+        return views.stream()
+                .map(v -> ChatHistory.builder()
+                        .id(v.getId())
+                        .sessionId(v.getSessionId())
+                        .role(v.getRole())
+                        .content(v.getContent())
+                        .functionCall(v.getFunctionCall())
+                        .createdAt(v.getCreatedAt())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
     private ChatSessionResponse toSessionResponse(ChatSession session) {
         return ChatSessionResponse.builder()
                 .sessionId(session.getSessionId())
@@ -134,12 +338,16 @@ public class ChatSessionService {
     }
 
     private ChatMessageResponse toMessageResponse(ChatHistory history) {
+        return toMessageResponse(history, true);
+    }
+
+    private ChatMessageResponse toMessageResponse(ChatHistory history, boolean includeFunctionCall) {
         return ChatMessageResponse.builder()
                 .id(history.getId())
                 .sessionId(history.getSessionId())
                 .role(history.getRole())
                 .content(history.getContent())
-                .functionCall(history.getFunctionCall())
+                .functionCall(includeFunctionCall ? history.getFunctionCall() : null)
                 .createdAt(history.getCreatedAt())
                 .build();
     }
@@ -1,6 +1,7 @@
 package org.example.recruitmentservice.services;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.example.recruitmentservice.dto.response.ActivePositionResponse;
 import org.example.recruitmentservice.dto.response.ApplicationSummaryResponse;
 import org.example.recruitmentservice.dto.response.CandidateApplicationStatusResponse;
@@ -11,15 +12,20 @@ import org.example.commonlibrary.exception.CustomException;
 import org.example.recruitmentservice.dto.request.EvaluateApplicationRequest;
 import org.example.recruitmentservice.models.entity.CVAnalysis;
 import org.example.recruitmentservice.models.entity.CandidateCV;
-import org.example.recruitmentservice.models.entity.Positions;
 import org.example.recruitmentservice.repository.CVAnalysisRepository;
 import org.example.recruitmentservice.repository.CandidateCVRepository;
-import org.example.recruitmentservice.repository.PositionRepository;
+import org.example.recruitmentservice.services.chunking.JDChunkingService;
+import org.example.recruitmentservice.services.readmodel.PositionReadModel;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 /**
@@ -27,12 +33,28 @@ import java.util.stream.Collectors;
  * Tách biệt logic truy xuất dữ liệu và mapping khỏi Controller để tuân thủ SRP.
  */
 @Service
-@RequiredArgsConstructor
 public class ChatbotInternalService {
 
-        private final PositionRepository positionRepository;
         private final CandidateCVRepository candidateCVRepository;
         private final CVAnalysisRepository cvAnalysisRepository;
+        private final PositionReadModel positionReadModel;
+        private final JDChunkingService jdChunkingService;
+        private final DistributionSummary bytesSaved;
+
+        public ChatbotInternalService(CandidateCVRepository candidateCVRepository,
+                        CVAnalysisRepository cvAnalysisRepository,
+                        PositionReadModel positionReadModel,
+                        JDChunkingService jdChunkingService,
+                        MeterRegistry meterRegistry) {
+                this.candidateCVRepository = candidateCVRepository;
+                this.cvAnalysisRepository = cvAnalysisRepository;
+                this.positionReadModel = positionReadModel;
+                this.jdChunkingService = jdChunkingService;
+                this.bytesSaved = DistributionSummary.builder("chat.jd_details.bytes_saved")
+                                .baseUnit("bytes")
+                                .description("Số byte JD không phải trả về nhờ section-selective retrieval")
+                                .register(meterRegistry);
+        }
 
         /**
          * Returns full JD text for a set of position IDs.
@@ -44,22 +66,43 @@ public class ChatbotInternalService {
          *                    de-duplicated)
          */
         public List<PositionDetailsResponse> getPositionDetails(List<Integer> positionIds) {
+                return getPositionDetails(positionIds, null);
+        }
+
+        /**
+         * Section-selective variant: chỉ trả về các section JD được yêu cầu (tên section giống
+         * JDChunkingService, vd. REQUIREMENTS). Không truyền sections → full JD như cũ;
+         * không section nào khớp → fallback full JD để LLM không bị thiếu context.
+         * JD đã tách section được đọc từ PositionReadModel (không chạm DB).
+         */
+        public List<PositionDetailsResponse> getPositionDetails(List<Integer> positionIds,
+                        Collection<String> sections) {
                 if (positionIds == null || positionIds.isEmpty()) {
                         return List.of();
                 }
-                Set<Integer> uniqueIds = Set.copyOf(positionIds);
-                return positionRepository.findAllById(uniqueIds)
-                                .stream()
-                                .map(this::toPositionDetailsResponse)
-                                .collect(Collectors.toList());
+                // Thứ tự ổn định → cùng ids cho cùng body/ETag trên mọi instance (Set.copyOf thì không)
+                Set<Integer> uniqueIds = new TreeSet<>(positionIds);
+                Set<String> wanted = normalizeSections(sections);
+
+                List<PositionDetailsResponse> result = new ArrayList<>();
+                for (PositionReadModel.PositionView jd : positionReadModel.getAll(uniqueIds)) {
+                        PositionDetailsResponse response = toPositionDetailsResponse(jd, wanted);
+                        int servedBytes = response.getJdText() != null
+                                        ? response.getJdText().getBytes(StandardCharsets.UTF_8).length
+                                        : 0;
+                        bytesSaved.record(Math.max(0, jd.fullBytes() - servedBytes));
+                        result.add(response);
+                }
+                return result;
         }
 
         /**
          * Lấy danh sách các vị trí đang mở (active).
          * Dùng cho Chatbot để lọc phạm vi tìm kiếm JD trên Qdrant.
+         * Đọc từ PositionReadModel — cập nhật theo event khi position thay đổi.
          */
         public List<ActivePositionResponse> getActivePositions() {
-                return positionRepository.findAllActive()
+                return positionReadModel.getActivePositions()
                                 .stream()
                                 .map(this::toActivePositionResponse)
                                 .collect(Collectors.toList());
@@ -71,17 +114,9 @@ public class ChatbotInternalService {
          * Qdrant.
          */
         public List<ApplicationSummaryResponse> getApplicationsByPosition(int positionId) {
-                List<CandidateCV> cvs = candidateCVRepository.findApplicationsByPositionId(positionId);
-                if (cvs.isEmpty())
-                        return List.of();
-
-                List<Integer> cvIds = cvs.stream().map(CandidateCV::getId).collect(Collectors.toList());
-                java.util.Map<Integer, org.example.recruitmentservice.models.entity.CVAnalysis> analysisMap = cvAnalysisRepository
-                                .findByCandidateCV_IdIn(cvIds).stream()
-                                .collect(Collectors.toMap(a -> a.getCandidateCV().getId(), a -> a));
-
-                return cvs.stream()
-                                .map(cv -> toApplicationSummaryResponse(cv, analysisMap.get(cv.getId())))
+                return candidateCVRepository.findApplicationSummariesByPositionId(positionId)
+                                .stream()
+                                .map(this::toApplicationSummaryResponse)
                                 .collect(Collectors.toList());
         }
 
@@ -96,10 +131,11 @@ public class ChatbotInternalService {
                 org.example.recruitmentservice.models.enums.SourceType sourceType = "HR_MODE".equals(mode)
                                 ? org.example.recruitmentservice.models.enums.SourceType.HR
                                 : org.example.recruitmentservice.models.enums.SourceType.CANDIDATE;
-                long total = candidateCVRepository.countByPositionIdAndSourceType(positionId, sourceType);
-                long scored = cvAnalysisRepository.countScoredByPositionIdAndSourceType(positionId, sourceType);
-                long passed = cvAnalysisRepository.countPassedByPositionIdAndSourceType(positionId, sourceType,
-                                passThreshold);
+                CandidateCVRepository.CvStatisticsView stats = candidateCVRepository.getCvStatistics(
+                                positionId, sourceType, passThreshold);
+                long total = stats.getTotal() != null ? stats.getTotal() : 0;
+                long scored = stats.getScored() != null ? stats.getScored() : 0;
+                long passed = stats.getPassed() != null ? stats.getPassed() : 0;
                 return CvStatisticsResponse.builder()
                                 .positionId(positionId)
                                 .total(total)
@@ -121,30 +157,17 @@ public class ChatbotInternalService {
         public CandidateApplicationStatusResponse getApplicationStatus(
                         String candidateId, Optional<Integer> positionId) {
 
-                List<CandidateCV> applications = positionId
-                                .map(pid -> candidateCVRepository
-                                                .findApplicationsByCandidateIdAndPositionId(candidateId, pid))
-                                .orElseGet(() -> candidateCVRepository.findApplicationsByCandidateId(candidateId));
-
-                List<CandidateApplicationStatusResponse.ApplicationRecord> records = applications.stream()
-                                .map(cv -> {
-                                        org.example.recruitmentservice.models.enums.MatchStatus matchStatus = cvAnalysisRepository
-                                                        .findByCandidateCV_Id(cv.getId())
-                                                        .map(a -> a.getOverallStatus())
-                                                        .orElse(null);
-                                        Integer score = cvAnalysisRepository.findByCandidateCV_Id(cv.getId())
-                                                        .map(a -> a.getTechnicalScore())
-                                                        .orElse(null);
-                                        String posName = cv.getPosition() != null ? cv.getPosition().getName() : null;
-                                        String status = matchStatus != null ? matchStatus.name() : "PENDING";
-                                        return CandidateApplicationStatusResponse.ApplicationRecord.builder()
-                                                        .positionId(cv.getPosition() != null ? cv.getPosition().getId()
-                                                                        : null)
-                                                        .positionName(posName)
-                                                        .score(score)
-                                                        .status(status)
-                                                        .build();
-                                })
+                List<CandidateApplicationStatusResponse.ApplicationRecord> records = candidateCVRepository
+                                .findApplicationStatuses(candidateId, positionId.orElse(null))
+                                .stream()
+                                .map(view -> CandidateApplicationStatusResponse.ApplicationRecord.builder()
+                                                .positionId(view.getPositionId())
+                                                .positionName(view.getPositionName())
+                                                .score(view.getScore())
+                                                .status(view.getOverallStatus() != null
+                                                                ? view.getOverallStatus().name()
+                                                                : "PENDING")
+                                                .build())
                                 .collect(Collectors.toList());
 
                 return CandidateApplicationStatusResponse.builder()
@@ -216,47 +239,73 @@ public class ChatbotInternalService {
         // Mapping helpers (private)
         // -------------------------------------------------------
 
-        private PositionDetailsResponse toPositionDetailsResponse(Positions position) {
-                return PositionDetailsResponse.builder()
-                                .id(position.getId())
-                                .name(position.getName())
-                                .language(position.getLanguage())
-                                .level(position.getLevel())
-                                .jdText(position.getJobDescription())
+        private PositionDetailsResponse toPositionDetailsResponse(PositionReadModel.PositionView jd, Set<String> wanted) {
+                PositionDetailsResponse.PositionDetailsResponseBuilder builder = PositionDetailsResponse.builder()
+                                .id(jd.id())
+                                .name(jd.name())
+                                .language(jd.language())
+                                .level(jd.level());
+
+                List<String> selected = wanted.isEmpty()
+                                ? List.of()
+                                : jd.sections().keySet().stream().filter(wanted::contains).toList();
+                if (selected.isEmpty()) {
+                        return builder.jdText(jd.fullText())
+                                        .sections(List.copyOf(jd.sections().keySet()))
+                                        .build();
+                }
+
+                StringBuilder text = new StringBuilder();
+                for (String name : selected) {
+                        if (text.length() > 0) {
+                                text.append("\n\n");
+                        }
+                        text.append("## ").append(name).append("\n\n").append(jd.sections().get(name));
+                }
+                return builder.jdText(text.toString())
+                                .sections(selected)
                                 .build();
         }
 
-        private ActivePositionResponse toActivePositionResponse(Positions position) {
-                String openedAt = position.getOpenedAt() != null
-                                ? position.getOpenedAt().toString()
+        private Set<String> normalizeSections(Collection<String> sections) {
+                if (sections == null || sections.isEmpty()) {
+                        return Set.of();
+                }
+                Set<String> normalized = new LinkedHashSet<>();
+                for (String section : sections) {
+                        if (section != null && !section.isBlank()) {
+                                normalized.add(jdChunkingService.normalizeSectionName(section));
+                        }
+                }
+                return normalized;
+        }
+
+        private ActivePositionResponse toActivePositionResponse(PositionReadModel.PositionView position) {
+                String openedAt = position.openedAt() != null
+                                ? position.openedAt().toString()
                                 : null;
                 return ActivePositionResponse.builder()
-                                .id(position.getId())
-                                .name(position.getName())
-                                .language(position.getLanguage())
-                                .level(position.getLevel())
+                                .id(position.id())
+                                .name(position.name())
+                                .language(position.language())
+                                .level(position.level())
                                 .openedAt(openedAt)
                                 .build();
         }
 
-        private ApplicationSummaryResponse toApplicationSummaryResponse(CandidateCV cv,
-                        org.example.recruitmentservice.models.entity.CVAnalysis analysis) {
-                ApplicationSummaryResponse.ApplicationSummaryResponseBuilder builder = ApplicationSummaryResponse
-                                .builder()
-                                .candidateId(cv.getCandidateId())
-                                .candidateName(cv.getName())
-                                .candidateEmail(cv.getEmail())
-                                .appCvId(cv.getId())
-                                .masterCvId(cv.getParentCvId())
-                                .sourceType(cv.getSourceType() != null ? cv.getSourceType().name() : null);
-
-                if (analysis != null) {
-                        builder.score(analysis.getTechnicalScore())
-                                        .feedback(analysis.getFeedback())
-                                        .skillMatch(analysis.getSkillMatch())
-                                        .skillMiss(analysis.getSkillMiss());
-                }
-
-                return builder.build();
+        private ApplicationSummaryResponse toApplicationSummaryResponse(
+                        CandidateCVRepository.ApplicationSummaryView view) {
+                return ApplicationSummaryResponse.builder()
+                                .candidateId(view.getCandidateId())
+                                .candidateName(view.getCandidateName())
+                                .candidateEmail(view.getCandidateEmail())
+                                .appCvId(view.getAppCvId())
+                                .masterCvId(view.getMasterCvId())
+                                .sourceType(view.getSourceType() != null ? view.getSourceType().name() : null)
+                                .score(view.getScore())
+                                .feedback(view.getFeedback())
+                                .skillMatch(view.getSkillMatch())
+                                .skillMiss(view.getSkillMiss())
+                                .build();
         }
 }
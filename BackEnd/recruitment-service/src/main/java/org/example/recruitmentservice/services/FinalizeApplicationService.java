@@ -14,6 +14,7 @@ import org.example.recruitmentservice.models.enums.SourceType;
 import org.example.recruitmentservice.repository.CVAnalysisRepository;
 import org.example.recruitmentservice.repository.CandidateCVRepository;
 import org.example.recruitmentservice.repository.PositionRepository;
+import org.example.recruitmentservice.services.chat.ChatContextService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -36,6 +37,7 @@ public class FinalizeApplicationService {
     private final CandidateCVRepository candidateCVRepository;
     private final CVAnalysisRepository cvAnalysisRepository;
     private final PositionRepository positionRepository;
+    private final ChatContextService chatContextService;
     private final org.springframework.web.client.RestTemplate restTemplate;
 
     @org.springframework.beans.factory.annotation.Value("${EMBEDDING_SERVICE_URL}")
@@ -77,6 +79,9 @@ public class FinalizeApplicationService {
         // 7. Sync Phase 3: Update applied_position_ids array on Master CV in Qdrant
         syncAppliedPositionToQdrant(masterCv.getId(), position.getId());
 
+        // 8. Context cache của chatbot (application status, thống kê CV) phải thấy application mới ngay
+        chatContextService.invalidateApplication(request.getCandidateId(), position.getId());
+
         return FinalizeApplicationResponse.builder()
                 .applicationCvId(applicationCv.getId())
                 .message("Application submitted successfully")
@@ -7,11 +7,14 @@ import org.example.commonlibrary.dto.response.ApiResponse;
 import org.example.commonlibrary.dto.response.ErrorCode;
 import org.example.commonlibrary.dto.response.PageResponse;
 import org.example.commonlibrary.exception.CustomException;
+import org.example.commonlibrary.utils.ContentHashUtil;
 import org.example.commonlibrary.utils.PageUtil;
+import org.example.recruitmentservice.client.GatewayCacheClient;
 import org.example.recruitmentservice.client.LlamaParseClient;
 import org.example.recruitmentservice.config.RabbitMQConfig;
 import org.example.recruitmentservice.dto.request.JDChunkPayload;
 import org.example.recruitmentservice.dto.request.JDChunkedEvent;
+import org.example.recruitmentservice.dto.request.JDParseEvent;
 import org.example.recruitmentservice.dto.request.PositionsRequest;
 import org.example.recruitmentservice.dto.response.DriveFileInfo;
 import org.example.recruitmentservice.dto.response.PositionsResponse;
@@ -19,6 +22,7 @@ import org.example.recruitmentservice.models.entity.Positions;
 import org.example.recruitmentservice.repository.CandidateCVRepository;
 import org.example.recruitmentservice.repository.PositionRepository;
 import org.example.recruitmentservice.services.chunking.JDChunkingService;
+import org.example.recruitmentservice.services.search.PositionSearchIndex;
 import org.example.recruitmentservice.models.enums.JDStatus;
 import org.example.recruitmentservice.models.enums.BatchType;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -33,11 +37,11 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -45,6 +49,8 @@ import java.util.stream.Stream;
 @Service
 @RequiredArgsConstructor
 public class PositionService {
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
     private final PositionRepository positionRepository;
     private final LlamaParseClient llamaParseClient;
     private final StorageService storageService;
@@ -53,6 +59,8 @@ public class PositionService {
     private final RestTemplate restTemplate;
     private final JDChunkingService jdChunkingService;
     private final ProcessingBatchService processingBatchService;
+    private final GatewayCacheClient gatewayCacheClient;
+    private final PositionSearchIndex positionSearchIndex;
 
     @Value("${EMBEDDING_SERVICE_URL}")
     private String embeddingServiceUrl;
@@ -104,60 +112,21 @@ public class PositionService {
         position.setUpdatedAt(LocalDateTime.now());
 
         Positions positionSaved = positionRepository.save(position);
-
-        // Async Processing
-        CompletableFuture.runAsync(() -> {
-            String tempFilePath = null;
-            try {
-                // Update to PARSING
-                Positions p = positionRepository.findById(positionSaved.getId());
-                if (p != null) {
-                    p.setStatus(JDStatus.PARSING);
-                    p.setUpdatedAt(LocalDateTime.now());
-                    positionRepository.save(p);
-                }
-
-                tempFilePath = storageService.downloadFileToTemp(driveFileInfo.getFileId());
-                String jdText = llamaParseClient.parseJD(tempFilePath);
-
-                p = positionRepository.findById(positionSaved.getId());
-                if (p != null) {
-                    p.setStatus(JDStatus.EMBEDDING);
-                    p.setJobDescription(jdText);
-                    p.setUpdatedAt(LocalDateTime.now());
-                    positionRepository.save(p);
-
-                    // Chunk & Publish
-                    List<JDChunkPayload> chunks = jdChunkingService.chunk(
-                            p.getId(), p.getName(),
-                            p.getLanguage(), p.getLevel(), jdText
-                    );
-                    if (chunks.isEmpty()) {
-                        log.warn("[Position] JD chunking produced no chunks for position {}, failing", p.getId());
-                        p.setStatus(JDStatus.FAILED);
-                        p.setErrorMessage("No chunks produced from JD text");
-                        positionRepository.save(p);
-                        processingBatchService.incrementProcessed(batchId, false);
-                    } else {
-                        publishJDChunkedEvent(p, chunks);
-                    }
-                }
-            } catch (Exception e) {
-                log.error("JD Parse/Chunk error details: " + e.getMessage(), e);
-                Positions p = positionRepository.findById(positionSaved.getId());
-                if (p != null) {
-                    p.setStatus(JDStatus.FAILED);
-                    p.setErrorMessage("Parsing failed: " + e.getMessage());
-                    p.setUpdatedAt(LocalDateTime.now());
-                    positionRepository.save(p);
-                }
-                processingBatchService.incrementProcessed(batchId, false);
-            } finally {
-                if (tempFilePath != null) {
-                    storageService.deleteTempFile(tempFilePath);
+        gatewayCacheClient.invalidatePositionsAfterCommit();
+
+        // JD processing chạy trên jd.parse.queue (durable, có DLQ, concurrency giới hạn) —
+        // publish sau commit để listener chắc chắn đọc được position vừa tạo
+        JDParseEvent parseEvent = new JDParseEvent(positionSaved.getId(), driveFileInfo.getFileId(), batchId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publishJDParseEvent(parseEvent);
                 }
-            }
-        });
+            });
+        } else {
+            publishJDParseEvent(parseEvent);
+        }
 
         PositionsResponse response = PositionsResponse.builder()
                 .id(positionSaved.getId())
@@ -179,6 +148,93 @@ public class PositionService {
         );
     }
 
+    /**
+     * Xử lý 1 JD từ jd.parse.queue (JDParseListener): download Drive → LlamaParse → chunk → publish.
+     * Exception được ném lại để message sang jd.parse.queue.dlq (JDParseDlqListener đánh FAILED).
+     * Message bị giao lại sau khi crash sẽ chạy lại từ đầu vì position vẫn ở PENDING/PARSING.
+     * Message mất hẳn (publish lỗi sau commit) hoặc kẹt ở EMBEDDING do JDRecoveryJob xử lý.
+     */
+    public void processJobDescription(JDParseEvent event) {
+        Positions current = positionRepository.findById(event.getPositionId()).orElse(null);
+        if (current == null) {
+            log.warn("[JD-PARSE] Position {} not found, discarding message", event.getPositionId());
+            return;
+        }
+        if (current.getStatus() != JDStatus.PENDING && current.getStatus() != JDStatus.PARSING) {
+            log.warn("[JD-PARSE] Position {} already {}, discarding stale message",
+                    event.getPositionId(), current.getStatus());
+            return;
+        }
+
+        String tempFilePath = null;
+        try {
+            // Update to PARSING
+            current.setStatus(JDStatus.PARSING);
+            current.setUpdatedAt(LocalDateTime.now());
+            positionRepository.save(current);
+            gatewayCacheClient.invalidatePositionsAfterCommit();
+
+            tempFilePath = storageService.downloadFileToTemp(event.getFileId());
+            String jdText = llamaParseClient.parseJD(tempFilePath);
+
+            Positions p = positionRepository.findById(event.getPositionId()).orElse(null);
+            if (p != null) {
+                p.setStatus(JDStatus.EMBEDDING);
+                p.setJobDescription(jdText);
+                p.setUpdatedAt(LocalDateTime.now());
+                positionRepository.save(p);
+                gatewayCacheClient.invalidatePositionsAfterCommit();
+
+                // Chunk & Publish
+                List<JDChunkPayload> chunks = jdChunkingService.chunk(
+                        p.getId(), p.getName(),
+                        p.getLanguage(), p.getLevel(), jdText
+                );
+                if (chunks.isEmpty()) {
+                    failNoChunks(p);
+                } else {
+                    publishJDChunkedEvent(p, chunks);
+                }
+            }
+        } catch (Exception e) {
+            log.error("JD Parse/Chunk error details: " + e.getMessage(), e);
+            throw new RuntimeException("JD parse failed: " + e.getMessage(), e);
+        } finally {
+            if (tempFilePath != null) {
+                storageService.deleteTempFile(tempFilePath);
+            }
+        }
+    }
+
+    /**
+     * Gọi bởi JDRecoveryJob cho position kẹt quá lâu:
+     * PENDING/PARSING → publish lại JDParseEvent; EMBEDDING → chunk lại JD đã parse và publish lại JDChunkedEvent.
+     */
+    public void recoverStuckPosition(Positions position) {
+        switch (position.getStatus()) {
+            case PENDING, PARSING -> {
+                if (position.getDriveFileId() == null) {
+                    log.warn("[JD-RECOVERY] Position {} has no Drive file, cannot re-parse", position.getId());
+                    return;
+                }
+                publishJDParseEvent(new JDParseEvent(position.getId(), position.getDriveFileId(), position.getBatchId()));
+            }
+            case EMBEDDING -> {
+                List<JDChunkPayload> chunks = jdChunkingService.chunk(
+                        position.getId(), position.getName(),
+                        position.getLanguage(), position.getLevel(), position.getJobDescription()
+                );
+                if (chunks.isEmpty()) {
+                    failNoChunks(position);
+                } else {
+                    publishJDChunkedEvent(position, chunks);
+                }
+            }
+            default -> log.debug("[JD-RECOVERY] Position {} is {}, nothing to recover",
+                    position.getId(), position.getStatus());
+        }
+    }
+
     public ApiResponse<List<PositionsResponse>> getPositions(String name, String language, String level) {
         List<Positions> positionsList = positionRepository.findByFilters(name, language, level);
 
@@ -206,6 +262,7 @@ public class PositionService {
         PositionsResponse positionsResponse = PositionsResponse.builder()
                 .name(position.getName())
                 .jdText(position.getJobDescription())
+                .jdHash(ContentHashUtil.sha256Hex(position.getJobDescription()))
                 .build();
 
         return new ApiResponse<>(
@@ -229,28 +286,40 @@ public class PositionService {
                 .build();
     }
 
-    public ApiResponse<List<PositionsResponse>> searchPositions(String keyword) {
+    /**
+     * Tìm kiếm position qua PositionSearchIndex (name, language, level, JD text), xếp hạng theo
+     * độ khớp. Chỉ đọc cột listing của trang hiện tại từ DB (không load LOB JD).
+     * page/size lấy từ query string → clamp về page >= 0, 1 <= size <= MAX_SEARCH_PAGE_SIZE.
+     */
+    public ApiResponse<PageResponse<PositionsResponse>> searchPositions(String keyword, int page, int size) {
         if(keyword == null || keyword.trim().isEmpty()) {
             return new ApiResponse<>(ErrorCode.POSITION_NOT_FOUND.getCode(),
                     ErrorCode.POSITION_NOT_FOUND.getMessage());
         }
-
-        String[] words = keyword.trim().toLowerCase().split("\\s+");
-        List<Positions> all = positionRepository.findAll();
-
-        List<Positions> filtered = all.stream()
-                .filter(p -> {
-                    String combined = (p.getName() + " " + p.getLanguage() + " " + p.getLevel())
-                            .toLowerCase();
-                    return Arrays.stream(words).allMatch(combined::contains);
-                })
+        page = Math.max(page, 0);
+        size = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+
+        PositionSearchIndex.SearchPage result = positionSearchIndex.search(keyword, page, size);
+
+        // Query IN không giữ thứ tự → sắp lại theo rank
+        Map<Integer, PositionRepository.PositionListingView> byId = result.ids().isEmpty()
+                ? Map.of()
+                : positionRepository.findListingByIdIn(result.ids()).stream()
+                        .collect(Collectors.toMap(PositionRepository.PositionListingView::getId, p -> p));
+        List<PositionsResponse> content = result.ids().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::toListingResponse)
                 .toList();
 
-        List<PositionsResponse> responseList = filtered.stream()
-                .map(this::toResponse)
-                .toList();
+        Page<PositionsResponse> mappedPage = new PageImpl<>(content, PageRequest.of(page, size), result.total());
 
-        return new ApiResponse<>(ErrorCode.SUCCESS.getCode(), ErrorCode.SUCCESS.getMessage(), responseList);
+        return ApiResponse.<PageResponse<PositionsResponse>>builder()
+                .statusCode(ErrorCode.SUCCESS.getCode())
+                .message(ErrorCode.SUCCESS.getMessage())
+                .data(PageUtil.toPageResponse(mappedPage))
+                .timestamp(LocalDateTime.now())
+                .build();
     }
 
     @Transactional
@@ -361,6 +430,7 @@ public class PositionService {
         position.setUpdatedAt(LocalDateTime.now());
 
         positionRepository.save(position);
+        gatewayCacheClient.invalidatePositionsAfterCommit();
 
         if (jdText != null) {
             List<JDChunkPayload> chunks = jdChunkingService.chunk(
@@ -419,6 +489,8 @@ public class PositionService {
 
             positionRepository.delete(position);
         }
+
+        gatewayCacheClient.invalidatePositionsAfterCommit();
     }
 
     // HELPER METHOD
@@ -457,6 +529,28 @@ public class PositionService {
                 .build();
     }
 
+    private PositionsResponse toListingResponse(PositionRepository.PositionListingView view) {
+        return PositionsResponse.builder()
+                .id(view.getId())
+                .hrId(view.getHrId())
+                .name(view.getName())
+                .language(view.getLanguage())
+                .level(view.getLevel())
+                .positionName(buildPositionName(view.getName(), view.getLanguage(), view.getLevel()))
+                .jdPath(view.getJdPath())
+                .driveFileUrl(view.getDriveFileUrl())
+                .totalCVs(view.getTotalCVs().intValue())
+                .isActive(view.getActive())
+                .openedAt(view.getOpenedAt())
+                .createdAt(view.getCreatedAt())
+                .build();
+    }
+
+    private void publishJDParseEvent(JDParseEvent event) {
+        rabbitTemplate.convertAndSend(RabbitMQConfig.JD_PARSE_QUEUE, event);
+        log.info("[Position] Queued JD parsing for position {} (batch {})", event.getPositionId(), event.getBatchId());
+    }
+
     /** Publishes a {@link JDChunkedEvent} to the JD chunked exchange after transaction commit. */
     private void publishJDChunkedEvent(Positions position, List<JDChunkPayload> chunks) {
         try {
@@ -489,6 +583,16 @@ public class PositionService {
         }
     }
 
+    private void failNoChunks(Positions position) {
+        log.warn("[Position] JD chunking produced no chunks for position {}, failing", position.getId());
+        position.setStatus(JDStatus.FAILED);
+        position.setErrorMessage("No chunks produced from JD text");
+        position.setUpdatedAt(LocalDateTime.now());
+        positionRepository.save(position);
+        gatewayCacheClient.invalidatePositionsAfterCommit();
+        processingBatchService.incrementProcessed(position.getBatchId(), false);
+    }
+
     private String buildPositionName(String name, String language, String level) {
         return Stream.of(name, language, level)
                 .filter(s -> s != null && !s.isBlank())
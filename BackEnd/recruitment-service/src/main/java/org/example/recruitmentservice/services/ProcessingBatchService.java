@@ -14,6 +14,7 @@ import org.example.recruitmentservice.models.enums.BatchType;
 import org.example.recruitmentservice.models.enums.CVStatus;
 import org.example.recruitmentservice.repository.CandidateCVRepository;
 import org.example.recruitmentservice.repository.ProcessingBatchRepository;
+import org.example.recruitmentservice.services.analytics.AnalyticsRollupService;
 import org.example.recruitmentservice.sse.SseEmitterRegistry;
 import org.springframework.stereotype.Service;
 
@@ -34,6 +35,7 @@ public class ProcessingBatchService {
     private final CandidateCVRepository candidateCVRepository;
     private final PositionRepository positionRepository;
     private final SseEmitterRegistry sseEmitterRegistry;
+    private final AnalyticsRollupService analyticsRollupService;
 
     public ProcessingBatch createBatch(String batchId, Integer positionId, int totalCv, BatchType type) {
         ProcessingBatch batch = new ProcessingBatch();
@@ -68,6 +70,7 @@ public class ProcessingBatchService {
         batch.setSuccessCv((int) actualSuccess);
         batch.setFailedCv((int) actualFailed);
 
+        boolean wasCompleted = batch.getStatus() == BatchStatus.COMPLETED;
         boolean isCompleted = batch.getProcessedCv() >= batch.getTotalCv();
         if (isCompleted) {
             batch.setStatus(BatchStatus.COMPLETED);
@@ -79,6 +82,11 @@ public class ProcessingBatchService {
 
         batchRepository.save(batch);
 
+        // Chỉ đếm vào rollup ở lần chuyển sang COMPLETED đầu tiên
+        if (isCompleted && !wasCompleted) {
+            analyticsRollupService.recordBatchCompleted(batch);
+        }
+
         // Push live update to FE via SSE after DB is persisted
         BatchStatusResponse snapshot = buildStatusSnapshot(batch, batchId);
         sseEmitterRegistry.send(batchId, snapshot);
@@ -2,6 +2,7 @@ package org.example.recruitmentservice.services;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.example.commonlibrary.dto.response.ApiResponse;
 import org.example.commonlibrary.dto.response.ErrorCode;
 import org.example.commonlibrary.exception.CustomException;
@@ -27,6 +28,7 @@ import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.CompletableFuture;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class UploadCVService {
@@ -73,7 +75,7 @@ public class UploadCVService {
                         uploadSingleCV(file, position, batchId, SourceType.HR, userId);
                         successCounter.incrementAndGet();
                     } catch (Exception e) {
-                        System.err.println("File failed: " + e.getMessage());
+                        log.warn("File failed: {}", e.getMessage());
                     }
                 }))
                 .toList();
@@ -137,7 +139,7 @@ public class UploadCVService {
 
             return new ApiResponse<>(200, "CV uploaded successfully", response);
         } catch (Exception e) {
-            System.err.println("Candidate CV upload failed: " + e.getMessage());
+            log.warn("Candidate CV upload failed: {}", e.getMessage());
             throw new CustomException(ErrorCode.FAILED_SAVE_FILE);
         }
     }
@@ -158,8 +160,8 @@ public class UploadCVService {
         master.setDeletedAt(now);
         candidateCVRepository.save(master);
 
-        System.out.println("Re-upload: soft-deleted master CV id=" + master.getId()
-                + " and " + applicationCVs.size() + " application CVs");
+        log.info("Re-upload: soft-deleted master CV id={} and {} application CVs",
+                master.getId(), applicationCVs.size());
     }
 
     /**
@@ -212,17 +214,15 @@ public class UploadCVService {
                     batchId);
 
             rabbitTemplate.convertAndSend(RabbitMQConfig.CV_UPLOAD_QUEUE, event);
-            System.out.println(
-                    "Event published to RabbitMQ - CV ID: " + cv.getId() + " | FileId: " + driveFileInfo.getFileId());
+            log.info("Event published to RabbitMQ - CV ID: {} | FileId: {}", cv.getId(), driveFileInfo.getFileId());
 
             return cv;
 
         } catch (CustomException e) {
-            System.err.println("CustomException: " + e.getMessage());
+            log.warn("CustomException: {}", e.getMessage());
             throw e;
         } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error: {}", e.getMessage(), e);
             throw new CustomException(ErrorCode.FAILED_SAVE_FILE);
         }
     }
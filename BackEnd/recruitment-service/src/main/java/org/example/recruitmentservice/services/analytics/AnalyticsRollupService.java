@@ -0,0 +1,141 @@
+package org.example.recruitmentservice.services.analytics;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.recruitmentservice.dto.response.CvTrafficResponse;
+import org.example.recruitmentservice.dto.response.ProcessingTimeResponse;
+import org.example.recruitmentservice.models.entity.ProcessingBatch;
+import org.example.recruitmentservice.models.enums.CVStatus;
+import org.example.recruitmentservice.repository.BatchDailyStatsRepository;
+import org.example.recruitmentservice.repository.CvDailyStatsRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counter + rollup theo ngày cho admin analytics.
+ *
+ * - Ghi: mỗi lần CV đổi trạng thái / batch hoàn thành → 1 upsert cộng dồn, chạy sau khi
+ *   transaction nghiệp vụ commit (rollback thì không đếm).
+ * - Đọc: dashboard cộng tối đa `days` row rollup, không COUNT/AVG trên candidate_cv, processing_batch.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnalyticsRollupService {
+
+    private static final String[] BUCKET_LABELS = {"1-10 CVs", "11-20 CVs", "21-30 CVs", "> 30 CVs"};
+
+    private final CvDailyStatsRepository cvDailyStatsRepository;
+    private final BatchDailyStatsRepository batchDailyStatsRepository;
+
+    /**
+     * @param previous trạng thái trước đó, null nếu CV vừa được tạo
+     */
+    public void recordCvTransition(CVStatus previous, CVStatus current) {
+        long uploaded = previous == null || current == CVStatus.PENDING ? 1 : 0;
+        long embedded = current == CVStatus.EMBEDDED ? 1 : 0;
+        long failed = current == CVStatus.FAILED ? 1 : 0;
+        if (uploaded + embedded + failed == 0) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        afterCommit(() -> cvDailyStatsRepository.increment(today, uploaded, embedded, failed));
+    }
+
+    public void recordBatchCompleted(ProcessingBatch batch) {
+        if (batch.getCreatedAt() == null || batch.getCompletedAt() == null
+                || batch.getTotalCv() == null || batch.getTotalCv() < 1) {
+            return;
+        }
+        long seconds = Duration.between(batch.getCreatedAt(), batch.getCompletedAt()).getSeconds();
+        LocalDate day = batch.getCompletedAt().toLocalDate();
+        int bucket = sizeBucket(batch.getTotalCv());
+        afterCommit(() -> batchDailyStatsRepository.increment(day, bucket, seconds));
+    }
+
+    public CvTrafficResponse getCvTraffic(int days) {
+        CvDailyStatsRepository.CvTrafficTotals totals =
+                cvDailyStatsRepository.sumSince(LocalDate.now().minusDays(days));
+
+        long totalCv = totals != null && totals.getUploaded() != null ? totals.getUploaded() : 0;
+        long successCv = totals != null && totals.getEmbedded() != null ? totals.getEmbedded() : 0;
+        long failedCv = totals != null && totals.getFailed() != null ? totals.getFailed() : 0;
+
+        return CvTrafficResponse.builder()
+                .totalCv(totalCv)
+                .successCv(successCv)
+                .failedCv(failedCv)
+                .processingCv(Math.max(0, totalCv - successCv - failedCv))
+                .days(days)
+                .build();
+    }
+
+    public ProcessingTimeResponse getProcessingTime(int days) {
+        List<ProcessingTimeResponse.BucketTime> buckets = new ArrayList<>();
+        for (BatchDailyStatsRepository.BucketTotals row :
+                batchDailyStatsRepository.sumSince(LocalDate.now().minusDays(days))) {
+            if (row.getBatchCount() == null || row.getBatchCount() == 0) {
+                continue;
+            }
+            double avg = (double) row.getTotalSeconds() / row.getBatchCount();
+            buckets.add(new ProcessingTimeResponse.BucketTime(BUCKET_LABELS[row.getSizeBucket() - 1], avg));
+        }
+
+        return ProcessingTimeResponse.builder()
+                .days(days)
+                .buckets(buckets)
+                .build();
+    }
+
+    // Lần đầu deploy: dựng rollup từ dữ liệu cũ
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (cvDailyStatsRepository.count() == 0) {
+                log.info("[AnalyticsRollup] Backfilled {} cv_daily_stats rows", cvDailyStatsRepository.backfill());
+            }
+            if (batchDailyStatsRepository.count() == 0) {
+                log.info("[AnalyticsRollup] Backfilled {} batch_daily_stats rows", batchDailyStatsRepository.backfill());
+            }
+        } catch (Exception e) {
+            log.warn("[AnalyticsRollup] Backfill failed: {}", e.getMessage());
+        }
+    }
+
+    private static int sizeBucket(int totalCv) {
+        if (totalCv <= 10) return 1;
+        if (totalCv <= 20) return 2;
+        if (totalCv <= 30) return 3;
+        return 4;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runSafely(action);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runSafely(action);
+            }
+        });
+    }
+
+    // Lỗi ghi rollup không được làm hỏng luồng nghiệp vụ
+    private void runSafely(Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.warn("[AnalyticsRollup] Failed to update rollup: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.recruitmentservice.services.analytics;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.example.recruitmentservice.models.entity.CandidateCV;
+import org.example.recruitmentservice.models.enums.CVStatus;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * JPA entity listener bắt mọi lần CandidateCV đổi cvStatus, kể cả các chỗ set trạng thái
+ * rải rác trong listeners / services, và đẩy sang AnalyticsRollupService.
+ *
+ * Hibernate tạo listener qua Spring bean container; ObjectProvider tránh vòng phụ thuộc
+ * với EntityManagerFactory lúc khởi động.
+ */
+public class CvStatusTransitionListener {
+
+    private final ObjectProvider<AnalyticsRollupService> rollupService;
+
+    public CvStatusTransitionListener(ObjectProvider<AnalyticsRollupService> rollupService) {
+        this.rollupService = rollupService;
+    }
+
+    @PostLoad
+    public void onLoad(CandidateCV cv) {
+        cv.setLoadedStatus(cv.getCvStatus());
+    }
+
+    @PostPersist
+    public void onPersist(CandidateCV cv) {
+        rollupService.getObject().recordCvTransition(null, cv.getCvStatus());
+        cv.setLoadedStatus(cv.getCvStatus());
+    }
+
+    @PostUpdate
+    public void onUpdate(CandidateCV cv) {
+        CVStatus previous = cv.getLoadedStatus();
+        CVStatus current = cv.getCvStatus();
+        if (current != null && current != previous) {
+            rollupService.getObject().recordCvTransition(previous, current);
+        }
+        cv.setLoadedStatus(current);
+    }
+}
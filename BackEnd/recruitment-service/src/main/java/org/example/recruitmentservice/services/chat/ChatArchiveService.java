@@ -0,0 +1,279 @@
+package org.example.recruitmentservice.services.chat;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.recruitmentservice.config.ChatArchiveConfig;
+import org.example.recruitmentservice.models.entity.ChatHistory;
+import org.example.recruitmentservice.models.entity.ChatSession;
+import org.example.recruitmentservice.models.entity.ChatSessionArchive;
+import org.example.recruitmentservice.models.enums.ChatRole;
+import org.example.recruitmentservice.repository.ChatHistoryRepository;
+import org.example.recruitmentservice.repository.ChatSessionArchiveRepository;
+import org.example.recruitmentservice.repository.ChatSessionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Optional;
+import java.util.TimeZone;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Tiered storage cho chat history.
+ *
+ * - Job định kỳ: session idle quá idleThreshold → toàn bộ message được nén (gzip JSON) thành
+ *   1 row chat_session_archive, các row chat_history bị xoá → bảng hot + index chỉ chứa session gần đây.
+ * - Rehydrate: getHistory / getFullHistory chạm vào session đã archive → ghi lại message
+ *   (giữ nguyên id gốc để keyset pagination không đổi thứ tự) và xoá blob.
+ *
+ * Archive và rehydrate của cùng session được serialize bằng SELECT ... FOR UPDATE trên chat_session.
+ */
+@Slf4j
+@Service
+public class ChatArchiveService {
+
+    private static final String RESTORE_SQL =
+            "INSERT INTO chat_history (id, session_id, role, content, function_call, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    record ArchivedMessage(Long id, ChatRole role, String content, String functionCall,
+                                   LocalDateTime createdAt) {
+    }
+
+    private final ChatArchiveConfig config;
+    private final ChatSessionRepository chatSessionRepository;
+    private final ChatHistoryRepository chatHistoryRepository;
+    private final ChatSessionArchiveRepository archiveRepository;
+    private final ChatWriteBehindBuffer chatWriteBehindBuffer;
+    private final ChatHistoryCache chatHistoryCache;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter archivedCounter;
+    private final Counter rehydratedCounter;
+    private final Counter archivedBytesCounter;
+
+    private final Calendar jdbcCalendar;
+
+    public ChatArchiveService(ChatArchiveConfig config,
+                              ChatSessionRepository chatSessionRepository,
+                              ChatHistoryRepository chatHistoryRepository,
+                              ChatSessionArchiveRepository archiveRepository,
+                              ChatWriteBehindBuffer chatWriteBehindBuffer,
+                              ChatHistoryCache chatHistoryCache,
+                              ObjectMapper objectMapper,
+                              JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${spring.jpa.properties.hibernate.jdbc.time_zone:}") String jdbcTimeZone) {
+        this.config = config;
+        this.chatSessionRepository = chatSessionRepository;
+        this.chatHistoryRepository = chatHistoryRepository;
+        this.archiveRepository = archiveRepository;
+        this.chatWriteBehindBuffer = chatWriteBehindBuffer;
+        this.chatHistoryCache = chatHistoryCache;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcCalendar = jdbcTimeZone.isBlank() ? null
+                : Calendar.getInstance(TimeZone.getTimeZone(jdbcTimeZone));
+
+        this.archivedCounter = Counter.builder("chat.archive.sessions")
+                .tag("action", "archived")
+                .register(meterRegistry);
+        this.rehydratedCounter = Counter.builder("chat.archive.sessions")
+                .tag("action", "rehydrated")
+                .register(meterRegistry);
+        this.archivedBytesCounter = Counter.builder("chat.archive.compressed")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${chat.archive.cron:0 30 3 * * *}")
+    public void archiveIdleSessions() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(config.getIdleThreshold());
+        int archived = 0;
+        int scanned = 0;
+
+        while (scanned < config.getMaxSessionsPerRun()) {
+            List<String> candidates = chatSessionRepository.findArchiveCandidates(
+                    cutoff, PageRequest.of(0, config.getBatchSize()));
+            if (candidates.isEmpty()) {
+                break;
+            }
+            int archivedInBatch = 0;
+            for (String sessionId : candidates) {
+                scanned++;
+                try {
+                    if (archiveSession(sessionId, cutoff)) {
+                        archived++;
+                        archivedInBatch++;
+                    }
+                } catch (Exception e) {
+                    log.error("[ChatArchive] Failed to archive session {}: {}", sessionId, e.getMessage());
+                }
+            }
+            // Không archive được session nào (đều đang có message pending / lỗi) → tránh quét lặp vô hạn
+            if (archivedInBatch == 0) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            log.info("[ChatArchive] Archived {} idle sessions (idle > {})", archived, config.getIdleThreshold());
+        }
+    }
+
+    /** @return true nếu session đã được chuyển sang cold storage */
+    boolean archiveSession(String sessionId, LocalDateTime cutoff) {
+        // Message còn trong write-behind buffer → để lượt sau
+        if (chatWriteBehindBuffer.hasPending(sessionId)) {
+            return false;
+        }
+
+        Boolean archived = transactionTemplate.execute(status -> {
+            Optional<ChatSession> locked = chatSessionRepository.findForUpdate(sessionId);
+            if (locked.isEmpty()
+                    || locked.get().getArchivedAt() != null
+                    || !locked.get().getLastActiveAt().isBefore(cutoff)) {
+                return false;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            List<ChatHistory> messages = chatHistoryRepository.findBySessionIdOrderByCreatedAtAsc(sessionId);
+            if (!messages.isEmpty()) {
+                List<ArchivedMessage> payload = messages.stream()
+                        .map(m -> new ArchivedMessage(m.getId(), m.getRole(), m.getContent(),
+                                m.getFunctionCall(), m.getCreatedAt()))
+                        .toList();
+                byte[] json = writeJson(payload);
+                byte[] compressed = gzip(json);
+
+                archiveRepository.save(ChatSessionArchive.builder()
+                        .sessionId(sessionId)
+                        .messageCount(messages.size())
+                        .rawSize(json.length)
+                        .payload(compressed)
+                        .archivedAt(now)
+                        .build());
+
+                long maxId = messages.stream().mapToLong(ChatHistory::getId).max().orElse(0);
+                chatHistoryRepository.deleteArchived(sessionId, maxId);
+                archivedBytesCounter.increment(compressed.length);
+            }
+            chatSessionRepository.updateArchivedAt(sessionId, now);
+            return true;
+        });
+
+        if (Boolean.TRUE.equals(archived)) {
+            chatHistoryCache.evict(sessionId);
+            archivedCounter.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Đưa history của session đã archive trở lại chat_history. No-op nếu session đang hot
+     * (hoặc đã được request khác rehydrate trước).
+     */
+    public void rehydrate(String sessionId) {
+        Boolean restored = transactionTemplate.execute(status -> {
+            Optional<ChatSession> locked = chatSessionRepository.findForUpdate(sessionId);
+            if (locked.isEmpty() || locked.get().getArchivedAt() == null) {
+                return false;
+            }
+
+            archiveRepository.findById(sessionId).ifPresent(archive -> {
+                List<ArchivedMessage> messages = readJson(gunzip(archive.getPayload()));
+                jdbcTemplate.batchUpdate(RESTORE_SQL, messages, messages.size(), (ps, message) -> {
+                    ps.setLong(1, message.id());
+                    ps.setString(2, sessionId);
+                    ps.setString(3, message.role().name());
+                    ps.setString(4, message.content());
+                    if (message.functionCall() != null) {
+                        ps.setString(5, message.functionCall());
+                    } else {
+                        ps.setNull(5, Types.VARCHAR);
+                    }
+                    setTimestamp(ps, 6, message.createdAt());
+                });
+                archiveRepository.delete(archive);
+            });
+            chatSessionRepository.updateArchivedAt(sessionId, null);
+            return true;
+        });
+
+        if (Boolean.TRUE.equals(restored)) {
+            // Cache có thể đã nạp phần hot (message mới sau khi archive) → nạp lại đầy đủ ở lần đọc sau
+            chatHistoryCache.evict(sessionId);
+            rehydratedCounter.increment();
+            log.info("[ChatArchive] Rehydrated session {}", sessionId);
+        }
+    }
+
+    // Helper methods
+
+    private byte[] writeJson(List<ArchivedMessage> messages) {
+        try {
+            return objectMapper.writeValueAsBytes(messages);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<ArchivedMessage> readJson(byte[] json) {
+        try {
+            return objectMapper.readValue(json, new TypeReference<List<ArchivedMessage>>() {
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] data) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void setTimestamp(PreparedStatement ps, int index, LocalDateTime value) throws SQLException {
+        if (jdbcCalendar != null) {
+            ps.setTimestamp(index, Timestamp.valueOf(value), jdbcCalendar);
+        } else {
+            ps.setTimestamp(index, Timestamp.valueOf(value));
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package org.example.recruitmentservice.services.chat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.commonlibrary.dto.response.ErrorCode;
+import org.example.commonlibrary.exception.CustomException;
+import org.example.recruitmentservice.config.ChatContextConfig;
+import org.example.recruitmentservice.dto.request.ChatContextRequest;
+import org.example.recruitmentservice.dto.response.ActivePositionResponse;
+import org.example.recruitmentservice.dto.response.CandidateApplicationStatusResponse;
+import org.example.recruitmentservice.dto.response.ChatContextResponse;
+import org.example.recruitmentservice.dto.response.CvStatisticsResponse;
+import org.example.recruitmentservice.dto.response.PositionDetailsResponse;
+import org.example.recruitmentservice.models.enums.ChatContextFacet;
+import org.example.recruitmentservice.services.ChatSessionService;
+import org.example.recruitmentservice.services.ChatbotInternalService;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Gộp các facet context của 1 lượt chatbot (history, positions, JD, application status, thống kê CV)
+ * vào 1 request thay vì 4–5 HTTP hop tuần tự.
+ *
+ * - Mỗi facet chạy trên 1 virtual thread riêng → tổng latency ≈ facet chậm nhất.
+ * - Facet đọc dữ liệu dùng chung (positions, JD, thống kê) có cache TTL ngắn riêng.
+ *   HISTORY không cache ở đây — đã có ChatHistoryCache.
+ * - Facet lỗi/timeout chỉ được ghi vào errors, các facet khác vẫn trả về.
+ */
+@Slf4j
+@Service
+public class ChatContextService {
+
+    private static final String ACTIVE_POSITIONS_KEY = "active";
+
+    private final ChatContextConfig config;
+    private final ChatSessionService chatSessionService;
+    private final ChatbotInternalService chatbotInternalService;
+
+    private final FacetCache<String, List<ActivePositionResponse>> activePositionsCache;
+    private final FacetCache<List<Integer>, List<PositionDetailsResponse>> positionDetailsCache;
+    private final FacetCache<String, CandidateApplicationStatusResponse> applicationStatusCache;
+    private final FacetCache<String, CvStatisticsResponse> cvStatisticsCache;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ChatContextService(ChatContextConfig config,
+                              ChatSessionService chatSessionService,
+                              ChatbotInternalService chatbotInternalService,
+                              MeterRegistry meterRegistry) {
+        this.config = config;
+        this.chatSessionService = chatSessionService;
+        this.chatbotInternalService = chatbotInternalService;
+
+        int maxEntries = config.getMaxCacheEntries();
+        this.activePositionsCache = new FacetCache<>("active_positions",
+                config.getActivePositionsTtl(), maxEntries, meterRegistry);
+        this.positionDetailsCache = new FacetCache<>("position_details",
+                config.getPositionDetailsTtl(), maxEntries, meterRegistry);
+        this.applicationStatusCache = new FacetCache<>("application_status",
+                config.getApplicationStatusTtl(), maxEntries, meterRegistry);
+        this.cvStatisticsCache = new FacetCache<>("cv_statistics",
+                config.getCvStatisticsTtl(), maxEntries, meterRegistry);
+    }
+
+    public ChatContextResponse getContext(ChatContextRequest request) {
+        validate(request);
+
+        Map<ChatContextFacet, CompletableFuture<Object>> futures = new EnumMap<>(ChatContextFacet.class);
+        for (ChatContextFacet facet : request.getFacets()) {
+            futures.put(facet, submit(() -> loadFacet(facet, request)));
+        }
+
+        long deadline = System.nanoTime() + config.getTimeout().toNanos();
+        Map<ChatContextFacet, Object> results = new EnumMap<>(ChatContextFacet.class);
+        Map<String, String> errors = new LinkedHashMap<>();
+
+        for (Map.Entry<ChatContextFacet, CompletableFuture<Object>> entry : futures.entrySet()) {
+            ChatContextFacet facet = entry.getKey();
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                results.put(facet, entry.getValue().get(remaining, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                entry.getValue().cancel(true);
+                log.warn("Chat context facet {} timed out after {}", facet, config.getTimeout());
+                errors.put(facet.name(), "Timed out");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                log.warn("Chat context facet {} failed: {}", facet, cause.getMessage());
+                errors.put(facet.name(), cause.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CustomException(ErrorCode.INTERNAL_SERVER_ERROR);
+            }
+        }
+
+        return ChatContextResponse.builder()
+                .history(cast(results.get(ChatContextFacet.HISTORY)))
+                .activePositions(cast(results.get(ChatContextFacet.ACTIVE_POSITIONS)))
+                .positionDetails(cast(results.get(ChatContextFacet.POSITION_DETAILS)))
+                .applicationStatus(cast(results.get(ChatContextFacet.APPLICATION_STATUS)))
+                .cvStatistics(cast(results.get(ChatContextFacet.CV_STATISTICS)))
+                .errors(errors.isEmpty() ? null : errors)
+                .build();
+    }
+
+    /**
+     * Gọi sau finalize_application: xoá application status của candidate và thống kê CV của position
+     * ngay khi transaction commit, lượt chat kế tiếp không phải chờ hết TTL mới thấy application mới.
+     */
+    public void invalidateApplication(String candidateId, Integer positionId) {
+        String candidatePrefix = candidateId + "|";
+        String positionPrefix = positionId + "|";
+        Runnable invalidate = () -> {
+            applicationStatusCache.invalidateIf(key -> key.startsWith(candidatePrefix));
+            cvStatisticsCache.invalidateIf(key -> key.startsWith(positionPrefix));
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate.run();
+                }
+            });
+        } else {
+            invalidate.run();
+        }
+    }
+
+    private Object loadFacet(ChatContextFacet facet, ChatContextRequest request) {
+        return switch (facet) {
+            case HISTORY -> chatSessionService.getHistory(request.getSessionId(), request.getHistoryLimit());
+            case ACTIVE_POSITIONS -> activePositionsCache.get(ACTIVE_POSITIONS_KEY,
+                    chatbotInternalService::getActivePositions);
+            case POSITION_DETAILS -> {
+                List<Integer> ids = request.getPositionIds().stream().distinct().sorted().toList();
+                yield positionDetailsCache.get(ids, () -> chatbotInternalService.getPositionDetails(ids));
+            }
+            case APPLICATION_STATUS -> applicationStatusCache.get(
+                    request.getCandidateId() + "|" + request.getPositionId(),
+                    () -> chatbotInternalService.getApplicationStatus(
+                            request.getCandidateId(), Optional.ofNullable(request.getPositionId())));
+            case CV_STATISTICS -> cvStatisticsCache.get(
+                    request.getPositionId() + "|" + request.getPassThreshold() + "|" + request.getMode(),
+                    () -> chatbotInternalService.getCvStatistics(
+                            request.getPositionId(), request.getPassThreshold(), request.getMode()));
+        };
+    }
+
+    /** Chạy facet trên virtual thread, giữ MDC (traceId, userId) của request gốc cho log. */
+    private CompletableFuture<Object> submit(Supplier<Object> task) {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        return CompletableFuture.supplyAsync(() -> {
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            try {
+                return task.get();
+            } finally {
+                MDC.clear();
+            }
+        }, executor);
+    }
+
+    private void validate(ChatContextRequest request) {
+        if (request.getFacets() == null || request.getFacets().isEmpty()) {
+            throw new CustomException(ErrorCode.MISSING_REQUIRED_FIELD);
+        }
+        for (ChatContextFacet facet : request.getFacets()) {
+            boolean valid = switch (facet) {
+                case HISTORY -> request.getSessionId() != null && request.getHistoryLimit() != null;
+                case ACTIVE_POSITIONS -> true;
+                case POSITION_DETAILS -> request.getPositionIds() != null && !request.getPositionIds().isEmpty();
+                case APPLICATION_STATUS -> request.getCandidateId() != null;
+                case CV_STATISTICS -> request.getPositionId() != null && request.getMode() != null
+                        && request.getPassThreshold() != null;
+            };
+            if (!valid) {
+                throw new CustomException(ErrorCode.MISSING_REQUIRED_FIELD);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
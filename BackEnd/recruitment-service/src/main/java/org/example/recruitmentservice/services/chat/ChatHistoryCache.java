@@ -0,0 +1,262 @@
+package org.example.recruitmentservice.services.chat;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.recruitmentservice.config.ChatHistoryCacheConfig;
+import org.example.recruitmentservice.models.entity.ChatHistory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Sliding window trong bộ nhớ cho chat history của các session đang active.
+ *
+ * - saveMessage append vào ring buffer của session (kể cả message còn nằm trong write-behind buffer).
+ * - getHistory(limit <= window) đọc thẳng từ ring buffer, không existsById + ORDER BY trên chat_history.
+ * - Session chưa có trong cache được nạp từ DB ở lần đọc đầu tiên.
+ * - Session idle quá idleTimeout (theo lastActiveAt) bị evict định kỳ.
+ *
+ * Append và nạp từ DB của cùng 1 session chạy dưới cùng 1 lock (lock striping) để lần nạp
+ * không bỏ sót message được ghi đồng thời. Dùng ReentrantLock thay vì synchronized vì trong lock
+ * có JDBC — synchronized pin virtual thread (ChatContextService) vào carrier thread trên Java 21.
+ */
+@Component
+public class ChatHistoryCache {
+
+    private static final int LOCK_STRIPES = 64;
+    // Ước lượng overhead mỗi message (object header, field, LocalDateTime, enum ref)
+    private static final long MESSAGE_OVERHEAD_BYTES = 120;
+
+    private final ChatHistoryCacheConfig config;
+    private final Map<String, SessionWindow> sessions = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong estimatedBytes = new AtomicLong();
+
+    public ChatHistoryCache(ChatHistoryCacheConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+
+        FunctionCounter.builder("chat.history_cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("chat.history_cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("chat.history_cache.hit_ratio", this, ChatHistoryCache::getHitRatio)
+                .register(meterRegistry);
+        Gauge.builder("chat.history_cache.sessions", sessions, Map::size)
+                .register(meterRegistry);
+        Gauge.builder("chat.history_cache.memory", estimatedBytes, AtomicLong::get)
+                .baseUnit("bytes")
+                .description("Ước lượng bộ nhớ content + functionCall đang giữ trong cache")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    public int getWindow() {
+        return config.getWindow();
+    }
+
+    public boolean contains(String sessionId) {
+        return config.isEnabled() && sessions.containsKey(sessionId);
+    }
+
+    /**
+     * Ghi message + append vào ring buffer (nếu session đang được cache) như 1 bước nguyên tử
+     * so với lần nạp từ DB của cùng session.
+     */
+    public void appendWith(String sessionId, Supplier<ChatHistory> writer) {
+        ReentrantLock lock = lockFor(sessionId);
+        lock.lock();
+        try {
+            ChatHistory message = writer.get();
+            if (!config.isEnabled()) {
+                return;
+            }
+            SessionWindow window = sessions.get(sessionId);
+            if (window != null) {
+                window.append(message);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Append message đã ghi trong transaction hiện tại, chạy sau commit.
+     *
+     * Append ngay trong transaction thì lock được nhả trước commit: 1 lần nạp đồng thời có thể đọc DB
+     * chưa thấy row rồi dựng window thiếu hẳn message này. Sau commit, window nạp trước đó được bổ sung;
+     * window nạp sau commit đã có row (cùng id) nên bỏ qua.
+     */
+    public void appendAfterCommit(ChatHistory message) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            appendIfAbsent(message);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                appendIfAbsent(message);
+            }
+        });
+    }
+
+    /**
+     * @param loader đọc tối đa `window` message gần nhất (cũ → mới) từ DB + write-behind buffer
+     * @return tối đa `limit` message gần nhất, null nếu limit vượt window (caller tự đọc DB)
+     */
+    public List<ChatHistory> getRecent(String sessionId, int limit, Supplier<List<ChatHistory>> loader) {
+        if (!config.isEnabled() || limit > config.getWindow()) {
+            return null;
+        }
+        SessionWindow window = sessions.get(sessionId);
+        if (window != null) {
+            hits.incrementAndGet();
+            return window.last(limit);
+        }
+
+        misses.incrementAndGet();
+        ReentrantLock lock = lockFor(sessionId);
+        lock.lock();
+        try {
+            window = sessions.get(sessionId);
+            if (window == null) {
+                window = new SessionWindow(config.getWindow());
+                for (ChatHistory message : loader.get()) {
+                    window.append(message);
+                }
+                if (sessions.size() < config.getMaxSessions()) {
+                    sessions.put(sessionId, window);
+                } else {
+                    // Cache đầy → vẫn trả kết quả vừa nạp nhưng không giữ lại
+                    estimatedBytes.addAndGet(-window.bytes);
+                }
+            }
+            return window.last(limit);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void appendIfAbsent(ChatHistory message) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        ReentrantLock lock = lockFor(message.getSessionId());
+        lock.lock();
+        try {
+            SessionWindow window = sessions.get(message.getSessionId());
+            if (window != null && !window.containsId(message.getId())) {
+                window.append(message);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void evict(String sessionId) {
+        SessionWindow removed = sessions.remove(sessionId);
+        if (removed != null) {
+            estimatedBytes.addAndGet(-removed.bytes);
+        }
+    }
+
+    public double getHitRatio() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void evictIdle() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(config.getIdleTimeout());
+        sessions.forEach((sessionId, window) -> {
+            if (window.lastActiveAt.isBefore(cutoff)) {
+                evict(sessionId);
+            }
+        });
+    }
+
+    private ReentrantLock lockFor(String sessionId) {
+        return locks[Math.floorMod(sessionId.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static long sizeOf(ChatHistory message) {
+        long chars = (message.getContent() != null ? message.getContent().length() : 0)
+                + (message.getFunctionCall() != null ? message.getFunctionCall().length() : 0);
+        return chars * 2 + MESSAGE_OVERHEAD_BYTES;
+    }
+
+    /** Ring buffer cố định `capacity` phần tử, message cũ nhất bị ghi đè. */
+    private final class SessionWindow {
+        private final ChatHistory[] ring;
+        private int head;
+        private int count;
+        private long bytes;
+        private volatile LocalDateTime lastActiveAt = LocalDateTime.now();
+
+        private SessionWindow(int capacity) {
+            this.ring = new ChatHistory[capacity];
+        }
+
+        private synchronized void append(ChatHistory message) {
+            int slot = (head + count) % ring.length;
+            if (count == ring.length) {
+                long removed = sizeOf(ring[head]);
+                bytes -= removed;
+                estimatedBytes.addAndGet(-removed);
+                head = (head + 1) % ring.length;
+            } else {
+                count++;
+            }
+            ring[slot] = message;
+            long added = sizeOf(message);
+            bytes += added;
+            estimatedBytes.addAndGet(added);
+            if (message.getCreatedAt() != null && message.getCreatedAt().isAfter(lastActiveAt)) {
+                lastActiveAt = message.getCreatedAt();
+            }
+        }
+
+        private synchronized boolean containsId(Long id) {
+            if (id == null) {
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                if (id.equals(ring[(head + i) % ring.length].getId())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private synchronized List<ChatHistory> last(int limit) {
+            int n = Math.min(limit, count);
+            List<ChatHistory> result = new ArrayList<>(n);
+            for (int i = count - n; i < count; i++) {
+                result.add(ring[(head + i) % ring.length]);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package org.example.recruitmentservice.services.chat;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.commonlibrary.dto.response.ErrorCode;
+import org.example.commonlibrary.exception.CustomException;
+import org.example.recruitmentservice.config.ChatWriteBehindConfig;
+import org.example.recruitmentservice.models.entity.ChatHistory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Buffer write-behind cho chat message.
+ *
+ * - saveMessage chỉ enqueue rồi trả về; 1 flusher duy nhất ghi theo thứ tự enqueue
+ *   → thứ tự message trong từng session được giữ nguyên.
+ * - Mỗi lần flush: 1 JDBC batch INSERT chat_history + 1 UPDATE lastActiveAt cho mỗi session
+ *   (gộp theo session, lấy createdAt lớn nhất).
+ * - Read-your-writes: message chưa flush vẫn nằm trong buffer; readConsistent() gộp kết quả DB
+ *   với phần pending. Commit + xoá khỏi buffer chạy dưới write lock nên reader không thấy
+ *   message bị thiếu hoặc bị lặp.
+ * - Batch lỗi do dữ liệu (DataIntegrityViolation...) được chia đôi tới khi cô lập được row lỗi;
+ *   row đó bị dead-letter (log ERROR + counter) để các message phía sau vẫn được ghi.
+ *   Lỗi kết nối / tạm thời → giữ nguyên batch, thử lại ở lần flush sau.
+ * - Buffer đầy và flush không giải phóng được (DB không nhận) → từ chối ghi (SERVICE_OVERLOADED)
+ *   thay vì để bộ nhớ phình vô hạn.
+ * - Message chưa flush mất nếu process crash (tối đa ~flushIntervalMs); shutdown bình thường flush hết.
+ *   Vì vậy mặc định tắt (chat.write-behind.enabled=false).
+ */
+@Slf4j
+@Component
+public class ChatWriteBehindBuffer {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO chat_history (session_id, role, content, function_call, created_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String TOUCH_SESSION_SQL =
+            "UPDATE chat_session SET last_active_at = ? WHERE session_id = ? AND last_active_at < ?";
+
+    private final ChatWriteBehindConfig config;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ChatHistoryCache chatHistoryCache;
+
+    // Thứ tự enqueue toàn cục + index theo session (cùng guard bởi bufferLock)
+    private final ArrayDeque<ChatHistory> queue = new ArrayDeque<>();
+    private final Map<String, ArrayDeque<ChatHistory>> pendingBySession = new HashMap<>();
+    private final ReentrantLock bufferLock = new ReentrantLock();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ReentrantReadWriteLock visibilityLock = new ReentrantReadWriteLock();
+
+    private final Counter flushedCounter;
+    private final Counter flushFailedCounter;
+    private final Counter deadLetteredCounter;
+    private final Timer flushTimer;
+
+    // Bind LocalDateTime giống Hibernate (hibernate.jdbc.time_zone) để created_at nhất quán với row ghi qua JPA
+    private final Calendar jdbcCalendar;
+
+    public ChatWriteBehindBuffer(ChatWriteBehindConfig config,
+                                 JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 ChatHistoryCache chatHistoryCache,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${spring.jpa.properties.hibernate.jdbc.time_zone:}") String jdbcTimeZone) {
+        this.config = config;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.chatHistoryCache = chatHistoryCache;
+        this.jdbcCalendar = jdbcTimeZone.isBlank() ? null
+                : Calendar.getInstance(TimeZone.getTimeZone(jdbcTimeZone));
+
+        Gauge.builder("chat.write_behind.pending", this, ChatWriteBehindBuffer::size)
+                .register(meterRegistry);
+        this.flushedCounter = meterRegistry.counter("chat.write_behind.flushed");
+        this.flushFailedCounter = meterRegistry.counter("chat.write_behind.flush_failed");
+        this.deadLetteredCounter = Counter.builder("chat.write_behind.dead_lettered")
+                .description("Số message bị bỏ vì DB từ chối row (dữ liệu lỗi)")
+                .register(meterRegistry);
+        this.flushTimer = meterRegistry.timer("chat.write_behind.flush");
+    }
+
+    public void enqueue(ChatHistory message) {
+        if (size() >= config.getMaxPending()) {
+            // Backpressure: flush đồng bộ thay vì để buffer phình vô hạn
+            flush();
+        }
+        bufferLock.lock();
+        try {
+            if (queue.size() >= config.getMaxPending()) {
+                // Flush không giải phóng được chỗ (DB lỗi) → từ chối, caller nhận 503 thay vì ack giả
+                throw new CustomException(ErrorCode.SERVICE_OVERLOADED);
+            }
+            queue.addLast(message);
+            pendingBySession.computeIfAbsent(message.getSessionId(), k -> new ArrayDeque<>()).addLast(message);
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    public boolean hasPending(String sessionId) {
+        bufferLock.lock();
+        try {
+            return pendingBySession.containsKey(sessionId);
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    public int size() {
+        bufferLock.lock();
+        try {
+            return queue.size();
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    /**
+     * Đọc DB + message pending của session như 1 snapshot nhất quán.
+     *
+     * @param dbRead truy vấn DB, trả về theo thứ tự cũ → mới
+     * @return kết quả DB nối thêm pending (pending luôn mới hơn mọi row đã flush)
+     */
+    public List<ChatHistory> readConsistent(String sessionId, Supplier<List<ChatHistory>> dbRead) {
+        visibilityLock.readLock().lock();
+        try {
+            List<ChatHistory> result = new ArrayList<>(dbRead.get());
+            bufferLock.lock();
+            try {
+                ArrayDeque<ChatHistory> pending = pendingBySession.get(sessionId);
+                if (pending != null) {
+                    result.addAll(pending);
+                }
+            } finally {
+                bufferLock.unlock();
+            }
+            return result;
+        } finally {
+            visibilityLock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${chat.write-behind.flush-interval-ms:200}")
+    public void scheduledFlush() {
+        if (config.isEnabled()) {
+            flush();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /** Flush toàn bộ buffer theo từng batch. Chỉ 1 thread flush tại 1 thời điểm. */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<ChatHistory> batch;
+            while (!(batch = peekBatch()).isEmpty()) {
+                if (!writeOrSplit(batch)) {
+                    // Giữ nguyên phần chưa ghi trong buffer, thử lại ở lần flush sau
+                    return;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private List<ChatHistory> peekBatch() {
+        bufferLock.lock();
+        try {
+            List<ChatHistory> batch = new ArrayList<>(Math.min(queue.size(), config.getBatchSize()));
+            Iterator<ChatHistory> it = queue.iterator();
+            while (it.hasNext() && batch.size() < config.getBatchSize()) {
+                batch.add(it.next());
+            }
+            return batch;
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    /**
+     * Ghi batch (đang nằm ở đầu queue). Lỗi do dữ liệu → chia đôi, ghi nửa trước rồi nửa sau để giữ
+     * thứ tự; còn 1 row vẫn lỗi thì dead-letter row đó.
+     *
+     * @return false nếu lỗi tạm thời — phần chưa ghi vẫn ở đầu queue
+     */
+    private boolean writeOrSplit(List<ChatHistory> batch) {
+        try {
+            writeBatch(batch);
+            return true;
+        } catch (Exception e) {
+            flushFailedCounter.increment();
+            if (!isRowError(e)) {
+                log.error("[ChatWriteBehind] Flush of {} messages failed: {}", batch.size(), e.getMessage());
+                return false;
+            }
+            if (batch.size() == 1) {
+                deadLetter(batch.get(0), e);
+                return true;
+            }
+            log.warn("[ChatWriteBehind] Batch of {} messages rejected, splitting: {}", batch.size(), e.getMessage());
+            int mid = batch.size() / 2;
+            return writeOrSplit(batch.subList(0, mid)) && writeOrSplit(batch.subList(mid, batch.size()));
+        }
+    }
+
+    private void writeBatch(List<ChatHistory> batch) {
+        // Gộp lastActiveAt theo session
+        Map<String, LocalDateTime> lastActive = new LinkedHashMap<>();
+        for (ChatHistory message : batch) {
+            lastActive.merge(message.getSessionId(), message.getCreatedAt(),
+                    (a, b) -> a.isAfter(b) ? a : b);
+        }
+        List<Map.Entry<String, LocalDateTime>> touches = new ArrayList<>(lastActive.entrySet());
+
+        visibilityLock.writeLock().lock();
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, message) -> {
+                    ps.setString(1, message.getSessionId());
+                    ps.setString(2, message.getRole().name());
+                    ps.setString(3, message.getContent());
+                    if (message.getFunctionCall() != null) {
+                        ps.setString(4, message.getFunctionCall());
+                    } else {
+                        ps.setNull(4, Types.VARCHAR);
+                    }
+                    setTimestamp(ps, 5, message.getCreatedAt());
+                });
+                jdbcTemplate.batchUpdate(TOUCH_SESSION_SQL, touches, touches.size(), (ps, touch) -> {
+                    setTimestamp(ps, 1, touch.getValue());
+                    ps.setString(2, touch.getKey());
+                    setTimestamp(ps, 3, touch.getValue());
+                });
+            }));
+            removeFlushed(batch);
+            flushedCounter.increment(batch.size());
+        } finally {
+            visibilityLock.writeLock().unlock();
+        }
+    }
+
+    // DB từ chối chính dữ liệu (JSON lỗi, quá dài, session đã bị xoá...) — retry không bao giờ thành công
+    private static boolean isRowError(Exception e) {
+        return e instanceof NonTransientDataAccessException
+                && !(e instanceof DataAccessResourceFailureException);
+    }
+
+    private void deadLetter(ChatHistory message, Exception e) {
+        visibilityLock.writeLock().lock();
+        try {
+            removeFlushed(List.of(message));
+        } finally {
+            visibilityLock.writeLock().unlock();
+        }
+        // Ring buffer đang giữ message không tồn tại trong DB → nạp lại từ DB ở lần đọc sau
+        chatHistoryCache.evict(message.getSessionId());
+        deadLetteredCounter.increment();
+        log.error("[ChatWriteBehind] Dead-lettered message sessionId={}, role={}, createdAt={}, "
+                        + "contentLength={}, functionCall={}: {}",
+                message.getSessionId(), message.getRole(), message.getCreatedAt(),
+                message.getContent() != null ? message.getContent().length() : 0,
+                abbreviate(message.getFunctionCall()), e.getMessage());
+    }
+
+    private static String abbreviate(String value) {
+        if (value == null || value.length() <= 500) {
+            return value;
+        }
+        return value.substring(0, 500) + "...";
+    }
+
+    private void removeFlushed(List<ChatHistory> batch) {
+        bufferLock.lock();
+        try {
+            for (ChatHistory message : batch) {
+                queue.pollFirst();
+                ArrayDeque<ChatHistory> pending = pendingBySession.get(message.getSessionId());
+                if (pending != null) {
+                    pending.pollFirst();
+                    if (pending.isEmpty()) {
+                        pendingBySession.remove(message.getSessionId());
+                    }
+                }
+            }
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    private void setTimestamp(PreparedStatement ps, int index, LocalDateTime value) throws SQLException {
+        if (jdbcCalendar != null) {
+            ps.setTimestamp(index, Timestamp.valueOf(value), jdbcCalendar);
+        } else {
+            ps.setTimestamp(index, Timestamp.valueOf(value));
+        }
+    }
+}
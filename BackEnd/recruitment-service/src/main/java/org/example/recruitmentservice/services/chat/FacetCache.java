@@ -0,0 +1,63 @@
+package org.example.recruitmentservice.services.chat;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.commonlibrary.utils.LruCache;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Cache TTL nhỏ cho 1 facet của ChatContextService.
+ * Đầy maxEntries → bỏ key ít dùng nhất (LRU, O(1)); entry hết hạn bị ghi đè ở lần nạp lại kế tiếp
+ * hoặc trôi về cuối LRU.
+ */
+class FacetCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAtNanos) {
+    }
+
+    private final Duration ttl;
+    private final LruCache<K, Entry<V>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    FacetCache(String facet, Duration ttl, int maxEntries, MeterRegistry meterRegistry) {
+        this.ttl = ttl;
+        this.entries = new LruCache<>(maxEntries);
+
+        FunctionCounter.builder("chat.context.cache.requests", hits, AtomicLong::get)
+                .tag("facet", facet)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("chat.context.cache.requests", misses, AtomicLong::get)
+                .tag("facet", facet)
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    V get(K key, Supplier<V> loader) {
+        if (ttl.isZero() || ttl.isNegative()) {
+            return loader.get();
+        }
+
+        long now = System.nanoTime();
+        Entry<V> entry = entries.get(key);
+        if (entry != null && now - entry.expiresAtNanos() < 0) {
+            hits.incrementAndGet();
+            return entry.value();
+        }
+
+        misses.incrementAndGet();
+        V value = loader.get();
+        entries.put(key, new Entry<>(value, now + ttl.toNanos()));
+        return value;
+    }
+
+    void invalidateIf(Predicate<K> matcher) {
+        entries.removeIf((key, entry) -> matcher.test(key));
+    }
+}
@@ -9,7 +9,9 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -100,6 +102,35 @@ public class JDChunkingService {
         }
     }
 
+    /**
+     * Splits a JD into named sections (same names as {@link JDChunkPayload#getSectionName()}),
+     * without the token-budget paragraph split. Used for section-selective JD retrieval.
+     * Repeated headers are merged; a JD without headers yields a single FULL_TEXT section.
+     *
+     * @return ordered map of section name → section text; empty if input is blank
+     */
+    public Map<String, String> extractSectionMap(String jdMarkdown) {
+        if (jdMarkdown == null || jdMarkdown.isBlank()) {
+            return Collections.emptyMap();
+        }
+        String normalized = normalize(jdMarkdown);
+        List<RawSection> sections = extractSections(normalized);
+        if (sections.isEmpty()) {
+            return Map.of("FULL_TEXT", normalized);
+        }
+
+        Map<String, String> result = new LinkedHashMap<>();
+        for (RawSection section : sections) {
+            result.merge(section.name, section.text, (a, b) -> a + "\n\n" + b);
+        }
+        return result;
+    }
+
+    /** Normalises a caller-supplied section name to the same key format as extracted headers. */
+    public String normalizeSectionName(String raw) {
+        return normalizeHeaderName(raw);
+    }
+
     // -------------------------------------------------------
     // Private Helpers
     // -------------------------------------------------------
@@ -0,0 +1,48 @@
+package org.example.recruitmentservice.services.readmodel;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.example.recruitmentservice.models.entity.Positions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener phát PositionChangedEvent cho mọi lần ghi Positions
+ * (create, update, JD parse xong, đổi status, delete). Chỉ phát sau khi transaction commit
+ * để PositionReadModel / PositionSearchIndex không chứa dữ liệu bị rollback.
+ */
+public class PositionChangeListener {
+
+    private final ObjectProvider<ApplicationEventPublisher> eventPublisher;
+
+    public PositionChangeListener(ObjectProvider<ApplicationEventPublisher> eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Positions position) {
+        publishAfterCommit(PositionChangedEvent.saved(position));
+    }
+
+    @PostRemove
+    public void onRemove(Positions position) {
+        publishAfterCommit(PositionChangedEvent.deleted(position.getId()));
+    }
+
+    private void publishAfterCommit(PositionChangedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eventPublisher.getObject().publishEvent(event);
+                }
+            });
+        } else {
+            eventPublisher.getObject().publishEvent(event);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.recruitmentservice.services.readmodel;
+
+import org.example.recruitmentservice.models.entity.Positions;
+import org.example.recruitmentservice.models.enums.JDStatus;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Snapshot của 1 position sau khi ghi DB thành công (create / update / đổi status / delete).
+ * Phát sau commit bởi PositionChangeListener, hoặc bởi sweep của PositionReadModel khi phát hiện lệch.
+ */
+public record PositionChangedEvent(Integer id,
+                                   boolean deleted,
+                                   String name,
+                                   String language,
+                                   String level,
+                                   String jobDescription,
+                                   boolean active,
+                                   LocalDateTime openedAt,
+                                   JDStatus status,
+                                   LocalDateTime updatedAt) {
+
+    // Chụp giá trị ngay — entity có thể tiếp tục bị sửa trước khi commit.
+    // updatedAt cắt về micro giây như cột DATETIME(6); LocalDateTime.now() trên Linux có nano giây
+    // nên giá trị gốc không bao giờ bằng giá trị sweep đọc lại từ DB.
+    public static PositionChangedEvent saved(Positions position) {
+        return new PositionChangedEvent(
+                position.getId(),
+                false,
+                position.getName(),
+                position.getLanguage(),
+                position.getLevel(),
+                position.getJobDescription(),
+                position.isActive(),
+                position.getOpenedAt(),
+                position.getStatus(),
+                position.getUpdatedAt() != null ? position.getUpdatedAt().truncatedTo(ChronoUnit.MICROS) : null);
+    }
+
+    public static PositionChangedEvent deleted(Integer id) {
+        return new PositionChangedEvent(id, true, null, null, null, null, false, null, null, null);
+    }
+}
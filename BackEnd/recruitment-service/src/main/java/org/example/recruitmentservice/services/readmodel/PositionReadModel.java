@@ -0,0 +1,263 @@
+package org.example.recruitmentservice.services.readmodel;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.recruitmentservice.config.PositionReadModelConfig;
+import org.example.recruitmentservice.models.entity.Positions;
+import org.example.recruitmentservice.models.enums.JDStatus;
+import org.example.recruitmentservice.repository.PositionRepository;
+import org.example.recruitmentservice.services.chunking.JDChunkingService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read model position trong bộ nhớ cho chatbot: active positions + JD đã tách section.
+ *
+ * - Load toàn bộ khi khởi động (trước PositionSearchIndex), sau đó cập nhật qua PositionChangedEvent
+ *   (after commit) — request chatbot không chạm DB.
+ * - Sweep định kỳ chỉ SELECT (id, updatedAt, isActive, status), reload những position lệch và phát
+ *   lại PositionChangedEvent để search index cũng hội tụ. Bắt được ghi từ instance khác / SQL tay.
+ * - Chưa load xong (hoặc tắt qua config) → đọc thẳng DB.
+ * - Không giới hạn số entry: giữ full JD + section map của mọi position, kể cả inactive (JDSectionCache
+ *   trước đây giới hạn 500 entry). Bộ nhớ tăng theo tổng số position — theo dõi qua
+ *   positions.read_model.jd_bytes; quá lớn thì tắt positions.read-model.enabled để quay về đọc DB.
+ */
+@Slf4j
+@Component
+public class PositionReadModel {
+
+    public record PositionView(Integer id, String name, String language, String level, LocalDateTime openedAt,
+                               boolean active, JDStatus status, LocalDateTime updatedAt,
+                               String fullText, Map<String, String> sections, int fullBytes) {
+    }
+
+    // Giống ORDER BY openedAt DESC của MySQL: null xếp cuối
+    private static final Comparator<PositionView> OPENED_AT_DESC = Comparator.comparing(
+            PositionView::openedAt, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final PositionReadModelConfig config;
+    private final PositionRepository positionRepository;
+    private final JDChunkingService jdChunkingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<Integer, PositionView> entries = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Timer sweepTimer;
+    private final Counter sweepRepaired;
+
+    public PositionReadModel(PositionReadModelConfig config,
+                             PositionRepository positionRepository,
+                             JDChunkingService jdChunkingService,
+                             ApplicationEventPublisher eventPublisher,
+                             MeterRegistry meterRegistry) {
+        this.config = config;
+        this.positionRepository = positionRepository;
+        this.jdChunkingService = jdChunkingService;
+        this.eventPublisher = eventPublisher;
+
+        FunctionCounter.builder("positions.read_model.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("positions.read_model.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("positions.read_model.entries", entries, Map::size)
+                .register(meterRegistry);
+        Gauge.builder("positions.read_model.jd_bytes", entries,
+                        e -> e.values().stream().mapToLong(PositionView::fullBytes).sum())
+                .baseUnit("bytes")
+                .description("Tổng kích thước JD (UTF-8) đang giữ, chưa tính section map")
+                .register(meterRegistry);
+        this.sweepTimer = meterRegistry.timer("positions.read_model.sweep");
+        this.sweepRepaired = Counter.builder("positions.read_model.sweep.repaired")
+                .description("Số position lệch với DB được sửa bởi sweep")
+                .register(meterRegistry);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Page<Positions> page;
+        int pageNumber = 0;
+        do {
+            page = positionRepository.findAll(
+                    PageRequest.of(pageNumber++, config.getLoadBatchSize(), Sort.by("id")));
+            page.getContent().forEach(position -> apply(PositionChangedEvent.saved(position)));
+        } while (page.hasNext());
+        loaded = true;
+        log.info("[PositionReadModel] Loaded {} positions in {} ms",
+                entries.size(), System.currentTimeMillis() - start);
+    }
+
+    @EventListener
+    public void onPositionChanged(PositionChangedEvent event) {
+        if (config.isEnabled()) {
+            apply(event);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${positions.read-model.sweep-interval-ms:300000}",
+            fixedDelayString = "${positions.read-model.sweep-interval-ms:300000}")
+    public void sweep() {
+        if (!config.isEnabled() || !loaded) {
+            return;
+        }
+        try {
+            sweepTimer.record(this::reconcile);
+        } catch (Exception e) {
+            log.error("[PositionReadModel] Sweep failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /** Read model đã load xong và đang phục vụ đọc (không chạm DB). */
+    public boolean isServing() {
+        return config.isEnabled() && loaded;
+    }
+
+    /** Các position đang mở, openedAt mới nhất trước. */
+    public List<PositionView> getActivePositions() {
+        if (!isServing()) {
+            misses.incrementAndGet();
+            return positionRepository.findAllActive().stream()
+                    .map(position -> toView(PositionChangedEvent.saved(position)))
+                    .toList();
+        }
+        hits.incrementAndGet();
+        return entries.values().stream()
+                .filter(PositionView::active)
+                .sorted(OPENED_AT_DESC)
+                .toList();
+    }
+
+    /** Toàn bộ position đang giữ — chỉ có nghĩa khi isServing(). */
+    public List<PositionView> getAll() {
+        return List.copyOf(entries.values());
+    }
+
+    /** @return position tồn tại trong ids (id không tồn tại bị bỏ qua). */
+    public List<PositionView> getAll(Collection<Integer> ids) {
+        if (!isServing()) {
+            misses.incrementAndGet();
+            return positionRepository.findAllById(ids).stream()
+                    .map(position -> toView(PositionChangedEvent.saved(position)))
+                    .toList();
+        }
+        hits.incrementAndGet();
+        return ids.stream()
+                .map(entries::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // Helper methods
+
+    private void apply(PositionChangedEvent event) {
+        if (event.deleted()) {
+            entries.remove(event.id());
+            return;
+        }
+        // Snapshot cũ hơn bản đang giữ (vd. sweep đọc DB trước 1 commit mới) → bỏ qua
+        entries.merge(event.id(), toView(event),
+                (current, incoming) -> isOlder(incoming, current) ? current : incoming);
+    }
+
+    private void reconcile() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        Set<Integer> seen = new HashSet<>();
+        List<Integer> stale = new ArrayList<>();
+        for (PositionRepository.PositionVersionView version : positionRepository.findAllVersions()) {
+            seen.add(version.getId());
+            PositionView current = entries.get(version.getId());
+            if (current == null
+                    || !sameVersion(current.updatedAt(), version.getUpdatedAt())
+                    || current.active() != Boolean.TRUE.equals(version.getActive())
+                    || current.status() != version.getStatus()) {
+                stale.add(version.getId());
+            }
+        }
+
+        // Position tạo sau lúc SELECT versions chưa có trong seen — chỉ xoá entry cũ hơn lượt sweep
+        List<Integer> removed = entries.values().stream()
+                .filter(view -> !seen.contains(view.id()))
+                .filter(view -> view.updatedAt() == null || view.updatedAt().isBefore(startedAt))
+                .map(PositionView::id)
+                .toList();
+        removed.forEach(id -> eventPublisher.publishEvent(PositionChangedEvent.deleted(id)));
+
+        int batchSize = config.getLoadBatchSize();
+        for (int from = 0; from < stale.size(); from += batchSize) {
+            List<Integer> batch = stale.subList(from, Math.min(from + batchSize, stale.size()));
+            positionRepository.findAllById(batch)
+                    .forEach(position -> eventPublisher.publishEvent(PositionChangedEvent.saved(position)));
+        }
+
+        int repaired = stale.size() + removed.size();
+        if (repaired > 0) {
+            sweepRepaired.increment(repaired);
+            log.warn("[PositionReadModel] Sweep repaired {} positions ({} reloaded, {} removed)",
+                    repaired, stale.size(), removed.size());
+        }
+    }
+
+    private static boolean isOlder(PositionView incoming, PositionView current) {
+        return incoming.updatedAt() != null && current.updatedAt() != null
+                && incoming.updatedAt().isBefore(current.updatedAt())
+                && !sameVersion(incoming.updatedAt(), current.updatedAt());
+    }
+
+    // MySQL làm tròn (không cắt) phần dưới micro giây khi lưu → lệch tối đa 1µs so với giá trị đã truncate
+    private static boolean sameVersion(LocalDateTime a, LocalDateTime b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return Math.abs(ChronoUnit.NANOS.between(a, b)) <= 1_000;
+    }
+
+    private PositionView toView(PositionChangedEvent event) {
+        String jd = event.jobDescription();
+        return new PositionView(
+                event.id(),
+                event.name(),
+                event.language(),
+                event.level(),
+                event.openedAt(),
+                event.active(),
+                event.status(),
+                event.updatedAt(),
+                jd,
+                jdChunkingService.extractSectionMap(jd),
+                jd != null ? jd.getBytes(StandardCharsets.UTF_8).length : 0);
+    }
+}
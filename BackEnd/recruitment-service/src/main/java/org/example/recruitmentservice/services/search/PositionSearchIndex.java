@@ -0,0 +1,249 @@
+package org.example.recruitmentservice.services.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.recruitmentservice.models.entity.Positions;
+import org.example.recruitmentservice.repository.PositionRepository;
+import org.example.recruitmentservice.services.readmodel.PositionChangedEvent;
+import org.example.recruitmentservice.services.readmodel.PositionReadModel;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index trong bộ nhớ cho tìm kiếm position theo name / language / level / JD text.
+ *
+ * - Term → (positionId → weight). Weight theo field: name > language = level > JD (log tf).
+ * - Query: mọi từ đều phải khớp (AND), khớp nguyên term hoặc prefix ("back" → "backend"); khớp nguyên
+ *   term được điểm cao hơn prefix. Khác substring cũ: phần giữa/cuối từ không khớp ("end" ↛ "backend").
+ * - Không dấu + lowercase, nên "lap trinh" khớp "Lập trình".
+ * - Build toàn bộ khi khởi động (từ PositionReadModel nếu đã load), sau đó cập nhật từng position
+ *   qua PositionChangedEvent (after commit / sweep của read model).
+ * - Index nằm riêng trong từng instance: ghi ở instance khác chỉ tới đây qua sweep của PositionReadModel
+ *   (positions.read-model.sweep-interval-ms), nên chạy nhiều instance thì kết quả có thể trễ tới 1 chu kỳ sweep.
+ */
+@Slf4j
+@Component
+public class PositionSearchIndex {
+
+    private static final Pattern SPLIT = Pattern.compile("[^\\p{L}\\p{N}+#]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final int REBUILD_PAGE_SIZE = 500;
+
+    private static final float NAME_WEIGHT = 4f;
+    private static final float LANGUAGE_WEIGHT = 3f;
+    private static final float LEVEL_WEIGHT = 3f;
+    private static final float JD_WEIGHT = 1f;
+    private static final float PREFIX_FACTOR = 0.5f;
+
+    /** Kết quả 1 trang: id theo thứ tự rank + tổng số position khớp. */
+    public record SearchPage(List<Integer> ids, long total) {
+    }
+
+    private final PositionRepository positionRepository;
+    private final PositionReadModel positionReadModel;
+    private final Timer searchTimer;
+
+    private final TreeMap<String, Map<Integer, Float>> postings = new TreeMap<>();
+    private final Map<Integer, Set<String>> termsByPosition = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public PositionSearchIndex(PositionRepository positionRepository,
+                               PositionReadModel positionReadModel,
+                               MeterRegistry meterRegistry) {
+        this.positionRepository = positionRepository;
+        this.positionReadModel = positionReadModel;
+        this.searchTimer = meterRegistry.timer("positions.search");
+        Gauge.builder("positions.search.indexed", this, PositionSearchIndex::size)
+                .register(meterRegistry);
+        Gauge.builder("positions.search.terms", this, PositionSearchIndex::termCount)
+                .register(meterRegistry);
+    }
+
+    // Chạy sau PositionReadModel.load() để dùng lại JD đã nạp thay vì đọc LOB lần nữa
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        int indexed = 0;
+        if (positionReadModel.isServing()) {
+            for (PositionReadModel.PositionView view : positionReadModel.getAll()) {
+                index(view.id(), view.name(), view.language(), view.level(), view.fullText());
+                indexed++;
+            }
+            log.info("[PositionSearch] Indexed {} positions ({} terms) from read model in {} ms",
+                    indexed, termCount(), System.currentTimeMillis() - start);
+            return;
+        }
+        Page<Positions> page;
+        int pageNumber = 0;
+        do {
+            page = positionRepository.findAll(PageRequest.of(pageNumber++, REBUILD_PAGE_SIZE, Sort.by("id")));
+            for (Positions position : page.getContent()) {
+                index(position.getId(), position.getName(), position.getLanguage(), position.getLevel(),
+                        position.getJobDescription());
+                indexed++;
+            }
+        } while (page.hasNext());
+        log.info("[PositionSearch] Indexed {} positions ({} terms) in {} ms",
+                indexed, termCount(), System.currentTimeMillis() - start);
+    }
+
+    @EventListener
+    public void onPositionChanged(PositionChangedEvent event) {
+        if (event.deleted()) {
+            remove(event.id());
+        } else {
+            index(event.id(), event.name(), event.language(), event.level(), event.jobDescription());
+        }
+    }
+
+    /** Thêm mới hoặc thay thế toàn bộ term của 1 position. */
+    public void index(Integer id, String name, String language, String level, String jobDescription) {
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, name, NAME_WEIGHT, false);
+        addField(weights, language, LANGUAGE_WEIGHT, false);
+        addField(weights, level, LEVEL_WEIGHT, false);
+        addField(weights, jobDescription, JD_WEIGHT, true);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, weight));
+            termsByPosition.put(id, weights.keySet());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public SearchPage search(String query, int page, int size) {
+        List<String> tokens = tokenize(query).stream().distinct().toList();
+        if (tokens.isEmpty()) {
+            return new SearchPage(List.of(), 0);
+        }
+        return searchTimer.record(() -> {
+            Map<Integer, Float> scores;
+            lock.readLock().lock();
+            try {
+                scores = matchToken(tokens.get(0));
+                for (int i = 1; i < tokens.size() && !scores.isEmpty(); i++) {
+                    Map<Integer, Float> next = matchToken(tokens.get(i));
+                    scores.keySet().retainAll(next.keySet());
+                    scores.replaceAll((id, score) -> score + next.get(id));
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            List<Integer> ranked = scores.entrySet().stream()
+                    .sorted(Map.Entry.<Integer, Float>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.<Integer, Float>comparingByKey().reversed()))
+                    .map(Map.Entry::getKey)
+                    .toList();
+
+            // long để page * size lớn không tràn int; page/size âm coi như trang đầu/trang rỗng
+            int from = (int) Math.min(Math.max(page, 0) * (long) Math.max(size, 0), ranked.size());
+            int to = (int) Math.min(from + (long) Math.max(size, 0), ranked.size());
+            return new SearchPage(ranked.subList(from, to), ranked.size());
+        });
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return termsByPosition.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Helper methods (gọi khi đang giữ lock)
+
+    /** Điểm tốt nhất của mỗi position cho 1 token: khớp nguyên term hoặc prefix. */
+    private Map<Integer, Float> matchToken(String token) {
+        Map<Integer, Float> result = new HashMap<>();
+        for (Map.Entry<String, Map<Integer, Float>> entry
+                : postings.subMap(token, true, token + Character.MAX_VALUE, true).entrySet()) {
+            float factor = entry.getKey().equals(token) ? 1f : PREFIX_FACTOR;
+            entry.getValue().forEach((id, weight) -> result.merge(id, weight * factor, Math::max));
+        }
+        return result;
+    }
+
+    private void removeLocked(Integer id) {
+        Set<String> terms = termsByPosition.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Integer, Float> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void addField(Map<String, Float> weights, String text, float fieldWeight, boolean countFrequency) {
+        List<String> tokens = tokenize(text);
+        if (tokens.isEmpty()) {
+            return;
+        }
+        if (!countFrequency) {
+            tokens.forEach(token -> weights.merge(token, fieldWeight, Float::sum));
+            return;
+        }
+        Map<String, Integer> tf = new HashMap<>();
+        tokens.stream().filter(t -> t.length() > 1).forEach(t -> tf.merge(t, 1, Integer::sum));
+        tf.forEach((token, count) -> weights.merge(token, fieldWeight * (float) (1 + Math.log(count)), Float::sum));
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'D')
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SPLIT.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,106 @@
+import http from "k6/http";
+import { check } from "k6";
+import { Trend, Rate } from "k6/metrics";
+
+// ─── Benchmark JwtAuthenticationFilter throughput ─────────────────
+// Login 1 lần trong setup(), sau đó bắn liên tục cùng 1 access token qua gateway
+// vào secured endpoint. Chạy trước/sau khi bật VerifiedTokenCache để so sánh RPS:
+//   k6 run -e TARGET_PATH=/auth/user-detail test/load_test_gateway_auth.js
+
+// ─── Custom metrics ───────────────────────────────────────────────
+const securedDuration = new Trend("secured_request_duration", true);
+const successRate = new Rate("secured_success_rate");
+
+// ─── Config ───────────────────────────────────────────────────────
+const GATEWAY_URL = __ENV.GATEWAY_URL ?? "http://localhost:8080";
+const TARGET_PATH = __ENV.TARGET_PATH ?? "/auth/user-detail";
+const PHONE = __ENV.PHONE ?? "0000000000";
+const PASSWORD = __ENV.PASSWORD ?? "Admin@123";
+
+// ─── Scenarios ────────────────────────────────────────────────────
+export const options = {
+  scenarios: {
+    // Constant arrival rate — đo RPS tối đa gateway giữ được ở p95 chấp nhận được
+    same_token: {
+      executor: "ramping-arrival-rate",
+      startRate: 200,
+      timeUnit: "1s",
+      preAllocatedVUs: 200,
+      maxVUs: 500,
+      stages: [
+        { duration: "20s", target: 1000 },
+        { duration: "20s", target: 2000 },
+        { duration: "30s", target: 2000 },
+        { duration: "10s", target: 0 },
+      ],
+      tags: { scenario: "same_token" },
+    },
+  },
+
+  thresholds: {
+    "http_req_duration{scenario:same_token}": ["p(95)<500"],
+    "secured_success_rate": ["rate>0.99"],
+  },
+};
+
+// ─── Setup: lấy access token ──────────────────────────────────────
+export function setup() {
+  const res = http.post(`${GATEWAY_URL}/auth/login`,
+    JSON.stringify({ phone: PHONE, password: PASSWORD }),
+    { headers: { "Content-Type": "application/json" } });
+
+  const token = JSON.parse(res.body)?.data?.accessToken;
+  if (!token) {
+    throw new Error(`Login failed: status=${res.status} body=${res.body}`);
+  }
+  return { token };
+}
+
+// ─── Main function ────────────────────────────────────────────────
+export default function (data) {
+  const res = http.get(`${GATEWAY_URL}${TARGET_PATH}`, {
+    headers: { Authorization: `Bearer ${data.token}` },
+    timeout: "10s",
+    tags: { endpoint: "secured" },
+  });
+
+  securedDuration.add(res.timings.duration);
+  successRate.add(check(res, {
+    "status is 200": (r) => r.status === 200,
+  }));
+}
+
+// ─── Summary ──────────────────────────────────────────────────────
+export function handleSummary(data) {
+  const d = data.metrics["secured_request_duration"]?.values ?? {};
+  const s = data.metrics["secured_success_rate"]?.values ?? {};
+  const r = data.metrics["http_reqs"]?.values ?? {};
+
+  const fmt = (v) => v?.toFixed(0) ?? "N/A";
+  const pct = (v) => ((v ?? 0) * 100).toFixed(2) + "%";
+
+  const lines = [
+    "╔══════════════════════════════════════════════════╗",
+    "║        KẾT QUẢ BENCHMARK GATEWAY JWT FILTER      ║",
+    "╚══════════════════════════════════════════════════╝",
+    "",
+    `  Target              : ${TARGET_PATH}`,
+    `  Tổng requests       : ${r.count ?? 0}`,
+    `  Throughput (req/s)  : ${fmt(r.rate)}`,
+    `  Thành công (%)      : ${pct(s.rate)}`,
+    "",
+    "─── LATENCY (ms) ────────────────────────────────────",
+    `  Avg    : ${fmt(d.avg)}`,
+    `  p50    : ${fmt(d["p(50)"])}`,
+    `  p95    : ${fmt(d["p(95)"])}`,
+    `  p99    : ${fmt(d["p(99)"])}`,
+    `  Max    : ${fmt(d.max)}`,
+    "",
+  ];
+
+  lines.forEach((l) => console.log(l));
+
+  return {
+    "load_test_gateway_auth_result.json": JSON.stringify(data, null, 2),
+  };
+}
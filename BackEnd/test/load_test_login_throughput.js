@@ -0,0 +1,136 @@
+import http from "k6/http";
+import { check } from "k6";
+import { Trend, Rate, Counter } from "k6/metrics";
+
+// ─── Benchmark throughput login (BCrypt) của auth-service ─────────
+// Login storm vượt quá năng lực băm + luồng /auth/refresh-token chạy song song:
+// - logins/s per core = login thành công mỗi giây / CPU_CORES của máy chạy auth-service
+// - 429 cho thấy admission của PasswordHashingService đang cắt tải thay vì để request timeout
+// - 503 = job đã vào queue nhưng chờ quá auth.password-hashing.timeout (queue quá sâu so với CPU)
+// - refresh p95 phải giữ thấp dù login storm đang chạy
+//   k6 run -e CPU_CORES=4 -e LOGIN_RATE=400 test/load_test_login_throughput.js
+
+// ─── Custom metrics ───────────────────────────────────────────────
+const loginDuration = new Trend("login_duration", true);
+const refreshDuration = new Trend("refresh_duration", true);
+const loginSuccess = new Counter("login_success_count");
+const loginRejected = new Counter("login_rejected_count");
+const loginTimedOut = new Counter("login_timeout_count");
+const refreshSuccessRate = new Rate("refresh_success_rate");
+
+// ─── Config ───────────────────────────────────────────────────────
+const BASE_URL = __ENV.BASE_URL ?? "http://localhost:8081";
+const CPU_CORES = Number(__ENV.CPU_CORES ?? 4);
+const LOGIN_RATE = Number(__ENV.LOGIN_RATE ?? 400);
+const ACCOUNT_COUNT = Number(__ENV.ACCOUNT_COUNT ?? 10000);
+const PASSWORD = __ENV.PASSWORD ?? "Password@123";
+const DURATION = __ENV.DURATION ?? "60s";
+
+// ─── Scenarios ────────────────────────────────────────────────────
+export const options = {
+  scenarios: {
+    login_storm: {
+      executor: "constant-arrival-rate",
+      rate: LOGIN_RATE,
+      timeUnit: "1s",
+      duration: DURATION,
+      preAllocatedVUs: 300,
+      maxVUs: 1000,
+      exec: "login",
+      tags: { scenario: "login_storm" },
+    },
+    refresh_probe: {
+      executor: "constant-arrival-rate",
+      rate: 50,
+      timeUnit: "1s",
+      duration: DURATION,
+      preAllocatedVUs: 20,
+      maxVUs: 100,
+      exec: "refresh",
+      tags: { scenario: "refresh_probe" },
+    },
+  },
+
+  thresholds: {
+    "refresh_duration": ["p(95)<300"],
+    "refresh_success_rate": ["rate>0.99"],
+  },
+};
+
+// ─── Setup: lấy refresh token cho luồng probe ─────────────────────
+export function setup() {
+  const res = http.post(`${BASE_URL}/auth/login`,
+    JSON.stringify({ phone: "0000000001", password: PASSWORD }),
+    { headers: { "Content-Type": "application/json" } });
+
+  const refreshToken = JSON.parse(res.body)?.data?.refreshToken;
+  if (!refreshToken) {
+    throw new Error(`Login failed: status=${res.status} body=${res.body}`);
+  }
+  return { refreshToken };
+}
+
+// ─── Scenario functions ───────────────────────────────────────────
+export function login() {
+  const index = Math.floor(Math.random() * ACCOUNT_COUNT) + 1;
+  const res = http.post(`${BASE_URL}/auth/login`,
+    JSON.stringify({ phone: String(index).padStart(10, "0"), password: PASSWORD }),
+    { headers: { "Content-Type": "application/json" }, timeout: "10s" });
+
+  loginDuration.add(res.timings.duration);
+  if (res.status === 429) {
+    loginRejected.add(1);
+    return;
+  }
+  if (res.status === 503) {
+    loginTimedOut.add(1);
+    return;
+  }
+  if (check(res, { "login ok": (r) => r.status === 200 && JSON.parse(r.body)?.data?.accessToken })) {
+    loginSuccess.add(1);
+  }
+}
+
+export function refresh(data) {
+  const res = http.post(`${BASE_URL}/auth/refresh-token`,
+    JSON.stringify({ refreshToken: data.refreshToken }),
+    { headers: { "Content-Type": "application/json" }, timeout: "10s" });
+
+  refreshDuration.add(res.timings.duration);
+  refreshSuccessRate.add(check(res, { "refresh ok": (r) => r.status === 200 }));
+}
+
+// ─── Summary ──────────────────────────────────────────────────────
+export function handleSummary(data) {
+  const l = data.metrics["login_duration"]?.values ?? {};
+  const r = data.metrics["refresh_duration"]?.values ?? {};
+  const ok = data.metrics["login_success_count"]?.values ?? {};
+  const rejected = data.metrics["login_rejected_count"]?.values ?? {};
+  const timedOut = data.metrics["login_timeout_count"]?.values ?? {};
+
+  const fmt = (v) => v?.toFixed(0) ?? "N/A";
+  const perCore = ((ok.rate ?? 0) / CPU_CORES).toFixed(1);
+
+  const lines = [
+    "╔══════════════════════════════════════════════════╗",
+    "║        KẾT QUẢ BENCHMARK LOGIN THROUGHPUT        ║",
+    "╚══════════════════════════════════════════════════╝",
+    "",
+    `  Login rate mục tiêu : ${LOGIN_RATE} req/s`,
+    `  Login thành công/s  : ${fmt(ok.rate)}`,
+    `  Logins/s per core   : ${perCore}   (CPU_CORES=${CPU_CORES})`,
+    `  Login bị 429        : ${rejected.count ?? 0}`,
+    `  Login bị 503        : ${timedOut.count ?? 0}`,
+    "",
+    "─── LATENCY (ms) ────────────────────────────────────",
+    `  Login   p50/p95/p99 : ${fmt(l["p(50)"])} / ${fmt(l["p(95)"])} / ${fmt(l["p(99)"])}`,
+    `  Refresh p50/p95/p99 : ${fmt(r["p(50)"])} / ${fmt(r["p(95)"])} / ${fmt(r["p(99)"])}`,
+    "",
+  ];
+
+  lines.forEach((line) => console.log(line));
+
+  return {
+    "load_test_login_throughput_result.json": JSON.stringify(data, null, 2),
+  };
+}
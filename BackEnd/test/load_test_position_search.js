@@ -0,0 +1,128 @@
+import http from "k6/http";
+import { check } from "k6";
+import { Trend, Rate } from "k6/metrics";
+
+// ─── Benchmark /positions/search trên 10k position ────────────────
+// 1. Seed: mysql -u <user> -p <recruitment_db> < test/seed_positions_10k.sql
+// 2. Restart recruitment-service (index chỉ build toàn bộ lúc khởi động)
+// 3. k6 run test/load_test_position_search.js
+// QUERIES gồm cả query chọn lọc (vài chục kết quả) lẫn query khớp gần hết 10k position.
+// teardown() in ra timer positions.search (thời gian trong index, không tính load entity + HTTP).
+
+// ─── Custom metrics ───────────────────────────────────────────────
+const searchDuration = new Trend("search_duration", true);
+const successRate = new Rate("search_success_rate");
+
+// ─── Config ───────────────────────────────────────────────────────
+const GATEWAY_URL = __ENV.GATEWAY_URL ?? "http://localhost:8080";
+const RECRUITMENT_URL = __ENV.RECRUITMENT_URL ?? "http://localhost:8082";
+const PHONE = __ENV.PHONE ?? "0000000000";
+const PASSWORD = __ENV.PASSWORD ?? "Admin@123";
+const SEARCH_RATE = Number(__ENV.SEARCH_RATE ?? 200);
+const DURATION = __ENV.DURATION ?? "60s";
+const PAGE_SIZE = Number(__ENV.PAGE_SIZE ?? 10);
+const QUERIES = (__ENV.QUERIES ??
+  "backend java senior,kotlin middle,data engineer python,lap trinh vien,kiem thu,react typescript,rust,spring boot,kubernetes,developer")
+  .split(",");
+
+// ─── Scenarios ────────────────────────────────────────────────────
+export const options = {
+  scenarios: {
+    search: {
+      executor: "constant-arrival-rate",
+      rate: SEARCH_RATE,
+      timeUnit: "1s",
+      duration: DURATION,
+      preAllocatedVUs: 100,
+      maxVUs: 400,
+      tags: { scenario: "search" },
+    },
+  },
+
+  thresholds: {
+    "search_duration": ["p(95)<200"],
+    "search_success_rate": ["rate>0.99"],
+  },
+};
+
+// ─── Setup: lấy access token ──────────────────────────────────────
+export function setup() {
+  const res = http.post(`${GATEWAY_URL}/auth/login`,
+    JSON.stringify({ phone: PHONE, password: PASSWORD }),
+    { headers: { "Content-Type": "application/json" } });
+
+  const token = JSON.parse(res.body)?.data?.accessToken;
+  if (!token) {
+    throw new Error(`Login failed: status=${res.status} body=${res.body}`);
+  }
+  return { token };
+}
+
+// ─── Main function ────────────────────────────────────────────────
+export default function (data) {
+  const keyword = QUERIES[Math.floor(Math.random() * QUERIES.length)];
+  const page = Math.floor(Math.random() * 3);
+  const res = http.get(
+    `${GATEWAY_URL}/positions/search?keyword=${encodeURIComponent(keyword)}&page=${page}&size=${PAGE_SIZE}`,
+    {
+      headers: { Authorization: `Bearer ${data.token}` },
+      timeout: "10s",
+      tags: { endpoint: "/positions/search", keyword },
+    });
+
+  searchDuration.add(res.timings.duration, { keyword });
+  successRate.add(check(res, {
+    "status is 200": (r) => r.status === 200,
+    "has page content": (r) => r.status === 200 && Array.isArray(r.json("data.content")),
+  }));
+}
+
+// ─── Teardown: timer trong index của recruitment-service ──────────
+export function teardown() {
+  console.log("─── POSITION SEARCH INDEX ───────────────────────────");
+  for (const name of ["positions.search", "positions.search.indexed", "positions.search.terms"]) {
+    const res = http.get(`${RECRUITMENT_URL}/actuator/metrics/${name}`);
+    if (res.status !== 200) {
+      console.log(`  ${name}: N/A (status ${res.status})`);
+      continue;
+    }
+    const measurements = JSON.parse(res.body).measurements ?? [];
+    const values = measurements.map((m) => `${m.statistic}=${m.value}`).join(", ");
+    console.log(`  ${name}: ${values}`);
+  }
+}
+
+// ─── Summary ──────────────────────────────────────────────────────
+export function handleSummary(data) {
+  const d = data.metrics["search_duration"]?.values ?? {};
+  const s = data.metrics["search_success_rate"]?.values ?? {};
+  const r = data.metrics["http_reqs"]?.values ?? {};
+
+  const fmt = (v) => v?.toFixed(0) ?? "N/A";
+  const pct = (v) => ((v ?? 0) * 100).toFixed(2) + "%";
+
+  const lines = [
+    "╔══════════════════════════════════════════════════╗",
+    "║       KẾT QUẢ BENCHMARK POSITION SEARCH          ║",
+    "╚══════════════════════════════════════════════════╝",
+    "",
+    `  Queries             : ${QUERIES.length}`,
+    `  Tổng requests       : ${r.count ?? 0}`,
+    `  Throughput (req/s)  : ${fmt(r.rate)}`,
+    `  Thành công (%)      : ${pct(s.rate)}`,
+    "",
+    "─── LATENCY (ms) ────────────────────────────────────",
+    `  Avg    : ${fmt(d.avg)}`,
+    `  p50    : ${fmt(d["p(50)"])}`,
+    `  p95    : ${fmt(d["p(95)"])}`,
+    `  p99    : ${fmt(d["p(99)"])}`,
+    `  Max    : ${fmt(d.max)}`,
+    "",
+  ];
+
+  lines.forEach((l) => console.log(l));
+
+  return {
+    "load_test_position_search_result.json": JSON.stringify(data, null, 2),
+  };
+}
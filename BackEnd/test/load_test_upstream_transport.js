@@ -0,0 +1,124 @@
+import http from "k6/http";
+import { check } from "k6";
+import { Trend, Rate } from "k6/metrics";
+
+// ─── So sánh HTTP/1.1 vs h2c giữa gateway và upstream ─────────────
+// Chạy 2 lần với gateway khởi động ở 2 mode khác nhau, giữ nguyên tải:
+//   GATEWAY_UPSTREAM_MODE=HTTP11              → k6 run test/load_test_upstream_transport.js
+//   GATEWAY_UPSTREAM_MODE=H2C_PRIOR_KNOWLEDGE → k6 run test/load_test_upstream_transport.js
+// teardown() in ra số connection của Reactor Netty pool (actuator metrics) để so sánh.
+
+// ─── Custom metrics ───────────────────────────────────────────────
+const readDuration = new Trend("upstream_read_duration", true);
+const successRate = new Rate("upstream_success_rate");
+
+// ─── Config ───────────────────────────────────────────────────────
+const GATEWAY_URL = __ENV.GATEWAY_URL ?? "http://localhost:8080";
+const PHONE = __ENV.PHONE ?? "0000000000";
+const PASSWORD = __ENV.PASSWORD ?? "Admin@123";
+const PATHS = (__ENV.PATHS ?? "/auth/user-detail,/positions").split(",");
+
+const POOL_METRICS = [
+  "reactor.netty.connection.provider.total.connections",
+  "reactor.netty.connection.provider.active.connections",
+  "reactor.netty.connection.provider.pending.connections",
+  "reactor.netty.connection.provider.active.streams",
+];
+
+// ─── Scenarios ────────────────────────────────────────────────────
+export const options = {
+  scenarios: {
+    mixed_reads: {
+      executor: "ramping-arrival-rate",
+      startRate: 100,
+      timeUnit: "1s",
+      preAllocatedVUs: 200,
+      maxVUs: 600,
+      stages: [
+        { duration: "20s", target: 500 },
+        { duration: "40s", target: 1000 },
+        { duration: "10s", target: 0 },
+      ],
+      tags: { scenario: "mixed_reads" },
+    },
+  },
+
+  thresholds: {
+    "upstream_success_rate": ["rate>0.99"],
+  },
+};
+
+// ─── Setup: lấy access token ──────────────────────────────────────
+export function setup() {
+  const res = http.post(`${GATEWAY_URL}/auth/login`,
+    JSON.stringify({ phone: PHONE, password: PASSWORD }),
+    { headers: { "Content-Type": "application/json" } });
+
+  const token = JSON.parse(res.body)?.data?.accessToken;
+  if (!token) {
+    throw new Error(`Login failed: status=${res.status} body=${res.body}`);
+  }
+  return { token };
+}
+
+// ─── Main function ────────────────────────────────────────────────
+export default function (data) {
+  const path = PATHS[Math.floor(Math.random() * PATHS.length)];
+  const res = http.get(`${GATEWAY_URL}${path}`, {
+    headers: { Authorization: `Bearer ${data.token}` },
+    timeout: "10s",
+    tags: { endpoint: path },
+  });
+
+  readDuration.add(res.timings.duration);
+  successRate.add(check(res, {
+    "status is 200": (r) => r.status === 200,
+  }));
+}
+
+// ─── Teardown: đọc metrics connection pool của gateway ────────────
+export function teardown() {
+  console.log("─── REACTOR NETTY POOL ──────────────────────────────");
+  for (const name of POOL_METRICS) {
+    const res = http.get(`${GATEWAY_URL}/actuator/metrics/${name}`);
+    const value = res.status === 200
+      ? JSON.parse(res.body).measurements?.[0]?.value
+      : `N/A (status ${res.status})`;
+    console.log(`  ${name}: ${value}`);
+  }
+}
+
+// ─── Summary ──────────────────────────────────────────────────────
+export function handleSummary(data) {
+  const d = data.metrics["upstream_read_duration"]?.values ?? {};
+  const s = data.metrics["upstream_success_rate"]?.values ?? {};
+  const r = data.metrics["http_reqs"]?.values ?? {};
+
+  const fmt = (v) => v?.toFixed(0) ?? "N/A";
+  const pct = (v) => ((v ?? 0) * 100).toFixed(2) + "%";
+
+  const lines = [
+    "╔══════════════════════════════════════════════════╗",
+    "║      KẾT QUẢ BENCHMARK UPSTREAM TRANSPORT        ║",
+    "╚══════════════════════════════════════════════════╝",
+    "",
+    `  Paths               : ${PATHS.join(", ")}`,
+    `  Tổng requests       : ${r.count ?? 0}`,
+    `  Throughput (req/s)  : ${fmt(r.rate)}`,
+    `  Thành công (%)      : ${pct(s.rate)}`,
+    "",
+    "─── LATENCY (ms) ────────────────────────────────────",
+    `  Avg    : ${fmt(d.avg)}`,
+    `  p50    : ${fmt(d["p(50)"])}`,
+    `  p95    : ${fmt(d["p(95)"])}`,
+    `  p99    : ${fmt(d["p(99)"])}`,
+    `  Max    : ${fmt(d.max)}`,
+    "",
+  ];
+
+  lines.forEach((l) => console.log(l));
+
+  return {
+    "load_test_upstream_transport_result.json": JSON.stringify(data, null, 2),
+  };
+}
@@ -0,0 +1,85 @@
+-- ─── Seed 10k position giả cho benchmark /positions/search ────────
+-- Dùng cùng test/load_test_position_search.js. Mỗi position có JD ~600 từ ghép từ 40 câu mẫu
+-- (Việt + Anh, có dấu) để index có số term và độ dài posting gần với dữ liệu thật.
+--
+--   mysql -u <user> -p <recruitment_db> < test/seed_positions_10k.sql
+--
+-- Sau khi seed phải restart recruitment-service: PositionReadModel + PositionSearchIndex chỉ build
+-- toàn bộ lúc khởi động (instance đang chạy chỉ thấy các row này sau 1 lượt sweep của read model).
+-- Dọn dẹp: DELETE FROM positions WHERE batch_id = 'bench-search';
+
+SET SESSION cte_max_recursion_depth = 10001;
+SET SESSION group_concat_max_len = 1048576;
+
+DROP TEMPORARY TABLE IF EXISTS bench_sentence;
+CREATE TEMPORARY TABLE bench_sentence (id INT PRIMARY KEY, text VARCHAR(512) NOT NULL);
+INSERT INTO bench_sentence (id, text) VALUES
+  (1,  'Thiết kế và phát triển các dịch vụ backend hiệu năng cao phục vụ hàng triệu người dùng mỗi ngày trên nền tảng tuyển dụng.'),
+  (2,  'Design, build and maintain scalable microservices with Spring Boot, Kafka and RabbitMQ in a cloud native environment.'),
+  (3,  'Có ít nhất ba năm kinh nghiệm lập trình Java hoặc Kotlin, hiểu rõ JVM, garbage collection và concurrency.'),
+  (4,  'Hands-on experience with React, TypeScript and modern frontend tooling such as Vite, Webpack and Storybook.'),
+  (5,  'Làm việc chặt chẽ với đội sản phẩm và thiết kế để chuyển yêu cầu nghiệp vụ thành giải pháp kỹ thuật rõ ràng.'),
+  (6,  'Strong knowledge of relational databases, query optimisation, indexing strategies and MySQL or PostgreSQL internals.'),
+  (7,  'Viết unit test, integration test và tham gia code review để đảm bảo chất lượng mã nguồn của cả nhóm.'),
+  (8,  'Experience with Docker, Kubernetes, Helm charts and CI/CD pipelines on GitHub Actions or GitLab CI.'),
+  (9,  'Phân tích dữ liệu lớn bằng Python, Pandas và Spark, xây dựng pipeline ETL ổn định cho báo cáo kinh doanh.'),
+  (10, 'Familiarity with machine learning frameworks such as PyTorch or TensorFlow and deploying models to production.'),
+  (11, 'Quản lý hạ tầng AWS gồm EC2, S3, RDS, Lambda và thiết lập giám sát bằng Prometheus cùng Grafana.'),
+  (12, 'Build responsive mobile applications with Flutter or React Native and publish them to App Store and Google Play.'),
+  (13, 'Tối ưu hiệu năng ứng dụng, xử lý sự cố production và viết tài liệu vận hành cho đội trực hệ thống.'),
+  (14, 'Good communication skills in English, able to read technical documents and discuss with overseas customers.'),
+  (15, 'Chủ động học hỏi công nghệ mới, có tư duy giải quyết vấn đề và tinh thần trách nhiệm cao trong công việc.'),
+  (16, 'Experience with C# and .NET Core, Entity Framework, ASP.NET Web API and Azure cloud services is a plus.'),
+  (17, 'Xây dựng hệ thống kiểm thử tự động với Selenium, Cypress hoặc Playwright cho các luồng nghiệp vụ chính.'),
+  (18, 'Understand security best practices including OAuth2, JWT, OWASP Top Ten and secure coding guidelines.'),
+  (19, 'Tham gia thiết kế kiến trúc hệ thống phân tán, caching với Redis và tìm kiếm toàn văn bằng Elasticsearch.'),
+  (20, 'Mentor junior engineers, lead technical discussions and help the team adopt clean architecture principles.'),
+  (21, 'Phát triển giao diện người dùng thân thiện bằng Vue hoặc Angular, đảm bảo khả năng truy cập và SEO.'),
+  (22, 'Proficiency in Go or Rust for building low latency network services and command line tooling.'),
+  (23, 'Hiểu biết về quy trình Agile Scrum, ước lượng công việc và phối hợp hiệu quả trong các sprint hai tuần.'),
+  (24, 'Experience designing RESTful and GraphQL APIs with clear versioning, pagination and error handling conventions.'),
+  (25, 'Ưu tiên ứng viên từng làm việc trong lĩnh vực tài chính, ngân hàng, thương mại điện tử hoặc logistics.'),
+  (26, 'Knowledge of data warehousing with BigQuery, Snowflake or Redshift and orchestration with Airflow.'),
+  (27, 'Vận hành và tối ưu cơ sở dữ liệu NoSQL như MongoDB, Cassandra hoặc DynamoDB cho khối lượng ghi lớn.'),
+  (28, 'Write clean, maintainable PHP with Laravel or Symfony and integrate third party payment gateways.'),
+  (29, 'Làm việc với hệ thống nhúng, lập trình C và C++ trên vi điều khiển, giao tiếp UART, SPI và I2C.'),
+  (30, 'Experience with natural language processing, large language models, retrieval augmented generation and vector databases.'),
+  (31, 'Đảm bảo chất lượng sản phẩm thông qua kiểm thử thủ công, viết test case và báo cáo lỗi chi tiết.'),
+  (32, 'Collaborate with DevOps to improve observability using OpenTelemetry, structured logging and distributed tracing.'),
+  (33, 'Chế độ đãi ngộ hấp dẫn, lương tháng mười ba, bảo hiểm sức khoẻ cao cấp và du lịch hằng năm cùng công ty.'),
+  (34, 'Flexible working hours, hybrid remote policy, annual learning budget and a modern MacBook Pro.'),
+  (35, 'Môi trường làm việc trẻ trung, năng động, cơ hội thăng tiến rõ ràng và được đào tạo bài bản.'),
+  (36, 'Bachelor degree in Computer Science, Information Technology or a related field, or equivalent experience.'),
+  (37, 'Thành thạo Git, quy trình branching, viết commit message rõ ràng và xử lý conflict khi merge.'),
+  (38, 'Experience with Unity or Unreal Engine for game development and real time 3D rendering is an advantage.'),
+  (39, 'Tham gia phỏng vấn kỹ thuật, đóng góp vào blog công nghệ và cộng đồng mã nguồn mở của công ty.'),
+  (40, 'Able to work under pressure, meet deadlines and take ownership of features from design to production.');
+
+INSERT INTO positions (hr_id, name, language, level, job_description, is_active, opened_at,
+                       created_at, updated_at, status, batch_id)
+WITH RECURSIVE seq (n) AS (
+    SELECT 1
+    UNION ALL
+    SELECT n + 1 FROM seq WHERE n < 10000
+),
+part (k) AS (
+    SELECT 1
+    UNION ALL
+    SELECT k + 1 FROM part WHERE k < 24
+)
+SELECT 'bench-hr',
+       ELT(1 + seq.n % 12, 'Backend Developer', 'Frontend Developer', 'Fullstack Developer',
+           'Mobile Developer', 'Data Engineer', 'DevOps Engineer', 'QA Engineer', 'AI Engineer',
+           'Lập trình viên Backend', 'Kỹ sư Dữ liệu', 'Kỹ sư Kiểm thử', 'Embedded Engineer'),
+       ELT(1 + (seq.n DIV 12) % 10, 'Java', 'Python', 'JavaScript', 'TypeScript', 'Go',
+           'C#', 'PHP', 'Kotlin', 'C++', 'Rust'),
+       ELT(1 + (seq.n DIV 120) % 5, 'Intern', 'Fresher', 'Junior', 'Middle', 'Senior'),
+       (SELECT GROUP_CONCAT(s.text ORDER BY p.k SEPARATOR ' ')
+          FROM part p
+          JOIN bench_sentence s ON s.id = 1 + (seq.n * 7 + p.k * 13) % 40),
+       seq.n % 5 <> 0,
+       NOW(6) - INTERVAL seq.n MINUTE,
+       NOW(6), NOW(6), 'EMBEDDED', 'bench-search'
+FROM seq;
+
+DROP TEMPORARY TABLE bench_sentence;